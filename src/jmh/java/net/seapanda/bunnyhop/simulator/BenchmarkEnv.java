@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+
+/**
+ * ベンチマークを実行するためのヘッドレス環境を準備するクラス.
+ *
+ * @author K.Koike
+ */
+class BenchmarkEnv {
+
+  private static boolean initialized = false;
+
+  private BenchmarkEnv() {}
+
+  /**
+   * ウィンドウと OpenGL コンテキストを持たない状態で 3D モデルを作成できるようにする.
+   * 3D モデルのファイルは, システムプロパティ {@code bhsim.assetPath} で指定したディレクトリから読み込む.
+   */
+  static synchronized void init() {
+    if (initialized) {
+      return;
+    }
+    String assetPath = System.getProperty("bhsim.assetPath");
+    if (assetPath != null) {
+      BhSimulator.ASSET_PATH = assetPath;
+    }
+    var config = new HeadlessApplicationConfiguration();
+    config.updatesPerSecond = -1;
+    new HeadlessApplication(new ApplicationAdapter() {}, config);
+    HeadlessGl.install();
+    Bullet.init(true);
+    initialized = true;
+  }
+
+  /**
+   * {@code numBoxes} 個の箱を置いた {@link SimulationObjectManager} を作成する.
+   * 箱は最初から存在する RaspiCar の周りを避けて, ステージ上に格子状に積み上げる.
+   */
+  static SimulationObjectManager createManager(int numBoxes) throws Exception {
+    return createManager(numBoxes, 0);
+  }
+
+  /**
+   * {@code numBoxes} 個の箱と {@code numLamps} 個の電灯を置いた {@link SimulationObjectManager} を作成する.
+   * 箱と電灯は最初から存在する RaspiCar の周りを避けて, 箱, 電灯の順にステージ上に格子状に積み上げる.
+   */
+  static SimulationObjectManager createManager(int numBoxes, int numLamps) throws Exception {
+    BhSimSettings.Simulation.maxObjects =
+        Math.max(numBoxes + numLamps + 1, BhSimSettings.Simulation.maxObjects);
+    var simObjManager = new SimulationObjectManager();
+    final float spacing = 0.15f;
+    final int numCols = 21;
+    int numCreated = 0;
+    for (int i = 0; numCreated < numBoxes + numLamps; ++i) {
+      int layer = i / (numCols * numCols);
+      float x = (i % numCols - numCols / 2) * spacing;
+      float z = (i / numCols % numCols - numCols / 2) * spacing;
+      if (Math.abs(x) < 0.3f && Math.abs(z) < 0.4f) {
+        continue;
+      }
+      var pos = new Vector3(x, layer * spacing, z);
+      if (numCreated < numBoxes) {
+        simObjManager.createBox(pos, false);
+      } else {
+        simObjManager.createLamp(pos);
+      }
+      ++numCreated;
+    }
+    return simObjManager;
+  }
+}
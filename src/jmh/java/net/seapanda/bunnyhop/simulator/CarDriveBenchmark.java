@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.math.Vector3;
+import java.util.concurrent.TimeUnit;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * RaspiCar を動かしながら物理シミュレーションを 1 ステップ進める処理のベンチマーク.
+ *
+ * <p>{@link BhSimSettings.Simulation#velocityDrive} が true の場合, 動いている RaspiCar の接触点ごとに
+ * ネイティブコードから Java が呼ばれる. {@code velocityDrive} が false の場合との差がその負荷となる.
+ * {@code driving} が false の場合は, 停止している RaspiCar に対して Java が呼ばれないことを確認できる.
+ *
+ * @author K.Koike
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CarDriveBenchmark {
+
+  /** シミュレーション空間に置く RaspiCar の台数. */
+  @Param({"1", "8"})
+  public int numCars;
+
+  /** {@link BhSimSettings.Simulation#velocityDrive} に設定する値. */
+  @Param({"true", "false"})
+  public boolean velocityDrive;
+
+  /** RaspiCar をその場で回転させ続ける場合 true. false の場合は停止させておく. */
+  @Param({"true", "false"})
+  public boolean driving;
+
+  private SimulationObjectManager simObjManager;
+  private float timeStep;
+
+  /** シミュレーション空間を作成して, RaspiCar が着地するまでシミュレーションを進める. */
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    BenchmarkEnv.init();
+    BhSimSettings.Simulation.velocityDrive = velocityDrive;
+    BhSimSettings.Simulation.maxObjects = Math.max(numCars, BhSimSettings.Simulation.maxObjects);
+    simObjManager = BenchmarkEnv.createManager(0);
+    final int numCols = 4;
+    for (int i = 1; i < numCars; ++i) {
+      var pos = new Vector3(0.25f * (i % numCols), 0.1f, 0.1f + 0.3f * (i / numCols));
+      simObjManager.getStage().clampPosXz(pos);
+      simObjManager.createRaspiCar(pos);
+    }
+    simObjManager.step(120);
+    if (driving) {
+      for (RaspiCar car : simObjManager.getRaspiCars()) {
+        car.turnRight(2f, Float.MAX_VALUE);
+      }
+    }
+    timeStep = simObjManager.getTimeStep();
+  }
+
+  /** シミュレーション空間を破棄する. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    simObjManager.dispose();
+  }
+
+  /** 物理シミュレーションを 1 ステップ進める. */
+  @Benchmark
+  public void update() {
+    simObjManager.update(timeStep);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmd;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmdCallback;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link SimulatorCmdProcessorImpl} がコマンドを受け付けてから実行し, 応答を返すまでの処理のスループットを計測するベンチマーク.
+ *
+ * <p>1 回の呼び出しで {@link #BATCH_SIZE} 個のコマンドを受け付けてから, まとめて実行する.
+ *
+ * @author K.Koike
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CmdProcessorBenchmark {
+
+  private static final int BATCH_SIZE = 64;
+  private static final String[] measureDistanceCmd = {"measure-distance"};
+
+  private SimulationObjectManager simObjManager;
+  private SimulatorCmdProcessorImpl cmdProcessor;
+  private BinaryCmdCallback binaryCallback;
+  private BiConsumer<Boolean, String[]> strCallback;
+
+  /** シミュレーション空間とコマンドプロセッサを作成する. */
+  @Setup(Level.Trial)
+  public void setup(Blackhole bh) throws Exception {
+    BenchmarkEnv.init();
+    BhSimSettings.Command.queueCapacity = BATCH_SIZE;
+    BhSimSettings.Command.maxCmdsPerFrame = 0;
+    BhSimSettings.Command.timeBudgetPerFrame = 0;
+    simObjManager = BenchmarkEnv.createManager(30);
+    cmdProcessor = new SimulatorCmdProcessorImpl(simObjManager);
+    binaryCallback = (success, response) -> bh.consume(response.values[0]);
+    strCallback = (success, response) -> bh.consume(response);
+  }
+
+  /** シミュレーション空間を破棄する. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    simObjManager.dispose();
+  }
+
+  /** 数値で表現された距離の計測コマンドを処理する. */
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void processBinary() {
+    for (int i = 0; i < BATCH_SIZE; ++i) {
+      cmdProcessor.process(BinaryCmd.MEASURE_DISTANCE, 0, 0, 0, 0, binaryCallback);
+    }
+    cmdProcessor.executeCmds(null);
+  }
+
+  /** 文字列で表現された距離の計測コマンドを処理する. */
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void processString() {
+    for (int i = 0; i < BATCH_SIZE; ++i) {
+      cmdProcessor.process(measureDistanceCmd, strCallback);
+    }
+    cmdProcessor.executeCmds(null);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 1 フレーム分の更新処理と描画物の収集処理のベンチマーク.
+ *
+ * <p>GL の呼び出しを除いて, 1 フレームごとに {@link BhSimulator} が行う処理を再現する.
+ * 計測の終了後に, 定常状態の {@link #frame} を {@value #NUM_CHECKED_FRAMES} 回呼んでも
+ * メモリを 1 バイトも確保しないことを確認し, 確保した場合はベンチマークを失敗させる.
+ * 箱と電灯の姿勢が変わったときの処理も毎ステップ実行されるように, 休止状態を無効にする.
+ *
+ * @author K.Koike
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameAllocationBenchmark {
+
+  /** メモリを確保しないことを確認するときに {@link #frame} を呼ぶ回数. */
+  private static final int NUM_CHECKED_FRAMES = 1000;
+
+  /** シミュレーション空間に置く箱の個数. */
+  @Param({"0", "30"})
+  public int numBoxes;
+
+  /** シミュレーション空間に置く電灯の個数. */
+  @Param({"0", "5"})
+  public int numLamps;
+
+  private SimulationObjectManager simObjManager;
+  private float timeStep;
+  private PerspectiveCamera camera;
+  private final FrustumCuller culler = new FrustumCuller();
+  private final Array<Renderable> renderables = new Array<>();
+  private final Pool<Renderable> pool = new Pool<>() {
+    @Override
+    protected Renderable newObject() {
+      return new Renderable();
+    }
+  };
+
+  /** シミュレーション空間を作成して, 箱が落ち着くまでシミュレーションを進める. */
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    BenchmarkEnv.init();
+    BhSimSettings.Simulation.allowSleeping = false;
+    simObjManager = BenchmarkEnv.createManager(numBoxes, numLamps);
+    if (!simObjManager.getBoxes().isEmpty()) {
+      simObjManager.createObjectReflection(simObjManager.getBoxes().getFirst());
+    }
+    simObjManager.step(240);
+    timeStep = simObjManager.getTimeStep();
+    camera = new PerspectiveCamera(70, 1280, 720);
+    camera.position.set(0.5f, 1f, 0.5f);
+    camera.lookAt(0, 0, 0);
+    camera.near = 0.04f;
+    camera.far = 8.5f;
+    camera.update();
+  }
+
+  /**
+   * 定常状態の {@link #frame} がメモリを確保しないことを確認してから, シミュレーション空間を破棄する.
+   * JMH のウォームアップと計測の後に呼ばれるので, JIT コンパイルが済んだ状態で確認できる.
+   *
+   * @throws IllegalStateException {@link #frame} がメモリを確保した
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    try {
+      long allocated = measureAllocatedBytes();
+      if (allocated != 0) {
+        throw new IllegalStateException(
+            "%s frames allocated %s bytes (numBoxes = %s, numLamps = %s)."
+                .formatted(NUM_CHECKED_FRAMES, allocated, numBoxes, numLamps));
+      }
+    } finally {
+      simObjManager.dispose();
+    }
+  }
+
+  /** {@link #frame} を {@link #NUM_CHECKED_FRAMES} 回呼ぶ間に, 現在のスレッドが確保したメモリ量を返す. */
+  private long measureAllocatedBytes() {
+    var threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threadBean.isThreadAllocatedMemorySupported()) {
+      throw new UnsupportedOperationException("Thread allocation counting is not supported.");
+    }
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+    long before = threadBean.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < NUM_CHECKED_FRAMES; ++i) {
+      frame();
+    }
+    return threadBean.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  /** シミュレーションを 1 ステップ進めて, 視錐台の中にある 3D モデルの描画物を集める. */
+  @Benchmark
+  public int frame() {
+    simObjManager.update(timeStep);
+    Array<RenderableProvider> visible =
+        culler.cull(camera, simObjManager.getRenderableProviders());
+    for (int i = 0; i < visible.size; ++i) {
+      visible.get(i).getRenderables(renderables, pool);
+    }
+    int numRenderables = renderables.size;
+    pool.freeAll(renderables);
+    renderables.clear();
+    return numRenderables + simObjManager.getNumContactManifolds();
+  }
+}
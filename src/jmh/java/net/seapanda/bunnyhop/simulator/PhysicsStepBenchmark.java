@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import java.util.concurrent.TimeUnit;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * {@link SimulationObjectManager#update} で物理シミュレーションを 1 ステップ進める処理のベンチマーク.
+ *
+ * @author K.Koike
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhysicsStepBenchmark {
+
+  /** シミュレーション空間に置く箱の個数. */
+  @Param({"0", "30", "300", "3000"})
+  public int numBoxes;
+
+  /** 物理シミュレーション空間の種類. {@link BhSimSettings.Simulation#worldType} に設定する. */
+  @Param({DynamicsWorldFactory.SEQUENTIAL, DynamicsWorldFactory.MULTITHREADED})
+  public String worldType;
+
+  private SimulationObjectManager simObjManager;
+  private float timeStep;
+
+  /** シミュレーション空間を作成する. */
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    BenchmarkEnv.init();
+    BhSimSettings.Simulation.worldType = worldType;
+    simObjManager = BenchmarkEnv.createManager(numBoxes);
+    timeStep = simObjManager.getTimeStep();
+  }
+
+  /** シミュレーション空間を破棄する. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    simObjManager.dispose();
+  }
+
+  /** 物理シミュレーションを 1 ステップ進める. */
+  @Benchmark
+  public void update() {
+    simObjManager.update(timeStep);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector3;
+import java.util.concurrent.TimeUnit;
+import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper;
+import net.seapanda.bunnyhop.simulator.obj.CollisionGroup;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ray test と RaspiCar のセンサの計測処理のベンチマーク.
+ *
+ * @author K.Koike
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensorBenchmark {
+
+  /** シミュレーション空間に置く箱の個数. */
+  @Param({"30", "300"})
+  public int numBoxes;
+
+  private SimulationObjectManager simObjManager;
+  private RayTestHelper rayTestHelper;
+  private RaspiCar car;
+  private final Vector3 rayStart = new Vector3(-1.6f, 0.05f, -1.6f);
+  private final Vector3 rayEnd = new Vector3(1.6f, 0.05f, 1.6f);
+
+  /** シミュレーション空間を作成して, 箱が落ち着くまでシミュレーションを進める. */
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    BenchmarkEnv.init();
+    simObjManager = BenchmarkEnv.createManager(numBoxes);
+    simObjManager.step(240);
+    rayTestHelper = simObjManager.getRayTestHelper();
+    car = simObjManager.getRaspiCar();
+  }
+
+  /** シミュレーション空間を破棄する. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    simObjManager.dispose();
+  }
+
+  /** ステージを横切る線分と交差する 3D モデルを探す. */
+  @Benchmark
+  public void getIntersectedCollidable(Blackhole bh) {
+    bh.consume(rayTestHelper.getIntersectedCollidable(
+        rayStart, rayEnd, CollisionGroup.PHYSICAL_ENTITY));
+  }
+
+  /** RaspiCar のカラーセンサで色を検出する. */
+  @Benchmark
+  public Color detectColor() {
+    return car.detectColor();
+  }
+
+  /** RaspiCar の距離センサで距離を計測する. */
+  @Benchmark
+  public float measureDistance() {
+    return car.measureDistance();
+  }
+}
@@ -16,10 +16,18 @@
 
 package net.seapanda.bunnyhop.simulator;
 
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
 import net.seapanda.bunnyhop.simulator.common.BhSimConstants;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
@@ -47,6 +55,41 @@ public class App {
       System.out.println(BhSimConstants.APP_VERSION);
       return;
     }
+    if (cmd.hasOption("script")) {
+      System.exit(runScript(cmd));
+    }
+    if (cmd.hasOption("batch")) {
+      System.exit(runBatch(cmd));
+    }
+    var simulator = new BhSimulator(cmd.hasOption("headless"));
+    simulator.setOnErrorOccurred(System.err::println);
+    simulator.setOnReplayFinished(App::printReplayResult);
+    if (cmd.hasOption("time-scale")) {
+      simulator.setTimeScale(Float.parseFloat(cmd.getOptionValue("time-scale")));
+    }
+    if (cmd.hasOption("steps-per-frame")) {
+      simulator.setStepsPerFrame(Integer.parseInt(cmd.getOptionValue("steps-per-frame")));
+    }
+    if (cmd.hasOption("cars")) {
+      simulator.setNumInitialCars(Integer.parseInt(cmd.getOptionValue("cars")));
+    }
+    if (cmd.hasOption("scene")) {
+      simulator.setSceneFile(Path.of(cmd.getOptionValue("scene")));
+    }
+    if (cmd.hasOption("record")) {
+      simulator.setRecordFile(Path.of(cmd.getOptionValue("record")));
+    }
+    if (cmd.hasOption("replay")) {
+      simulator.setReplayFile(Path.of(cmd.getOptionValue("replay")));
+    }
+    if (cmd.hasOption("headless")) {
+      var config = new HeadlessApplicationConfiguration();
+      // ステップ数を固定する場合と記録を再生する場合は, 実時間に合わせて待たずに次の更新を行う.
+      boolean isFixedStep = simulator.getStepsPerFrame() > 0 || cmd.hasOption("replay");
+      config.updatesPerSecond = isFixedStep ? 0 : 60;
+      new HeadlessApplication(simulator, config);
+      return;
+    }
 
     var windowListener = new Lwjgl3WindowAdapter() {
       @Override
@@ -55,10 +98,78 @@ public class App {
       }
     };
     var config = new Lwjgl3ApplicationConfiguration();
+    if (BhSimSettings.Rendering.instancing) {
+      useGl30(config);
+    }
     config.setWindowListener(windowListener);
     config.setWindowedMode(1200, 900);
     config.setForegroundFPS(60);
-    new Lwjgl3Application(new BhSimulator(), config);
+    new Lwjgl3Application(simulator, config);
+  }
+
+  /**
+   * {@code --script} で指定したスクリプトをヘッドレスモードで実行して, 結果を標準出力に出力する.
+   *
+   * @return プロセスの終了コード
+   */
+  private static int runScript(CommandLine cmd) {
+    BhSimulator.importSettings();
+    ScriptRunner.initHeadlessEnv();
+    var runner = new ScriptRunner(
+        Path.of(cmd.getOptionValue("script")), getSceneFile(cmd), getMaxSteps(cmd));
+    ScriptResult result = runner.run();
+    System.out.println(result.toResultLine());
+    return (result.status() == ScriptResult.Status.OK) ? 0 : 1;
+  }
+
+  /**
+   * {@code --batch} で指定した全てのスクリプトを並列に実行して, 結果を標準出力に出力する.
+   *
+   * @return プロセスの終了コード
+   */
+  private static int runBatch(CommandLine cmd) throws InterruptedException {
+    List<Path> scripts = Stream.of(cmd.getOptionValues("batch")).map(Path::of).toList();
+    int numJobs = cmd.hasOption("jobs") ? Integer.parseInt(cmd.getOptionValue("jobs")) : 0;
+    var runner = new BatchRunner(scripts, numJobs, getSceneFile(cmd), getMaxSteps(cmd));
+    return runner.run(System.out) ? 0 : 1;
+  }
+
+  /** 記録したシミュレーションを再生した結果を出力する. 失敗した場合は標準エラー出力に出力する. */
+  private static void printReplayResult(ReplayResult result) {
+    PrintStream out = result.isSucceeded() ? System.out : System.err;
+    out.println(result.format());
+  }
+
+  private static Path getSceneFile(CommandLine cmd) {
+    return cmd.hasOption("scene") ? Path.of(cmd.getOptionValue("scene")) : null;
+  }
+
+  private static long getMaxSteps(CommandLine cmd) {
+    return cmd.hasOption("max-steps")
+        ? Long.parseLong(cmd.getOptionValue("max-steps")) : ScriptRunner.DEFAULT_MAX_STEPS;
+  }
+
+  /**
+   * インスタンス描画を使うために OpenGL 3.2 のコンテキストを作成するように設定する.
+   *
+   * <p>OpenGL 3.2 の Core Profile では GLSL 1.00 の記法が使えないので,
+   * libGDX 標準のシェーダが GLSL 1.50 としてコンパイルされるように変換用のマクロを前置する.
+   */
+  private static void useGl30(Lwjgl3ApplicationConfiguration config) {
+    config.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+    ShaderProgram.prependVertexCode = """
+        #version 150
+        #define attribute in
+        #define varying out
+        """;
+    ShaderProgram.prependFragmentCode = """
+        #version 150
+        #define varying in
+        #define texture2D texture
+        #define textureCube texture
+        out vec4 fragColor;
+        #define gl_FragColor fragColor
+        """;
   }
 
   /** コマンドライン引数をパースする. */
@@ -75,6 +186,82 @@ public class App {
         .desc("Print help about BhRuntime environment variables and exit.")
         .build());
 
+    options.addOption(Option.builder()
+        .longOpt("headless")
+        .hasArg(false)
+        .desc("Run the simulation without a window, rendering or UI.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("time-scale")
+        .hasArg(true)
+        .argName("scale")
+        .desc("Ratio of simulation time to real time.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("steps-per-frame")
+        .hasArg(true)
+        .argName("steps")
+        .desc("Run this many fixed physics steps per frame regardless of real time.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("cars")
+        .hasArg(true)
+        .argName("num")
+        .desc("Number of RaspiCars placed in the simulation at startup.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("scene")
+        .hasArg(true)
+        .argName("file")
+        .desc("Restore the scene saved in the file at startup. F5 saves and F9 reloads it.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("script")
+        .hasArg(true)
+        .argName("file")
+        .desc("Run the commands in the file headlessly at fixed steps, print the result and exit.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("batch")
+        .hasArgs()
+        .argName("files")
+        .desc("Run each script in its own headless process in parallel and print the results.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("jobs")
+        .hasArg(true)
+        .argName("num")
+        .desc("Number of scripts run at the same time with --batch. Defaults to the CPU count.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("max-steps")
+        .hasArg(true)
+        .argName("steps")
+        .desc("Abort a script that has not finished within this many physics steps.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("record")
+        .hasArg(true)
+        .argName("file")
+        .desc("Record executed commands to the file so that the run can be replayed.")
+        .build());
+
+    options.addOption(Option.builder()
+        .longOpt("replay")
+        .hasArg(true)
+        .argName("file")
+        .desc("Replay a run recorded with --record instead of accepting commands.")
+        .build());
+
     var parser = new DefaultParser();
     CommandLine cmd = null;
     try {
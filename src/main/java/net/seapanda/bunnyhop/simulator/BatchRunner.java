@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 複数のスクリプトを, それぞれ独立したシミュレーション空間で並列に実行するクラス.
+ *
+ * <p>スクリプトごとにヘッドレスモードのシミュレータのプロセスを起動し, 同時に実行するプロセスの数をスレッドプールで制限する.
+ * gdx-bullet は Java と C++ の間で値を受け渡す際に static な一時オブジェクトを使うため,
+ * 1 つのプロセスの中で複数の物理シミュレーション空間を同時に更新することはできない.
+ * プロセスに分けることで, 各シミュレーション空間を完全に独立させて CPU コア数に比例したスループットを得る.
+ *
+ * @author K.Koike
+ */
+class BatchRunner {
+
+  private final List<Path> scripts;
+  /** 同時に実行するプロセスの数. */
+  private final int numJobs;
+  /** シミュレーション開始時に復元するシミュレーション空間の状態を保存したファイル. 無い場合は null. */
+  private final Path sceneFile;
+  /** 1 つのスクリプトの実行に使う物理シミュレーションのステップ数の上限. */
+  private final long maxSteps;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param scripts 実行するスクリプトのリスト
+   * @param numJobs 同時に実行するプロセスの数. 0 以下の場合は CPU のコア数とする.
+   * @param sceneFile シミュレーション開始時に復元するシミュレーション空間の状態を保存したファイル. 無い場合は null.
+   * @param maxSteps 1 つのスクリプトの実行に使う物理シミュレーションのステップ数の上限
+   */
+  BatchRunner(List<Path> scripts, int numJobs, Path sceneFile, long maxSteps) {
+    this.scripts = List.copyOf(scripts);
+    this.numJobs = (numJobs > 0) ? numJobs : Runtime.getRuntime().availableProcessors();
+    this.sceneFile = sceneFile;
+    this.maxSteps = maxSteps;
+  }
+
+  /**
+   * 全てのスクリプトを実行して, 結果を {@code out} に出力する.
+   *
+   * @param out 結果の出力先
+   * @return 全てのスクリプトの実行結果が {@link ScriptResult.Status#OK} であった場合 true
+   * @throws InterruptedException 実行中に割り込まれた.
+   */
+  boolean run(PrintStream out) throws InterruptedException {
+    long startTime = System.nanoTime();
+    List<ScriptResult> results = runAll();
+    float elapsed = (System.nanoTime() - startTime) / 1e9f;
+
+    var statusToCount = new EnumMap<ScriptResult.Status, Integer>(ScriptResult.Status.class);
+    long totalSteps = 0;
+    for (int i = 0; i < scripts.size(); ++i) {
+      ScriptResult result = results.get(i);
+      out.println(scripts.get(i) + "\t" + result.format());
+      statusToCount.merge(result.status(), 1, Integer::sum);
+      totalSteps += result.numSteps();
+    }
+    out.println("scripts: %s, jobs: %s, elapsed: %.2f s, steps/s: %.0f".formatted(
+        scripts.size(), numJobs, elapsed, totalSteps / Math.max(elapsed, 1e-3f)));
+    for (Map.Entry<ScriptResult.Status, Integer> entry : statusToCount.entrySet()) {
+      out.println("  %s: %s".formatted(entry.getKey(), entry.getValue()));
+    }
+    return statusToCount.getOrDefault(ScriptResult.Status.OK, 0) == scripts.size();
+  }
+
+  /** 全てのスクリプトを並列に実行して, {@link #scripts} と同じ順番で結果を返す. */
+  private List<ScriptResult> runAll() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(numJobs);
+    try {
+      var futures = new ArrayList<Future<ScriptResult>>();
+      for (Path script : scripts) {
+        futures.add(executor.submit(() -> runInNewProcess(script)));
+      }
+      var results = new ArrayList<ScriptResult>();
+      for (Future<ScriptResult> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          results.add(ScriptResult.error(e.getCause().toString()));
+        }
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** {@code script} を新しいプロセスで実行する. */
+  private ScriptResult runInNewProcess(Path script) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(createCommand(script))
+        .redirectError(ProcessBuilder.Redirect.INHERIT)
+        .start();
+    ScriptResult result = null;
+    try (var reader = new BufferedReader(
+        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (result == null) {
+          result = ScriptResult.parse(line);
+        }
+      }
+    } finally {
+      process.waitFor();
+    }
+    if (result == null) {
+      return ScriptResult.error("Exited without a result.  (%s)".formatted(process.exitValue()));
+    }
+    return result;
+  }
+
+  /** {@code script} を実行するプロセスを起動するコマンドを作成する. */
+  private List<String> createCommand(Path script) {
+    var cmd = new ArrayList<String>();
+    cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    cmd.add("-cp");
+    cmd.add(System.getProperty("java.class.path"));
+    cmd.add(App.class.getName());
+    cmd.add("--script");
+    cmd.add(script.toString());
+    cmd.add("--max-steps");
+    cmd.add(String.valueOf(maxSteps));
+    if (sceneFile != null) {
+      cmd.add("--scene");
+      cmd.add(sceneFile.toString());
+    }
+    return cmd;
+  }
+}
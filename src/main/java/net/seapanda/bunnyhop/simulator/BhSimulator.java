@@ -24,25 +24,33 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader.Config;
 import com.badlogic.gdx.graphics.g3d.utils.DefaultShaderProvider;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.utils.Array;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import com.kotcrab.vis.ui.VisUI;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import javax.management.JMException;
+import net.seapanda.bunnyhop.simulator.FrameProfiler.Counter;
+import net.seapanda.bunnyhop.simulator.FrameProfiler.Phase;
 import net.seapanda.bunnyhop.simulator.common.BhSimConstants;
 import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
 import net.seapanda.bunnyhop.simulator.common.TextDefs;
+import net.seapanda.bunnyhop.simulator.jmx.SimulatorMxBeans;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
 import net.seapanda.bunnyhop.simulator.ui.UiComposer;
 import net.seapanda.bunnyhop.simulator.ui.UiUtil;
 import net.seapanda.bunnyhop.utility.Utility;
@@ -65,6 +73,16 @@ public class BhSimulator implements ApplicationListener {
 
   private Camera cam;
   private ModelBatch modelBatch;
+  /** 同じモデルを持つ 3D モデルをまとめて描画するオブジェクト. インスタンス描画を使わない場合は null. */
+  private InstancedModelRenderer instancedRenderer;
+  /** カメラの視錐台の外にある 3D モデルを描画対象から除くオブジェクト. */
+  private final FrustumCuller culler = new FrustumCuller();
+  /** フレームの処理時間などを計測するオブジェクト. */
+  private final FrameProfiler profiler = new FrameProfiler();
+  /** 前のフレームの終了時点で実行済みだった物理シミュレーションのステップ数. */
+  private long lastNumSteps = 0;
+  /** シミュレータの統計情報を公開する MXBean を管理するオブジェクト. */
+  private SimulatorMxBeans mbeans;
   private Environment environment;
   private SimulationObjectManager simObjManager;
   private UiComposer uiComposer;
@@ -72,34 +90,149 @@ public class BhSimulator implements ApplicationListener {
   private CustomInputProcessor inputProcessor;
   private final WindowStateManager windowManager;
   private final CountDownLatch latch = new CountDownLatch(1);
+  /** 描画, ウィンドウ, UI を持たずに動作する場合 true. */
+  private final boolean isHeadless;
+  /** 実時間に対するシミュレーション時間の進む速さの倍率. */
+  private volatile float timeScale;
+  /** 1 フレームごとに実行する物理シミュレーションのステップ数. 0 以下の場合は実時間に合わせて進める. */
+  private volatile int stepsPerFrame;
+  /** シミュレーション開始時にシミュレーション空間に存在する RaspiCar の数. */
+  private volatile int numInitialCars = 1;
+  /** 実行したコマンドを記録するオブジェクト. 記録しない場合は null. */
+  private ReplayRecorder recorder;
+  /** 記録したシミュレーションを再生するオブジェクト. 再生しない場合は null. */
+  private ReplayPlayer player;
+  /** 記録したシミュレーションの再生が終わった場合 true. */
+  private boolean isReplayFinished = false;
+  /** シミュレーション開始時に復元するシミュレーション空間の状態を保存したファイル. */
+  private volatile Path sceneFile;
+  /** 記録したシミュレーションの再生が終わったときに呼ばれるイベントハンドラ. */
+  private volatile Consumer<? super ReplayResult> onReplayFinished = result -> {};
+  /** シミュレーションを続けられるエラーが発生したときに, その内容を受け取るイベントハンドラ. */
+  private volatile Consumer<? super String> onErrorOccurred = msg -> {};
 
   /** コンストラクタ. */
   public BhSimulator() throws Exception {
+    this(false);
+  }
+
+  /**
+   * コンストラクタ.
+   *
+   * @param isHeadless true の場合, OpenGL コンテキスト, ウィンドウ, UI を使わずに
+   *                   物理シミュレーションとコマンドの処理のみを行う.
+   */
+  public BhSimulator(boolean isHeadless) throws Exception {
+    this.isHeadless = isHeadless;
     importSettings();
     buildTextDb();
     windowManager = new WindowStateManager();
+    timeScale = BhSimSettings.Simulation.timeScale;
+    stepsPerFrame = BhSimSettings.Simulation.stepsPerFrame;
   }
 
   @Override
   public void create() {
+    if (isHeadless) {
+      createHeadless();
+      return;
+    }
     VisUI.load(getSkinScale());
     Bullet.init(true);
     modelBatch = createModelBatch();
+    if (BhSimSettings.Rendering.instancing && InstancedModelRenderer.isSupported()) {
+      instancedRenderer = new InstancedModelRenderer();
+    }
     environment = createEnvironment();
     cam = createCamera();
     var camCtrl = new CustomCameraInputController(
         cam, 8f, 85f, -1.78f, 1.78f, -1.78f, 1.78f, 0.1f, 3.5f, 0.05f);
-    simObjManager = new SimulationObjectManager();
+    simObjManager = createSimObjManager();
     simObjManager.setCameraTargetGetter(() -> new Vector3(camCtrl.target));
-    inputProcessor = new CustomInputProcessor(camCtrl, simObjManager);
-    uiComposer = new UiComposer(inputProcessor.getUiView(), simObjManager.getUiView());
+    inputProcessor = new CustomInputProcessor(
+        camCtrl, simObjManager, msg -> onErrorOccurred.accept(msg));
+    inputProcessor.setSceneFile(sceneFile != null ? sceneFile : Paths.get(
+        Utility.execPath, BhSimConstants.Path.File.SCENE_SNAPSHOT));
+    uiComposer = new UiComposer(
+        inputProcessor.getUiView(), simObjManager.getUiView(), profiler);
     Gdx.input.setInputProcessor(
         new InputMultiplexer(uiComposer.getInputProcessor(), inputProcessor, camCtrl));
-    cmdProcessor = new SimulatorCmdProcessorImpl(simObjManager.getRaspiCar());
+    createInitialObjects();
+    cmdProcessor = new SimulatorCmdProcessorImpl(simObjManager);
+    mbeans = registerMxBeans(cmdProcessor);
+    startRecording();
     windowManager.restoreWindowState();
     latch.countDown();
   }
 
+  /** ヘッドレスモードで動作するのに必要なオブジェクトだけを作成する. */
+  private void createHeadless() {
+    HeadlessGl.install();
+    Bullet.init(true);
+    simObjManager = createSimObjManager();
+    createInitialObjects();
+    cmdProcessor = new SimulatorCmdProcessorImpl(simObjManager);
+    mbeans = registerMxBeans(cmdProcessor);
+    startRecording();
+    latch.countDown();
+  }
+
+  /**
+   * {@link SimulationObjectManager} を作成する.
+   * シミュレーションを記録または再生する場合は, 結果が再現するシングルスレッドの物理シミュレーション空間を使う.
+   */
+  private SimulationObjectManager createSimObjManager() {
+    boolean requiresDeterminism = (recorder != null) || (player != null);
+    return new SimulationObjectManager(DynamicsWorldFactory.fromSettings(
+        requiresDeterminism, msg -> onErrorOccurred.accept(msg)));
+  }
+
+  /** 実行したコマンドを記録するファイルが設定されていた場合, 記録を開始する. */
+  private void startRecording() {
+    if (recorder != null) {
+      recorder.start(simObjManager.getTimeStep(), simObjManager.getRaspiCars().size());
+    }
+  }
+
+  /** シミュレータの統計情報を公開する MXBean を登録する. 登録に失敗してもシミュレータは動作を続ける. */
+  private static SimulatorMxBeans registerMxBeans(SimulatorCmdProcessor cmdProcessor) {
+    var mbeans = new SimulatorMxBeans(cmdProcessor);
+    try {
+      mbeans.register();
+    } catch (JMException ignored) { /* Do nothing. */ }
+    return mbeans;
+  }
+
+  /**
+   * シミュレーション開始時に存在する 3D モデルを作成する.
+   * {@link #sceneFile} が設定されている場合はその状態を復元し, そうでない場合は RaspiCar を作成する.
+   */
+  private void createInitialObjects() {
+    if (sceneFile != null) {
+      try {
+        SceneSnapshot.restore(simObjManager, sceneFile);
+        return;
+      } catch (Exception e) {
+        onErrorOccurred.accept("Failed to load the scene.  (%s)".formatted(e));
+      }
+    }
+    createInitialCars();
+  }
+
+  /** 最初から存在する RaspiCar に加えて, 合計が {@link #numInitialCars} 台になるまで RaspiCar を作成する. */
+  private void createInitialCars() {
+    final int numCols = 6;
+    for (int i = 1; i < numInitialCars; ++i) {
+      var pos = new Vector3(0.25f * (i % numCols), 0.1f, 0.1f + 0.3f * (i / numCols));
+      simObjManager.getStage().clampPosXz(pos);
+      try {
+        simObjManager.createRaspiCar(pos);
+      } catch (SimulationObjectManager.MaxObjectsExceededException e) {
+        break;
+      }
+    }
+  }
+
   private static VisUI.SkinScale getSkinScale() {
     return UiUtil.dpi >= BhSimConstants.Ui.X2_SKIN_DPI_THRESHOLD
         || (BhSimSettings.Ui.scale > 1)
@@ -130,31 +263,209 @@ public class BhSimulator implements ApplicationListener {
     return env;
   }
 
-  /** シミュレータ制御用コマンドを処理するオブジェクトを取得する. */
+  /**
+   * シミュレーション開始時にシミュレーション空間に存在する RaspiCar の数を設定する.
+   * {@link #create} が呼ばれる前に設定しなければ効果はない.
+   * 作成された RaspiCar には, 1 から順に ID が割り当てられる.
+   *
+   * @param num シミュレーション開始時に存在する RaspiCar の数. 1 未満の場合は 1 とみなす.
+   */
+  public void setNumInitialCars(int num) {
+    numInitialCars = Math.max(num, 1);
+  }
+
+  /**
+   * シミュレーション開始時に復元するシミュレーション空間の状態を保存したファイルを設定する.
+   * {@link #create} が呼ばれる前に設定しなければ効果はない.
+   * 復元に成功した場合, {@link #setNumInitialCars} で設定した値は使用されない.
+   *
+   * <p>ウィンドウを持つ場合, このファイルは {@link CustomInputProcessor} による状態の保存と復元にも使用される.
+   *
+   * @param file シミュレーション空間の状態を保存したファイル
+   */
+  public void setSceneFile(Path file) {
+    sceneFile = file;
+  }
+
+  /**
+   * 実行したコマンドと物理シミュレーションの進め方を記録するファイルを設定する.
+   * {@link #create} が呼ばれる前に設定しなければ効果はない.
+   *
+   * <p>記録されるのはコマンドによる操作だけであり, UI から行った操作は記録されない.
+   *
+   * @param file 記録を書き込むファイル. 既に存在する場合は上書きする.
+   * @throws IOException ファイルを開けなかった.
+   */
+  public void setRecordFile(Path file) throws IOException {
+    recorder = new ReplayRecorder(file);
+  }
+
+  /**
+   * 再生する記録のファイルを設定する.
+   * {@link #create} が呼ばれる前に設定しなければ効果はない.
+   *
+   * <p>再生中はシミュレータ制御用コマンドを受け付けず, 記録したコマンドを記録したステップで実行する.
+   * シミュレーション開始時に存在する RaspiCar の数は記録時と同じになる.
+   *
+   * @param file 再生する記録のファイル
+   * @throws IOException ファイルを読めなかったか, 記録の形式が不正である.
+   */
+  public void setReplayFile(Path file) throws IOException {
+    player = new ReplayPlayer(file);
+    setNumInitialCars(player.getNumInitialCars());
+  }
+
+  /**
+   * シミュレータ制御用コマンドを処理するオブジェクトを取得する.
+   * 記録したシミュレーションを再生する場合は空の Optional を返す.
+   */
   public Optional<SimulatorCmdProcessor> getCmdProcessor() {
+    if (player != null) {
+      return Optional.empty();
+    }
     return Optional.ofNullable(cmdProcessor);
   }
 
   @Override
   public void render() {
-    cmdProcessor.executeCmds();
+    profiler.beginFrame();
     float delta = Math.min(1f / 30f, Gdx.graphics.getDeltaTime());
-    simObjManager.update(delta);
+    if (player != null) {
+      profiler.begin(Phase.PHYSICS);
+      replayFrame();
+      profiler.end(Phase.PHYSICS);
+    } else {
+      profiler.begin(Phase.COMMAND);
+      if (recorder != null) {
+        recorder.beginFrame(simObjManager.getNumSteps());
+      }
+      cmdProcessor.executeCmds(recorder);
+      profiler.end(Phase.COMMAND);
+      profiler.begin(Phase.PHYSICS);
+      advanceSimulation(delta);
+      profiler.end(Phase.PHYSICS);
+    }
+    if (isHeadless) {
+      endFrame();
+      return;
+    }
+    profiler.begin(Phase.RENDER);
     Gdx.gl.glClearColor(0.3f, 0.5f, 0.8f, 1.f);
     Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
     Gdx.gl.glLineWidth(1);
-    modelBatch.begin(cam);
-    modelBatch.render(simObjManager.getRenderableProviders(), environment);
-    modelBatch.end();
+    Array<RenderableProvider> visible = culler.cull(cam, simObjManager.getRenderableProviders());
+    if (instancedRenderer != null) {
+      instancedRenderer.render(cam, environment, modelBatch, visible);
+    } else {
+      modelBatch.begin(cam);
+      modelBatch.render(visible, environment);
+      modelBatch.end();
+    }
+    profiler.end(Phase.RENDER);
+    profiler.begin(Phase.UI);
     uiComposer.draw(delta);
+    profiler.end(Phase.UI);
     windowManager.updateWindowState();
     // simObjManager.drawCollisionObjects(cam); // for debug
+    endFrame();
+  }
+
+  /** このフレームの統計値を {@link #profiler} に記録して, フレームの計測を終える. */
+  private void endFrame() {
+    long numSteps = simObjManager.getNumSteps();
+    profiler.setCounter(Counter.PHYSICS_STEPS, (int) (numSteps - lastNumSteps));
+    lastNumSteps = numSteps;
+    profiler.setCounter(Counter.CULLED_OBJECTS, culler.getNumCulled());
+    profiler.setCounter(Counter.COLLISION_OBJECTS, simObjManager.getNumCollisionObjects());
+    profiler.setCounter(Counter.CONTACT_MANIFOLDS, simObjManager.getNumContactManifolds());
+    profiler.endFrame();
+    mbeans.update(profiler, simObjManager);
+  }
+
+  /**
+   * 物理シミュレーションを進める.
+   *
+   * @param delta 前回のフレームからの経過時間 (秒)
+   */
+  private void advanceSimulation(float delta) {
+    int steps = stepsPerFrame;
+    if (steps > 0) {
+      simObjManager.step(steps);
+      if (recorder != null) {
+        recorder.recordSteps(steps);
+      }
+    } else {
+      float simTime = delta * timeScale;
+      simObjManager.advance(simTime);
+      if (recorder != null) {
+        recorder.recordAdvance(simTime);
+      }
+    }
+  }
+
+  /**
+   * 記録したシミュレーションを 1 フレーム分再生する.
+   * 再生が終わったか, 記録時と異なる状態になった場合は {@link #onReplayFinished} に結果を渡して,
+   * ヘッドレスモードであればアプリケーションを終了する.
+   */
+  private void replayFrame() {
+    if (isReplayFinished) {
+      return;
+    }
+    boolean isSucceeded = true;
+    String errMsg = "";
+    try {
+      if (player.playFrame(cmdProcessor, simObjManager)) {
+        return;
+      }
+    } catch (IOException e) {
+      isSucceeded = false;
+      errMsg = String.valueOf(e.getMessage());
+    }
+    isReplayFinished = true;
+    List<Vector3> carPositions = simObjManager.getRaspiCars().stream()
+        .map(RaspiCar::getPosition)
+        .toList();
+    var result = new ReplayResult(
+        isSucceeded, errMsg, player.getNumFrames(), simObjManager.getNumSteps(), carPositions);
+    onReplayFinished.accept(result);
+    if (isHeadless) {
+      Gdx.app.exit();
+    }
+  }
+
+  /** 記録と再生に使用したファイルを閉じる. */
+  private void closeReplayFiles() {
+    try {
+      if (recorder != null) {
+        recorder.close();
+      }
+      if (player != null) {
+        player.close();
+      }
+    } catch (IOException e) {
+      onErrorOccurred.accept("Failed to close the replay file.  (%s)".formatted(e));
+    }
   }
 
   @Override
   public void dispose() {
+    if (isHeadless) {
+      // ウィンドウも UI も無いので, 設定ファイルは書き出さない.
+      mbeans.unregister();
+      closeReplayFiles();
+      simObjManager.dispose();
+      latch.countDown();
+      return;
+    }
+    mbeans.unregister();
+    closeReplayFiles();
+    inputProcessor.dispose();
     simObjManager.dispose();
     modelBatch.dispose();
+    if (instancedRenderer != null) {
+      instancedRenderer.dispose();
+    }
     uiComposer.dispose();
     UiUtil.dispose();
     VisUI.dispose();
@@ -171,6 +482,9 @@ public class BhSimulator implements ApplicationListener {
 
   @Override
   public void resize(int width, int height) {
+    if (isHeadless) {
+      return;
+    }
     cam.viewportHeight = height;
     cam.viewportWidth = width;
     cam.update(true);
@@ -206,8 +520,63 @@ public class BhSimulator implements ApplicationListener {
     return true;
   }
 
+  /**
+   * 実時間に対するシミュレーション時間の進む速さの倍率を設定する.
+   * {@link #setStepsPerFrame} で 1 以上の値を設定している間は使用されない.
+   *
+   * @param timeScale シミュレーション時間の進む速さの倍率. 0 以下の値は無視される.
+   */
+  public void setTimeScale(float timeScale) {
+    if (timeScale <= 0) {
+      return;
+    }
+    this.timeScale = timeScale;
+  }
+
+  /**
+   * 1 フレームごとに実行する物理シミュレーションのステップ数を設定する.
+   *
+   * @param stepsPerFrame 1 フレームごとに実行するステップ数.
+   *                      1 以上の場合, 実時間によらずフレームごとにこの回数だけシミュレーションを進める.
+   *                      0 以下の場合, 実時間に合わせてシミュレーションを進める.
+   */
+  public void setStepsPerFrame(int stepsPerFrame) {
+    this.stepsPerFrame = stepsPerFrame;
+  }
+
+  /** 1 フレームごとに実行する物理シミュレーションのステップ数を取得する. */
+  public int getStepsPerFrame() {
+    return stepsPerFrame;
+  }
+
+  /** フレームの処理時間などを計測するオブジェクトを取得する. */
+  public FrameProfiler getProfiler() {
+    return profiler;
+  }
+
+  /** 直前のフレームで, カメラの視錐台の外にあったため描画しなかった 3D モデルの個数を取得する. */
+  public int getNumCulledObjects() {
+    return culler.getNumCulled();
+  }
+
+  /** 記録したシミュレーションの再生が終わったときのイベントハンドラを設定する. */
+  public void setOnReplayFinished(Consumer<? super ReplayResult> onReplayFinished) {
+    this.onReplayFinished = onReplayFinished;
+  }
+
+  /**
+   * シミュレーションを続けられるエラーが発生したときのイベントハンドラを設定する.
+   * イベントハンドラにはエラーの内容を表す文字列が渡される.
+   */
+  public void setOnErrorOccurred(Consumer<? super String> onErrorOccurred) {
+    this.onErrorOccurred = onErrorOccurred;
+  }
+
   /** キーが押された時のイベントハンドラを設定する. */
   public void setOnKeyPressed(Consumer<Integer> onKeyPressed) {
+    if (isHeadless) {
+      return;
+    }
     inputProcessor.setOnKeyPressed(onKeyPressed);
   }
 
@@ -223,7 +592,7 @@ public class BhSimulator implements ApplicationListener {
   }
 
   /** 設定ファイルを読み込んで, {@link BhSimSettings} クラスに反映する. */
-  private static void importSettings() {
+  static void importSettings() {
     Path filePath = Paths.get(
         Utility.execPath,
         BhSimConstants.Path.Dir.SETTINGS,
@@ -23,13 +23,16 @@ import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Disposable;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper;
-import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper.RayTestResult;
+import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper.RayHit;
+import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper.RayQuery;
 import net.seapanda.bunnyhop.simulator.obj.Box;
 import net.seapanda.bunnyhop.simulator.obj.CollisionGroup;
 import net.seapanda.bunnyhop.simulator.obj.Lamp;
@@ -45,13 +48,26 @@ import net.seapanda.bunnyhop.simulator.ui.ModelCtrlView;
  *
  * @author K.Koike
  */
-public class CustomInputProcessor extends InputAdapter implements UiViewProvider {
+public class CustomInputProcessor extends InputAdapter implements UiViewProvider, Disposable {
+
+  /** シミュレーション空間の状態を保存するキー. */
+  private static final int SAVE_SCENE_KEY = Keys.F5;
+  /** 保存したシミュレーション空間の状態を復元するキー. */
+  private static final int LOAD_SCENE_KEY = Keys.F9;
 
   private final CameraInputController cameraCtrl;
   private final SimulationObjectManager simObjManager;
 
   /** Simulation Object 選択時の交差点. */
-  private Vector3 pointOfReflection = new Vector3();
+  private final Vector3 pointOfReflection = new Vector3();
+  /** 3D モデルを選択するための ray test を行うオブジェクト. */
+  private final RayQuery pickQuery;
+  /** ドラッグ中の 3D モデルの移動先を求めるための ray test を行うオブジェクト. */
+  private RayQuery dragQuery;
+  /** ray test の結果を格納するオブジェクト. */
+  private final RayHit rayHit = new RayHit();
+  /** ray test に使う線分の終点. */
+  private final Vector3 rayEnd = new Vector3();
   /** 選択中の 3D モデル. */
   private final List<Collidable> selectedModels = new ArrayList<>();
   /** ドラッグ中の 3D モデル. */
@@ -62,6 +78,10 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
   private int keyPressed = -1;
   /** UI のルートコンポーネント. */
   private final Actor uiComponent = new ModelCtrlView(new AccessHelper());
+  /** シミュレーション空間の状態を保存するファイル. */
+  private Path sceneFile;
+  /** シミュレーション空間の状態の保存や復元に失敗したときに, その内容を受け取るイベントハンドラ. */
+  private final Consumer<? super String> onErrorOccurred;
   /** キーが押されたときに呼び出すコールバックメソッド. */
   private final AtomicReference<Consumer<Integer>> onKeyPressed =
       new AtomicReference<>(keyCode -> {});
@@ -71,11 +91,17 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
    *
    * @param camCtrl       シミュレーション空間のカメラを制御するオブジェクト.
    * @param simObjManager シミュレーション空間の 3D モデルを管理するオブジェクト.
+   * @param onErrorOccurred シミュレーション空間の状態の保存や復元に失敗したときに, その内容を受け取るイベントハンドラ.
    */
   public CustomInputProcessor(
-        CameraInputController camCtrl, SimulationObjectManager simObjManager) {
+        CameraInputController camCtrl,
+        SimulationObjectManager simObjManager,
+        Consumer<? super String> onErrorOccurred) {
     this.cameraCtrl = camCtrl;
     this.simObjManager = simObjManager;
+    this.onErrorOccurred = onErrorOccurred;
+    pickQuery = simObjManager.getRayTestHelper()
+        .createQuery(new RayTestHelper.Config().add(CollisionGroup.PHYSICAL_ENTITY));
   }
 
   @Override
@@ -88,10 +114,39 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
     }
     if (keycode == Keys.FORWARD_DEL || keycode == Keys.DEL) {
       deleteSelectedObjects();
+    } else if (keycode == SAVE_SCENE_KEY) {
+      saveScene();
+    } else if (keycode == LOAD_SCENE_KEY) {
+      loadScene();
     }
     return false;
   }
 
+  /** シミュレーション空間の状態を {@link #sceneFile} に保存する. */
+  private void saveScene() {
+    if (sceneFile == null) {
+      return;
+    }
+    try {
+      SceneSnapshot.save(simObjManager, sceneFile);
+    } catch (IOException e) {
+      onErrorOccurred.accept("Failed to save the scene.  (%s)".formatted(e));
+    }
+  }
+
+  /** {@link #sceneFile} に保存したシミュレーション空間の状態を復元する. */
+  private void loadScene() {
+    if (sceneFile == null || dragged != null || buttonPressed != -1) {
+      return;
+    }
+    deselectAll();
+    try {
+      SceneSnapshot.restore(simObjManager, sceneFile);
+    } catch (Exception e) {
+      onErrorOccurred.accept("Failed to load the scene.  (%s)".formatted(e));
+    }
+  }
+
   @Override
   public boolean keyUp(int keycode) {
     keyPressed = -1;
@@ -132,14 +187,13 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
 
   /** 左マウスボタンを押した時の処理を行う. */
   private boolean onLeftButtonPressed(int screenX, int screenY) {
-    var cameraRay = new Ray().set(cameraCtrl.camera.getPickRay(screenX, screenY));
-    Optional<RayTestResult<Collidable>> result = simObjManager.getRayTestHelper()
-        .getIntersectedCollidable(cameraRay, cameraCtrl.camera.far, CollisionGroup.PHYSICAL_ENTITY);
-    if (result.isEmpty()) {
+    Ray cameraRay = cameraCtrl.camera.getPickRay(screenX, screenY);
+    rayEnd.set(cameraRay.direction).scl(cameraCtrl.camera.far).add(cameraRay.origin);
+    if (!pickQuery.test(cameraRay.origin, rayEnd, rayHit)) {
       deselectAll();
       return false;
     }
-    Collidable newSelected = result.get().intersected();
+    Collidable newSelected = rayHit.intersected;
     if (keyPressed != Keys.SHIFT_LEFT && keyPressed != Keys.SHIFT_RIGHT) {
       deselectAll();
     } else if (selectedModels.contains(newSelected)) {
@@ -147,7 +201,7 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
       newSelected.deselect();
       return true;
     }
-    pointOfReflection = result.get().pos();
+    pointOfReflection.set(rayHit.pos);
     select(newSelected);
     return true;
   }
@@ -161,6 +215,8 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
     } else if (lastSelected instanceof ObjectReflectionProvider provider) {
       lastSelected.resetRotationIfTiltingOverly();
       dragged = simObjManager.createObjectReflection(provider);
+      dragQuery = simObjManager.getRayTestHelper().createQuery(new RayTestHelper.Config()
+          .add(CollisionGroup.PHYSICAL_ENTITY, CollisionGroup.STAGE).add(lastSelected));
       setPosOfDraggedObj(screenX, screenY);
       return true;
     }
@@ -169,12 +225,11 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
 
   /** ドラッグ中の 3D モデルの位置を設定する. */
   private void setPosOfDraggedObj(int screenX, int screenY) {
-    Ray ray = new Ray().set(cameraCtrl.camera.getPickRay(screenX, screenY));
-    RayTestHelper.Config config = new RayTestHelper.Config()
-        .add(CollisionGroup.PHYSICAL_ENTITY, CollisionGroup.STAGE).add(selectedModels.getLast());
-    Optional<RayTestResult<Collidable>> result = simObjManager.getRayTestHelper()
-        .getIntersectedCollidable(ray, cameraCtrl.camera.far, config);
-    result.ifPresent(res -> pointOfReflection = res.pos());
+    Ray ray = cameraCtrl.camera.getPickRay(screenX, screenY);
+    rayEnd.set(ray.direction).scl(cameraCtrl.camera.far).add(ray.origin);
+    if (dragQuery.test(ray.origin, rayEnd, rayHit)) {
+      pointOfReflection.set(rayHit.pos);
+    }
     dragged.setPosition(pointOfReflection);
   }
 
@@ -188,6 +243,8 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
     }
     simObjManager.delete(dragged);
     dragged = null;
+    dragQuery.dispose();
+    dragQuery = null;
     return false;
   }
 
@@ -198,7 +255,7 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
     }
     for (Collidable selected : selectedModels) {
       selected.deselect();
-      if (!(selected instanceof RaspiCar)) {
+      if (selected != simObjManager.getRaspiCar()) {
         simObjManager.delete(selected);
       }
     }
@@ -237,6 +294,11 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
     }
   }
 
+  /** シミュレーション空間の状態を保存および復元するファイルを設定する. */
+  public void setSceneFile(Path file) {
+    sceneFile = file;
+  }
+
   /** キーが押された時のイベントハンドラを設定する. */
   public void setOnKeyPressed(Consumer<Integer> onKeyPressed) {
     if (onKeyPressed != null) {
@@ -244,6 +306,14 @@ public class CustomInputProcessor extends InputAdapter implements UiViewProvider
     }
   }
 
+  @Override
+  public void dispose() {
+    pickQuery.dispose();
+    if (dragQuery != null) {
+      dragQuery.dispose();
+    }
+  }
+
   /** {@link CustomInputProcessor} のメンバにアクセスするためのヘルパークラス. */
   public class AccessHelper {
 
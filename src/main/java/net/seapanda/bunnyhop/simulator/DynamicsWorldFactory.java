@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.List;
+import java.util.function.Consumer;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+
+/**
+ * {@link SimulationObjectManager} が使用する物理シミュレーション空間を作成する機能を規定したインタフェース.
+ *
+ * @author K.Koike
+ */
+interface DynamicsWorldFactory {
+
+  /** {@link BhSimSettings.Simulation#worldType} でシングルスレッドの物理シミュレーション空間を指定する値. */
+  String SEQUENTIAL = "sequential";
+  /** {@link BhSimSettings.Simulation#worldType} でマルチスレッドの物理シミュレーション空間を指定する値. */
+  String MULTITHREADED = "multithreaded";
+
+  /**
+   * 物理シミュレーション空間を作成する.
+   *
+   * @param disposables 作成した物理シミュレーション空間とその構成要素を, 破棄する順に追加するリスト
+   * @return 作成した物理シミュレーション空間
+   */
+  btDiscreteDynamicsWorld create(List<? super Disposable> disposables);
+
+  /**
+   * {@link BhSimSettings.Simulation#worldType} で指定された物理シミュレーション空間を作成するオブジェクトを返す.
+   *
+   * <p>マルチスレッドの物理シミュレーション空間は, 同じ入力に対して同じ結果になることが保証されない.
+   * そのため, {@code requiresDeterminism} が true の場合はシングルスレッドの物理シミュレーション空間を作成する.
+   *
+   * @param requiresDeterminism 同じ入力に対して同じ結果になる物理シミュレーション空間が必要な場合 true
+   * @param onWarning 指定された種類の物理シミュレーション空間を作成できない理由を受け取る関数
+   * @return 物理シミュレーション空間を作成するオブジェクト
+   */
+  static DynamicsWorldFactory fromSettings(
+      boolean requiresDeterminism, Consumer<? super String> onWarning) {
+    if (!MULTITHREADED.equals(BhSimSettings.Simulation.worldType)) {
+      return new SequentialWorldFactory();
+    }
+    if (requiresDeterminism) {
+      onWarning.accept(
+          "The multithreaded world is not deterministic.  Using a sequential world instead.");
+      return new SequentialWorldFactory();
+    }
+    return new MultithreadedWorldFactory(BhSimSettings.Simulation.physicsThreads, onWarning);
+  }
+}
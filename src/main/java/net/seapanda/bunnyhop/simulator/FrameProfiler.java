@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import java.util.Arrays;
+
+/**
+ * 1 フレームの処理の各段階にかかった時間と, 描画や物理シミュレーションに関する統計値を記録するクラス.
+ *
+ * <p>各段階の処理時間は直近 {@link #NUM_SAMPLES} フレーム分をリングバッファに保持し,
+ * 平均値とパーセンタイルを求められるようにする.
+ * このクラスのメソッドは, シミュレータのメインスレッドから呼ぶこと.
+ *
+ * @author K.Koike
+ */
+public class FrameProfiler {
+
+  /** 処理時間を保持するフレーム数. */
+  public static final int NUM_SAMPLES = 240;
+  private static final Phase[] phases = Phase.values();
+  private static final Counter[] counters = Counter.values();
+
+  /** 各段階の処理時間 (ms) のリングバッファ. */
+  private final float[][] samples = new float[phases.length][NUM_SAMPLES];
+  /** 各段階の処理の開始時刻 (ns). */
+  private final long[] startTimes = new long[phases.length];
+  /** 現在のフレームの各段階の処理時間 (ns). */
+  private final long[] elapsedTimes = new long[phases.length];
+  /** 直前のフレームの各統計値. */
+  private final int[] counterValues = new int[counters.length];
+  /** パーセンタイルを求める際に処理時間を並べ替えるためのバッファ. */
+  private final float[] sortBuf = new float[NUM_SAMPLES];
+  /** 次に処理時間を書き込むリングバッファの位置. */
+  private int next = 0;
+  /** リングバッファに格納されている処理時間の個数. */
+  private int numSamples = 0;
+  /** OpenGL の関数呼び出しを数えるオブジェクト. (最初に有効にされたときに作成する) */
+  private GLProfiler glProfiler;
+
+  /** フレームの処理を開始したときに呼ぶ. */
+  public void beginFrame() {
+    Arrays.fill(elapsedTimes, 0);
+    begin(Phase.FRAME);
+  }
+
+  /**
+   * フレームの処理を終了したときに呼ぶ.
+   * このフレームの各段階の処理時間をリングバッファに格納する.
+   */
+  public void endFrame() {
+    end(Phase.FRAME);
+    for (Phase phase : phases) {
+      samples[phase.ordinal()][next] = elapsedTimes[phase.ordinal()] / 1e6f;
+    }
+    next = (next + 1) % NUM_SAMPLES;
+    numSamples = Math.min(numSamples + 1, NUM_SAMPLES);
+    if (glProfiler != null && glProfiler.isEnabled()) {
+      setCounter(Counter.DRAW_CALLS, glProfiler.getDrawCalls());
+      setCounter(Counter.TEXTURE_BINDINGS, glProfiler.getTextureBindings());
+      setCounter(Counter.SHADER_SWITCHES, glProfiler.getShaderSwitches());
+      glProfiler.reset();
+    }
+  }
+
+  /** {@code phase} で指定した段階の処理を開始したときに呼ぶ. */
+  public void begin(Phase phase) {
+    startTimes[phase.ordinal()] = System.nanoTime();
+  }
+
+  /** {@code phase} で指定した段階の処理を終了したときに呼ぶ. */
+  public void end(Phase phase) {
+    elapsedTimes[phase.ordinal()] += System.nanoTime() - startTimes[phase.ordinal()];
+  }
+
+  /** {@code counter} で指定した統計値を設定する. */
+  public void setCounter(Counter counter, int value) {
+    counterValues[counter.ordinal()] = value;
+  }
+
+  /** {@code counter} で指定した統計値を取得する. */
+  public int getCounter(Counter counter) {
+    return counterValues[counter.ordinal()];
+  }
+
+  /**
+   * OpenGL の関数呼び出しの計測を有効または無効にする.
+   * 有効にしている間は, {@link Counter#DRAW_CALLS} などの OpenGL に関する統計値が更新される.
+   * 計測中は全ての OpenGL の関数呼び出しに処理が挟まるので, 必要なときだけ有効にすること.
+   */
+  public void setGlProfilingEnabled(boolean enabled) {
+    if (glProfiler == null) {
+      if (!enabled) {
+        return;
+      }
+      glProfiler = new GLProfiler(Gdx.graphics);
+    }
+    if (enabled) {
+      glProfiler.reset();
+      glProfiler.enable();
+    } else {
+      glProfiler.disable();
+    }
+  }
+
+  /** 直近のフレームにおける {@code phase} で指定した段階の処理時間の平均値 (ms) を取得する. */
+  public float getAverage(Phase phase) {
+    if (numSamples == 0) {
+      return 0;
+    }
+    float sum = 0;
+    float[] buf = samples[phase.ordinal()];
+    for (int i = 0; i < numSamples; ++i) {
+      sum += buf[i];
+    }
+    return sum / numSamples;
+  }
+
+  /**
+   * 直近のフレームにおける {@code phase} で指定した段階の処理時間のパーセンタイル値 (ms) を取得する.
+   *
+   * @param phase 処理時間を求める段階
+   * @param percentile 求めるパーセンタイル (0 ~ 100)
+   * @return {@code phase} で指定した段階の処理時間のパーセンタイル値 (ms)
+   */
+  public float getPercentile(Phase phase, float percentile) {
+    if (numSamples == 0) {
+      return 0;
+    }
+    System.arraycopy(samples[phase.ordinal()], 0, sortBuf, 0, numSamples);
+    Arrays.sort(sortBuf, 0, numSamples);
+    int idx = Math.round(Math.clamp(percentile, 0f, 100f) / 100f * (numSamples - 1));
+    return sortBuf[idx];
+  }
+
+  /** 処理時間を計測するフレームの処理の段階. */
+  public enum Phase {
+    /** 1 フレーム全体. */
+    FRAME,
+    /** 受信したコマンドの実行. */
+    COMMAND,
+    /** 物理シミュレーション. */
+    PHYSICS,
+    /** 3D モデルの描画. */
+    RENDER,
+    /** UI の描画. */
+    UI,
+  }
+
+  /** フレームごとに記録する統計値の種類. */
+  public enum Counter {
+    /** 描画命令の呼び出し回数. */
+    DRAW_CALLS,
+    /** テクスチャのバインド回数. */
+    TEXTURE_BINDINGS,
+    /** シェーダの切り替え回数. */
+    SHADER_SWITCHES,
+    /** 実行した物理シミュレーションのステップ数. */
+    PHYSICS_STEPS,
+    /** 視錐台の外にあるため描画しなかった 3D モデルの個数. */
+    CULLED_OBJECTS,
+    /** 物理シミュレーション空間に存在する衝突判定オブジェクトの個数. */
+    COLLISION_OBJECTS,
+    /** 接触している衝突判定オブジェクトの組の個数. */
+    CONTACT_MANIFOLDS,
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import java.util.List;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.Cullable;
+
+/**
+ * カメラの視錐台の外にある 3D モデルを描画対象から除くクラス.
+ *
+ * <p>{@link Cullable} を実装する 3D モデルは, その境界球が視錐台と重ならない場合に除かれる.
+ * 視錐台には far 平面も含まれるので, カメラから {@link Camera#far} 以上離れた 3D モデルも除かれる.
+ * {@link Cullable} を実装しない 3D モデルは常に描画対象となる.
+ *
+ * @author K.Koike
+ */
+class FrustumCuller {
+
+  /** 描画対象となった 3D モデルのリスト. フレームごとに再利用する. */
+  private final Array<RenderableProvider> visible = new Array<>(false, 64);
+  private final Vector3 center = new Vector3();
+  /** 直前の {@link #cull} で除いた 3D モデルの個数. */
+  private int numCulled = 0;
+
+  /**
+   * {@code providers} から {@code camera} の視錐台の外にある 3D モデルを除いたリストを返す.
+   *
+   * @param camera 描画に使うカメラ
+   * @param providers 描画対象の候補となる 3D モデルのリスト
+   * @return 描画対象となる 3D モデルのリスト. 次にこのメソッドを呼ぶまで有効.
+   */
+  Array<RenderableProvider> cull(Camera camera, List<? extends RenderableProvider> providers) {
+    visible.clear();
+    numCulled = 0;
+    // イテレータを作らないようにインデックスで走査する.
+    for (int i = 0; i < providers.size(); ++i) {
+      RenderableProvider provider = providers.get(i);
+      if (provider instanceof Cullable cullable) {
+        float radius = cullable.getBoundingSphere(center);
+        if (!camera.frustum.sphereInFrustum(center, radius)) {
+          ++numCulled;
+          continue;
+        }
+      }
+      visible.add(provider);
+    }
+    return visible;
+  }
+
+  /** 直前の {@link #cull} で描画対象から除いた 3D モデルの個数を返す. */
+  int getNumCulled() {
+    return numCulled;
+  }
+}
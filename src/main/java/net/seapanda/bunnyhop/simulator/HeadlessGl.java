@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import java.lang.reflect.Proxy;
+
+/**
+ * OpenGL コンテキストを持たない環境で使用する, 何もしない {@link GL20} を提供するクラス.
+ *
+ * <p>3D モデルの読み込み時に作成される Mesh や Texture は GL の関数を呼ぶが,
+ * ヘッドレスモードではそれらを描画しないので, 全ての呼び出しを無視して既定値を返す.
+ *
+ * @author K.Koike
+ */
+class HeadlessGl {
+
+  private HeadlessGl() {}
+
+  /** 何もしない {@link GL20} を {@link Gdx#gl} と {@link Gdx#gl20} に設定する. */
+  static void install() {
+    var gl = (GL20) Proxy.newProxyInstance(
+        GL20.class.getClassLoader(),
+        new Class<?>[] {GL20.class},
+        (proxy, method, args) -> getDefaultValue(method.getReturnType()));
+    Gdx.gl = gl;
+    Gdx.gl20 = gl;
+  }
+
+  /** {@code type} で指定した型の既定値を返す. */
+  private static Object getDefaultValue(Class<?> type) {
+    if (type == int.class) {
+      return 0;
+    } else if (type == boolean.class) {
+      return false;
+    } else if (type == float.class) {
+      return 0f;
+    } else if (type == String.class) {
+      return "";
+    }
+    return null;
+  }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.InstanceableRenderable;
+
+/**
+ * 同じモデルを持つ 3D モデルを, インスタンス描画 (1 回の描画命令で複数の 3D モデルを描画する機能) でまとめて描画するクラス.
+ *
+ * <p>{@link InstanceableRenderable} を実装し, まとめて描画可能な 3D モデルをモデルごとにまとめて描画する.
+ * それ以外の 3D モデルは {@link ModelBatch} で描画する.
+ * インスタンス描画には OpenGL 3.0 以上が必要である.
+ *
+ * @author K.Koike
+ */
+class InstancedModelRenderer implements Disposable {
+
+  /** 1 回の描画命令で描画する 3D モデルの最大数. */
+  private static final int MAX_INSTANCES_PER_DRAW = 1024;
+  /** 1 つの 3D モデルあたりのインスタンスデータ (ワールド変換行列) の要素数. */
+  private static final int FLOATS_PER_INSTANCE = 16;
+  /** ライティングに使う平行光源の最大数. */
+  private static final int MAX_DIR_LIGHTS = 2;
+  /**
+   * 描画されないフレームがこの回数続いたモデルのリソースを破棄する.
+   * カメラの向きを変えて視錐台の外に出ただけのモデルのメッシュを, 作り直さないようにするため.
+   */
+  private static final int MAX_IDLE_FRAMES = 600;
+
+  private static final String VERTEX_SHADER = """
+      attribute vec3 a_position;
+      attribute vec3 a_normal;
+      attribute vec2 a_texCoord0;
+      attribute vec4 a_worldTrans0;
+      attribute vec4 a_worldTrans1;
+      attribute vec4 a_worldTrans2;
+      attribute vec4 a_worldTrans3;
+      uniform mat4 u_projViewTrans;
+      varying vec2 v_texCoord0;
+      varying vec3 v_normal;
+      void main() {
+        mat4 worldTrans = mat4(a_worldTrans0, a_worldTrans1, a_worldTrans2, a_worldTrans3);
+        v_texCoord0 = a_texCoord0;
+        v_normal = (worldTrans * vec4(a_normal, 0.0)).xyz;
+        gl_Position = u_projViewTrans * worldTrans * vec4(a_position, 1.0);
+      }
+      """;
+
+  private static final String FRAGMENT_SHADER = """
+      #ifdef GL_ES
+      precision mediump float;
+      #endif
+      uniform sampler2D u_diffuseTexture;
+      uniform vec4 u_diffuseColor;
+      uniform float u_hasDiffuseTexture;
+      uniform vec3 u_ambientLight;
+      uniform vec3 u_dirLightDirs[%1$d];
+      uniform vec3 u_dirLightColors[%1$d];
+      varying vec2 v_texCoord0;
+      varying vec3 v_normal;
+      void main() {
+        vec4 diffuse = u_diffuseColor;
+        if (u_hasDiffuseTexture > 0.5) {
+          diffuse *= texture2D(u_diffuseTexture, v_texCoord0);
+        }
+        vec3 normal = normalize(v_normal);
+        vec3 light = u_ambientLight;
+        for (int i = 0; i < %1$d; ++i) {
+          light += u_dirLightColors[i] * max(dot(normal, -u_dirLightDirs[i]), 0.0);
+        }
+        gl_FragColor = vec4(diffuse.rgb * light, diffuse.a);
+      }
+      """.formatted(MAX_DIR_LIGHTS);
+
+  private final ShaderProgram shader;
+  /**
+   * モデルとそのモデルを持つ 3D モデルをまとめて描画するためのオブジェクトのマップ.
+   * 描画のたびにイテレータを作らないように, イテレータを再利用する {@link ObjectMap} を使う.
+   */
+  private final ObjectMap<Model, InstanceGroup> modelToGroup = new ObjectMap<>();
+  /** {@link ModelBatch} で描画する 3D モデルのリスト. */
+  private final Array<RenderableProvider> others = new Array<>();
+  private final float[] ambientLight = new float[3];
+  private final float[] dirLightDirs = new float[3 * MAX_DIR_LIGHTS];
+  private final float[] dirLightColors = new float[3 * MAX_DIR_LIGHTS];
+
+  /**
+   * コンストラクタ.
+   *
+   * @throws GdxRuntimeException シェーダのコンパイルに失敗した場合
+   */
+  InstancedModelRenderer() {
+    shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+    if (!shader.isCompiled()) {
+      String log = shader.getLog();
+      shader.dispose();
+      throw new GdxRuntimeException("Failed to compile the instancing shader.\n" + log);
+    }
+  }
+
+  /** インスタンス描画が可能な環境か調べる. */
+  static boolean isSupported() {
+    return Gdx.gl30 != null;
+  }
+
+  /**
+   * {@code providers} を描画する.
+   *
+   * @param camera 描画に使うカメラ
+   * @param environment 描画に使う環境
+   * @param modelBatch まとめて描画できない 3D モデルの描画に使う {@link ModelBatch}
+   * @param providers 描画する 3D モデル
+   */
+  void render(
+      Camera camera,
+      Environment environment,
+      ModelBatch modelBatch,
+      Iterable<? extends RenderableProvider> providers) {
+    others.clear();
+    for (RenderableProvider provider : providers) {
+      if (!addInstance(provider)) {
+        others.add(provider);
+      }
+    }
+    drawInstances(camera, environment);
+    modelBatch.begin(camera);
+    modelBatch.render(others, environment);
+    modelBatch.end();
+    others.clear();
+  }
+
+  /**
+   * {@code provider} をまとめて描画する 3D モデルに加える.
+   *
+   * @return {@code provider} をまとめて描画できない場合 false
+   */
+  private boolean addInstance(RenderableProvider provider) {
+    if (!(provider instanceof InstanceableRenderable renderable)) {
+      return false;
+    }
+    ModelInstance instance = renderable.getInstanceableModel();
+    if (instance == null) {
+      return false;
+    }
+    InstanceGroup group = modelToGroup.get(instance.model);
+    if (group == null) {
+      group = new InstanceGroup(instance);
+      modelToGroup.put(instance.model, group);
+    }
+    group.add(instance);
+    return true;
+  }
+
+  /** まとめて描画する 3D モデルを描画する. */
+  private void drawInstances(Camera camera, Environment environment) {
+    if (modelToGroup.isEmpty()) {
+      return;
+    }
+    Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
+    Gdx.gl.glDepthFunc(GL20.GL_LEQUAL);
+    Gdx.gl.glDepthMask(true);
+    Gdx.gl.glEnable(GL20.GL_CULL_FACE);
+    Gdx.gl.glCullFace(GL20.GL_BACK);
+    Gdx.gl.glDisable(GL20.GL_BLEND);
+    shader.bind();
+    shader.setUniformMatrix("u_projViewTrans", camera.combined);
+    setLightUniforms(environment);
+    shader.setUniformi("u_diffuseTexture", 0);
+    ObjectMap.Values<InstanceGroup> iter = modelToGroup.values();
+    while (iter.hasNext()) {
+      InstanceGroup group = iter.next();
+      // しばらく使われていないモデルのリソースは破棄する.
+      if (group.numInstances == 0) {
+        if (++group.numIdleFrames > MAX_IDLE_FRAMES) {
+          group.dispose();
+          iter.remove();
+        }
+        continue;
+      }
+      group.numIdleFrames = 0;
+      group.draw();
+    }
+  }
+
+  /** {@code environment} の光源をシェーダに設定する. */
+  private void setLightUniforms(Environment environment) {
+    Arrays.fill(ambientLight, 0f);
+    Arrays.fill(dirLightDirs, 0f);
+    Arrays.fill(dirLightColors, 0f);
+    if (environment.get(ColorAttribute.AmbientLight) instanceof ColorAttribute ambient) {
+      ambientLight[0] = ambient.color.r;
+      ambientLight[1] = ambient.color.g;
+      ambientLight[2] = ambient.color.b;
+    }
+    if (environment.get(DirectionalLightsAttribute.Type)
+        instanceof DirectionalLightsAttribute attr) {
+      int numLights = Math.min(attr.lights.size, MAX_DIR_LIGHTS);
+      for (int i = 0; i < numLights; ++i) {
+        DirectionalLight light = attr.lights.get(i);
+        dirLightDirs[3 * i] = light.direction.x;
+        dirLightDirs[3 * i + 1] = light.direction.y;
+        dirLightDirs[3 * i + 2] = light.direction.z;
+        dirLightColors[3 * i] = light.color.r;
+        dirLightColors[3 * i + 1] = light.color.g;
+        dirLightColors[3 * i + 2] = light.color.b;
+      }
+    }
+    shader.setUniform3fv("u_ambientLight", ambientLight, 0, 3);
+    shader.setUniform3fv("u_dirLightDirs", dirLightDirs, 0, dirLightDirs.length);
+    shader.setUniform3fv("u_dirLightColors", dirLightColors, 0, dirLightColors.length);
+  }
+
+  @Override
+  public void dispose() {
+    for (InstanceGroup group : modelToGroup.values()) {
+      group.dispose();
+    }
+    modelToGroup.clear();
+    shader.dispose();
+  }
+
+  /** 同じモデルを持つ 3D モデルをまとめて描画するためのクラス. */
+  private class InstanceGroup implements Disposable {
+
+    private final List<Part> parts = new ArrayList<>();
+    /** 元のメッシュとそのメッシュをコピーしたインスタンス描画用のメッシュのマップ. */
+    private final Map<Mesh, Mesh> instancedMeshes = new HashMap<>();
+    /** このフレームで描画する 3D モデルのワールド変換行列. */
+    private final Array<Matrix4> transforms = new Array<>();
+    /** {@link #transforms} の先頭から何個の要素が有効か. */
+    private int numInstances = 0;
+    /** このモデルが描画されなかったフレームの連続回数. */
+    private int numIdleFrames = 0;
+    private float[] instanceData = new float[0];
+    private final Matrix4 tmpMat = new Matrix4();
+
+    /**
+     * コンストラクタ.
+     *
+     * @param template 描画するモデルとマテリアルを持つ {@link ModelInstance}
+     */
+    InstanceGroup(ModelInstance template) {
+      for (Node node : template.nodes) {
+        gatherParts(node);
+      }
+    }
+
+    private void gatherParts(Node node) {
+      for (NodePart nodePart : node.parts) {
+        if (!nodePart.enabled) {
+          continue;
+        }
+        Mesh mesh = instancedMeshes.computeIfAbsent(nodePart.meshPart.mesh, this::createMesh);
+        parts.add(new Part(node, nodePart, mesh));
+      }
+      for (Node child : node.getChildren()) {
+        gatherParts(child);
+      }
+    }
+
+    /** {@code src} をコピーして, インスタンス描画用のメッシュを作る. */
+    private Mesh createMesh(Mesh src) {
+      Mesh mesh = src.copy(true);
+      mesh.enableInstancedRendering(
+          false,
+          MAX_INSTANCES_PER_DRAW,
+          new VertexAttribute(Usage.Generic, 4, "a_worldTrans0"),
+          new VertexAttribute(Usage.Generic, 4, "a_worldTrans1"),
+          new VertexAttribute(Usage.Generic, 4, "a_worldTrans2"),
+          new VertexAttribute(Usage.Generic, 4, "a_worldTrans3"));
+      return mesh;
+    }
+
+    /** {@code instance} をこのフレームで描画する 3D モデルに加える. */
+    void add(ModelInstance instance) {
+      if (numInstances == transforms.size) {
+        transforms.add(instance.transform);
+      } else {
+        transforms.set(numInstances, instance.transform);
+      }
+      ++numInstances;
+    }
+
+    /** このフレームで描画する 3D モデルを描画する. */
+    void draw() {
+      int numFloats = Math.min(numInstances, MAX_INSTANCES_PER_DRAW) * FLOATS_PER_INSTANCE;
+      if (instanceData.length < numFloats) {
+        instanceData = new float[numFloats];
+      }
+      for (int partIdx = 0; partIdx < parts.size(); ++partIdx) {
+        Part part = parts.get(partIdx);
+        part.bindMaterial();
+        for (int first = 0; first < numInstances; first += MAX_INSTANCES_PER_DRAW) {
+          int count = Math.min(numInstances - first, MAX_INSTANCES_PER_DRAW);
+          for (int i = 0; i < count; ++i) {
+            tmpMat.set(transforms.get(first + i)).mul(part.node.globalTransform);
+            System.arraycopy(tmpMat.val, 0, instanceData, i * FLOATS_PER_INSTANCE, 16);
+          }
+          part.mesh.setInstanceData(instanceData, 0, count * FLOATS_PER_INSTANCE);
+          part.mesh.render(shader, part.primitiveType, part.offset, part.size);
+        }
+      }
+      transforms.clear();
+      numInstances = 0;
+    }
+
+    @Override
+    public void dispose() {
+      instancedMeshes.values().forEach(Mesh::dispose);
+      instancedMeshes.clear();
+      parts.clear();
+    }
+  }
+
+  /** モデルを構成する描画単位. */
+  private class Part {
+    private final Node node;
+    private final Mesh mesh;
+    private final int primitiveType;
+    private final int offset;
+    private final int size;
+    private final Texture diffuseTexture;
+    private final Color diffuseColor = new Color(Color.WHITE);
+
+    Part(Node node, NodePart nodePart, Mesh mesh) {
+      this.node = node;
+      this.mesh = mesh;
+      primitiveType = nodePart.meshPart.primitiveType;
+      offset = nodePart.meshPart.offset;
+      size = nodePart.meshPart.size;
+      Material material = nodePart.material;
+      diffuseTexture = (material.get(TextureAttribute.Diffuse) instanceof TextureAttribute attr)
+          ? attr.textureDescription.texture : null;
+      if (material.get(ColorAttribute.Diffuse) instanceof ColorAttribute attr) {
+        diffuseColor.set(attr.color);
+      }
+    }
+
+    /** この描画単位のマテリアルをシェーダに設定する. */
+    void bindMaterial() {
+      if (diffuseTexture != null) {
+        diffuseTexture.bind(0);
+      }
+      shader.setUniformf("u_hasDiffuseTexture", (diffuseTexture != null) ? 1f : 0f);
+      shader.setUniformf("u_diffuseColor", diffuseColor);
+    }
+  }
+}
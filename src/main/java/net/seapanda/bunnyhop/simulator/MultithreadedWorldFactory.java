@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcherMt;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolverPoolMt;
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorldMt;
+import com.badlogic.gdx.physics.bullet.linearmath.LinearMath;
+import com.badlogic.gdx.physics.bullet.linearmath.btITaskScheduler;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 衝突判定と拘束の解決を複数のスレッドで行う物理シミュレーション空間を作成するクラス.
+ *
+ * <p>Bullet のタスクスケジューラ (OpenMP, TBB, PPL のいずれか) を使って,
+ * ナローフェーズの衝突判定と, 互いに接触していない物体の集まりごとの拘束の解決を並列に実行する.
+ * Bullet のネイティブライブラリが利用可能なタスクスケジューラを持たない場合は,
+ * 並列化による効果が無いので {@link SequentialWorldFactory} と同じ物理シミュレーション空間を作成する.
+ *
+ * <p>拘束を解決する順序がスレッドの実行順序に依存するので, 同じ入力に対して同じ結果になることは保証されない.
+ * 記録したシミュレーションの再生には使えない.
+ *
+ * <p>ナローフェーズの衝突判定がワーカスレッドで行われるので, 接触の開始と終了, 接触点の追加と更新のコールバックも
+ * ワーカスレッドから呼ばれる. それらのコールバックは {@code CustomContactListener} で同期して実行するので,
+ * コールバックの処理自体は並列化されない.
+ *
+ * @author K.Koike
+ */
+class MultithreadedWorldFactory implements DynamicsWorldFactory {
+
+  /** ナローフェーズの衝突判定を 1 つのタスクで処理する衝突判定オブジェクトの組の数. */
+  private static final int DISPATCHER_GRAIN_SIZE = 40;
+  /** 物理シミュレーションに使うスレッドの数. */
+  private final int numThreads;
+  /** マルチスレッドの物理シミュレーション空間を作成できない理由を受け取る関数. */
+  private final Consumer<? super String> onWarning;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param numThreads 物理シミュレーションに使うスレッドの数. 0 以下の場合は CPU のコア数とする.
+   * @param onWarning マルチスレッドの物理シミュレーション空間を作成できない理由を受け取る関数
+   */
+  MultithreadedWorldFactory(int numThreads, Consumer<? super String> onWarning) {
+    this.numThreads = (numThreads > 0) ? numThreads : Runtime.getRuntime().availableProcessors();
+    this.onWarning = onWarning;
+  }
+
+  @Override
+  public btDiscreteDynamicsWorld create(List<? super Disposable> disposables) {
+    btITaskScheduler scheduler = getTaskScheduler();
+    if (scheduler == null) {
+      onWarning.accept("No Bullet task scheduler is available.  Using a sequential world.");
+      return new SequentialWorldFactory().create(disposables);
+    }
+    int threads = Math.min(numThreads, scheduler.getMaxNumThreads());
+    scheduler.setNumThreads(threads);
+    var collisionConfig = new btDefaultCollisionConfiguration();
+    var dispatcher = new btCollisionDispatcherMt(collisionConfig, DISPATCHER_GRAIN_SIZE);
+    var broadphase = new btDbvtBroadphase();
+    var solverPool = new btConstraintSolverPoolMt(threads);
+    var dynamicsWorld = new btDiscreteDynamicsWorldMt(
+        dispatcher, broadphase, solverPool, collisionConfig);
+    disposables.add(dynamicsWorld);
+    disposables.add(solverPool);
+    disposables.add(broadphase);
+    disposables.add(dispatcher);
+    disposables.add(collisionConfig);
+    return dynamicsWorld;
+  }
+
+  /**
+   * Bullet が使用するタスクスケジューラを取得する.
+   * まだ設定されていない場合は, 利用可能なものを探して設定する.
+   *
+   * @return 利用可能なタスクスケジューラが無い場合 null
+   */
+  private static synchronized btITaskScheduler getTaskScheduler() {
+    btITaskScheduler scheduler = LinearMath.btGetTaskScheduler();
+    if (scheduler != null) {
+      return scheduler;
+    }
+    scheduler = Stream.of(
+            LinearMath.btGetOpenMPTaskScheduler(),
+            LinearMath.btGetTBBTaskScheduler(),
+            LinearMath.btGetPPLTaskScheduler())
+        .filter(candidate -> candidate != null)
+        .findFirst()
+        .orElse(null);
+    if (scheduler != null) {
+      LinearMath.btSetTaskScheduler(scheduler);
+    }
+    return scheduler;
+  }
+}
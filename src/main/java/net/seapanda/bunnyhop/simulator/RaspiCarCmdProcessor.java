@@ -0,0 +1,593 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.graphics.Color;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import net.seapanda.bunnyhop.simulator.ReplayRecorder.BinaryCmdArgs;
+import net.seapanda.bunnyhop.simulator.ReplayRecorder.CmdArgs;
+import net.seapanda.bunnyhop.simulator.ReplayRecorder.StringCmdArgs;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmd;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmdCallback;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmdProcessingEvent;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmdResponse;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.CmdLatencyMetrics;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.CmdProcessingEvent;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.CmdQueueMetrics;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessorImpl.CallbackRegistryImpl;
+import net.seapanda.bunnyhop.simulator.common.BhSimConstants;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar.Motion;
+
+/**
+ * 1 台の RaspiCar に対するシミュレータ制御用のコマンドを処理するクラス.
+ *
+ * <p>RaspiCar ごとに未実行のコマンドのキューとセンサの計測結果のバッファを持つ.
+ *
+ * @author K.Koike
+ */
+class RaspiCarCmdProcessor {
+  
+  private final RaspiCar raspiCar;
+  /** {@link #raspiCar} の ID. */
+  private final int carId;
+  /** 未実行のコマンド. */
+  private final BlockingQueue<QueuedCmd> actions;
+  /** {@link #halt} が呼ばれてから, まだ RaspiCar を停止させていない場合 true. */
+  private final AtomicBoolean haltRequested = new AtomicBoolean(false);
+  /** {@link #close} が呼ばれた場合 true. */
+  private volatile boolean closed = false;
+  /** 実行したコマンドの総数. コマンドの実行スレッドでのみ書き込む. */
+  private volatile long numExecuted = 0;
+  /** キューが満杯だったため拒否したコマンドの総数. */
+  private final AtomicLong numRejected = new AtomicLong(0);
+  /** コマンドを受け付けてから実行を開始するまでの時間の指数移動平均. (単位: seconds) */
+  private volatile float avgLatency = 0f;
+  /** コマンドを受け付けてから実行を開始するまでの時間の最大値. (単位: seconds) */
+  private volatile float maxLatency = 0f;
+  /** コマンドの種類ごとの, コマンドを受け付けてから実行を開始するまでの時間の統計情報. */
+  private final LatencyStats[] latencyStats = new LatencyStats[BinaryCmd.NUM_OPCODES];
+  private final CallbackRegistryImpl cbRegistry;
+  /** 距離センサの走査結果を格納するバッファ. コマンドの実行スレッドでのみアクセスする. */
+  private final float[] sweepDistances = new float[BhSimConstants.Simulation.MAX_SWEEP_RAYS];
+  /** 数値で表現されたコマンドの応答を格納するバッファ. コマンドの実行スレッドでのみアクセスする. */
+  private final BinaryCmdResponse binaryResponse =
+      new BinaryCmdResponse(BhSimConstants.Simulation.MAX_SWEEP_RAYS);
+
+  /**
+   * コンストラクタ.
+   *
+   * @param raspiCar コマンドで制御する {@link RaspiCar} オブジェクト
+   * @param carId {@code raspiCar} の ID
+   * @param cbRegistry コマンドを処理する直前に呼ぶイベントハンドラを管理するオブジェクト
+   */
+  RaspiCarCmdProcessor(RaspiCar raspiCar, int carId, CallbackRegistryImpl cbRegistry) {
+    this.raspiCar = raspiCar;
+    this.carId = carId;
+    this.cbRegistry = cbRegistry;
+    actions = new ArrayBlockingQueue<>(Math.max(BhSimSettings.Command.queueCapacity, 1));
+    for (int i = 0; i < latencyStats.length; ++i) {
+      latencyStats[i] = new LatencyStats();
+    }
+  }
+
+  /** {@link #raspiCar} の ID を返す. */
+  int getCarId() {
+    return carId;
+  }
+
+  /**
+   * {@link #halt} が呼ばれていた場合, RaspiCar を停止させる.
+   *
+   * @param recorder 停止させたことを記録するオブジェクト. 記録しない場合は null.
+   */
+  void stopIfHaltRequested(ReplayRecorder recorder) {
+    if (haltRequested.getAndSet(false)) {
+      raspiCar.setLeftEyeColor(null);
+      raspiCar.setRightEyeColor(null);
+      raspiCar.stopMoving();
+      if (recorder != null) {
+        recorder.recordHalt(carId);
+      }
+    }
+  }
+
+  /**
+   * 未実行のコマンドを 1 つ実行する.
+   *
+   * @param recorder 実行したコマンドを記録するオブジェクト. 記録しない場合は null.
+   * @return コマンドを実行した場合 true. 未実行のコマンドが無かった場合 false.
+   */
+  boolean executeCmd(ReplayRecorder recorder) {
+    QueuedCmd cmd = actions.poll();
+    if (cmd == null) {
+      return false;
+    }
+    updateLatency(cmd.opcode, (System.nanoTime() - cmd.enqueuedAt) / 1e9f);
+    if (recorder != null) {
+      recorder.recordCmd(carId, cmd.args);
+    }
+    cmd.action.run();
+    ++numExecuted;
+    return true;
+  }
+
+  /** コマンドを受け付けてから実行を開始するまでの時間の統計情報を更新する. */
+  private void updateLatency(int opcode, float latency) {
+    avgLatency = (numExecuted == 0) ? latency : avgLatency + (latency - avgLatency) * 0.05f;
+    maxLatency = Math.max(maxLatency, latency);
+    latencyStats[opcode].add(latency);
+  }
+
+  /**
+   * 未実行のコマンドのキューに {@code action} を追加する.
+   * {@link #close} が呼ばれた後は, キューに追加せずに {@code onDiscarded} を呼ぶ.
+   *
+   * @param opcode 追加するコマンドの種類. {@link BinaryCmd} のオペコードのいずれか.
+   * @param args 追加するコマンドの引数
+   * @param action コマンドの処理
+   * @param onDiscarded コマンドを実行せずに破棄するときに呼ぶ処理
+   * @return キューが満杯で追加できなかった場合 false
+   */
+  private boolean offer(int opcode, CmdArgs args, Runnable action, Runnable onDiscarded) {
+    if (closed) {
+      onDiscarded.run();
+      return true;
+    }
+    if (!actions.offer(
+        new QueuedCmd(action, onDiscarded, opcode, args, System.nanoTime()))) {
+      numRejected.incrementAndGet();
+      return false;
+    }
+    // キューへの追加と close が同時に行われた場合, 追加したコマンドがここで破棄される.
+    if (closed) {
+      discardQueuedCmds();
+    }
+    return true;
+  }
+
+  /**
+   * 未実行のコマンドを全て失敗させ, 以降に受け付けたコマンドも実行せずに失敗させる.
+   * 実行中の移動コマンドは, RaspiCar を停止させて終了させる.
+   * {@link #raspiCar} がシミュレーション空間から削除されたときに呼ぶ.
+   */
+  void close() {
+    closed = true;
+    discardQueuedCmds();
+    raspiCar.stopMoving();
+  }
+
+  /** 未実行のコマンドを全てキューから取り除き, それぞれのコマンドの失敗を通知する. */
+  private void discardQueuedCmds() {
+    QueuedCmd cmd;
+    while ((cmd = actions.poll()) != null) {
+      cmd.onDiscarded.run();
+    }
+  }
+
+  /** 未実行のコマンドのキューに {@code action} を追加する. 追加できなかった場合は失敗を通知する. */
+  private void enqueue(
+      int opcode,
+      String[] cmd,
+      Runnable action,
+      BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    Runnable onDiscarded = () -> onCmdFinished.accept(false, new String[] {"Car Deleted"});
+    if (!offer(opcode, new StringCmdArgs(cmd), action, onDiscarded)) {
+      onCmdFinished.accept(false, new String[] {"Command Queue Full"});
+    }
+  }
+
+  /** {@link SimulatorCmdProcessor#process(String[], BiConsumer)} と同じ. */
+  void process(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    try {
+      String opcode = cmd[0];
+      if (opcode.equals(Opcode.MOVE.name)) {
+        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
+        move(cmd, onCmdFinished);
+      } else if (opcode.equals(Opcode.DETECT_COLOR.name)) {
+        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
+        detectColor(cmd, onCmdFinished);
+      } else if (opcode.equals(Opcode.MEASURE_DISTANCE.name)) {
+        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
+        measureDistance(cmd, onCmdFinished);
+      } else if (opcode.equals(Opcode.MEASURE_DISTANCE_SWEEP.name)) {
+        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
+        measureDistanceSweep(cmd, onCmdFinished);
+      } else if (opcode.equals(Opcode.LIGHT_EYE.name)) {
+        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
+        lightEye(cmd, onCmdFinished);
+      } else {
+        onCmdFinished.accept(false, new String[] {"Unknown Command"});  
+      }
+    } catch (Throwable e) {
+      onCmdFinished.accept(false, new String[] {e.toString()});
+    }
+  }
+
+  /**
+   * {@link SimulatorCmdProcessor#process(int, int, float, float, float, BinaryCmdCallback)}
+   * と同じ.
+   */
+  void process(
+      int opcode,
+      int option,
+      float arg0,
+      float arg1,
+      float arg2,
+      BinaryCmdCallback onCmdFinished) {
+    Runnable action = switch (opcode) {
+      case BinaryCmd.MOVE -> () -> processMove(option, arg0, arg1, onCmdFinished);
+      case BinaryCmd.DETECT_COLOR -> () -> processDetectColor(onCmdFinished);
+      case BinaryCmd.MEASURE_DISTANCE -> () -> processMeasureDistance(onCmdFinished);
+      case BinaryCmd.MEASURE_DISTANCE_SWEEP ->
+          () -> processMeasureDistanceSweep(option, arg0, onCmdFinished);
+      case BinaryCmd.LIGHT_EYE ->
+          () -> processLightEye(option, (int) arg0, (int) arg1, (int) arg2, onCmdFinished);
+      default -> null;
+    };
+    if (action == null) {
+      rejectBinaryCmd(onCmdFinished, BinaryCmd.ERR_UNKNOWN_CMD);
+      return;
+    }
+    cbRegistry.onBinaryCmdProcessingInvoker.invoke(new BinaryCmdProcessingEvent(opcode, option));
+    var args = new BinaryCmdArgs(opcode, option, arg0, arg1, arg2);
+    boolean accepted = offer(opcode, args, () -> {
+      try {
+        action.run();
+      } catch (Throwable e) {
+        fail(onCmdFinished, BinaryCmd.ERR_EXCEPTION);
+      }
+    }, () -> rejectBinaryCmd(onCmdFinished, BinaryCmd.ERR_UNKNOWN_CAR));
+    if (!accepted) {
+      rejectBinaryCmd(onCmdFinished, BinaryCmd.ERR_QUEUE_FULL);
+    }
+  }
+
+  /**
+   * 数値で表現されたコマンドを受け付けなかったことを通知する.
+   *
+   * <p>コマンドの実行スレッド以外から呼ばれるので, 応答のバッファを共有しない.
+   */
+  static void rejectBinaryCmd(BinaryCmdCallback onCmdFinished, int errorCode) {
+    var response = new BinaryCmdResponse(0);
+    response.errorCode = errorCode;
+    onCmdFinished.onCmdFinished(false, response);
+  }
+
+  /** 数値で表現されたコマンドの処理に失敗したことを通知する. */
+  private void fail(BinaryCmdCallback onCmdFinished, int errorCode) {
+    binaryResponse.clear().errorCode = errorCode;
+    onCmdFinished.onCmdFinished(false, binaryResponse);
+  }
+
+  /** RaspiCar を移動させるコマンドを処理する. (数値形式) */
+  private void processMove(int motion, float speed, float time, BinaryCmdCallback onCmdFinished) {
+    BiConsumer<Motion, Motion> onMoveFinished =
+        (oldMotion, newMotion) -> onCmdFinished.onCmdFinished(true, binaryResponse.clear());
+    switch (motion) {
+      case BinaryCmd.MOVE_FORWARD -> raspiCar.moveForward(speed, time, onMoveFinished);
+      case BinaryCmd.MOVE_BACKWARD -> raspiCar.moveBackward(speed, time, onMoveFinished);
+      case BinaryCmd.MOVE_CLOCKWISE -> raspiCar.turnRight(speed, time, onMoveFinished);
+      case BinaryCmd.MOVE_COUNTER_CLOCKWISE -> raspiCar.turnLeft(speed, time, onMoveFinished);
+      case BinaryCmd.MOVE_STOP -> raspiCar.stopMoving(onMoveFinished);
+      default -> fail(onCmdFinished, BinaryCmd.ERR_INVALID_ARG);
+    }
+  }
+
+  /** 色を取得するコマンドを処理する. (数値形式) */
+  private void processDetectColor(BinaryCmdCallback onCmdFinished) {
+    Color color = raspiCar.detectColor();
+    BinaryCmdResponse response = binaryResponse.clear();
+    response.values[0] = Math.clamp((int) (color.r * 255.0f), 0, 255);
+    response.values[1] = Math.clamp((int) (color.g * 255.0f), 0, 255);
+    response.values[2] = Math.clamp((int) (color.b * 255.0f), 0, 255);
+    response.size = 3;
+    onCmdFinished.onCmdFinished(true, response);
+  }
+
+  /** 距離を計測するコマンドを処理する. (数値形式) */
+  private void processMeasureDistance(BinaryCmdCallback onCmdFinished) {
+    BinaryCmdResponse response = binaryResponse.clear();
+    response.values[0] = raspiCar.measureDistance();
+    response.size = 1;
+    onCmdFinished.onCmdFinished(true, response);
+  }
+
+  /** 距離センサのビームを走査して複数の方向の距離を計測するコマンドを処理する. (数値形式) */
+  private void processMeasureDistanceSweep(
+      int numRays, float fov, BinaryCmdCallback onCmdFinished) {
+    if (!isValidSweep(numRays, fov)) {
+      fail(onCmdFinished, BinaryCmd.ERR_INVALID_ARG);
+      return;
+    }
+    BinaryCmdResponse response = binaryResponse.clear();
+    raspiCar.measureDistanceSweep(numRays, fov, response.values);
+    response.size = numRays;
+    onCmdFinished.onCmdFinished(true, response);
+  }
+
+  /** RaspiCar の目を光らせるコマンドを処理する. (数値形式) */
+  private void processLightEye(
+      int eye, int red, int green, int blue, BinaryCmdCallback onCmdFinished) {
+    EyeColors eyeColors = toEyeColors(red, green, blue);
+    switch (eye) {
+      case BinaryCmd.EYE_LEFT -> raspiCar.setLeftEyeColor(eyeColors.left);
+      case BinaryCmd.EYE_RIGHT -> raspiCar.setRightEyeColor(eyeColors.right);
+      case BinaryCmd.EYE_BOTH -> {
+        raspiCar.setLeftEyeColor(eyeColors.left);
+        raspiCar.setRightEyeColor(eyeColors.right);
+      }
+      default -> {
+        fail(onCmdFinished, BinaryCmd.ERR_INVALID_ARG);
+        return;
+      }
+    }
+    onCmdFinished.onCmdFinished(true, binaryResponse.clear());
+  }
+
+  /** RaspiCar を移動させるコマンドを処理する. */
+  private void move(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    String motion = cmd[1];
+    BiConsumer<Motion, Motion> onMoveFinished =
+        (oldMotion, newMotion) -> onCmdFinished.accept(true, new String[] {});
+
+    if (motion.equals(MoveMotion.STOP.name)) {
+      enqueue(BinaryCmd.MOVE, cmd, () -> raspiCar.stopMoving(onMoveFinished), onCmdFinished);
+      return;
+    }
+
+    float speed = Float.parseFloat(cmd[2]);
+    float time = Float.parseFloat(cmd[3]);
+    if (motion.equals(MoveMotion.FORWARD.name)) {
+      enqueue(
+          BinaryCmd.MOVE,
+          cmd,
+          () -> raspiCar.moveForward(speed, time, onMoveFinished),
+          onCmdFinished);
+    } else if (motion.equals(MoveMotion.BACKWARD.name)) {
+      enqueue(
+          BinaryCmd.MOVE,
+          cmd,
+          () -> raspiCar.moveBackward(speed, time, onMoveFinished),
+          onCmdFinished);
+    } else if (motion.equals(MoveMotion.CLOCKWISE.name)) {
+      enqueue(
+          BinaryCmd.MOVE,
+          cmd,
+          () -> raspiCar.turnRight(speed, time, onMoveFinished),
+          onCmdFinished);
+    } else if (motion.equals(MoveMotion.COUNTER_CLOCKWISE.name)) {
+      enqueue(
+          BinaryCmd.MOVE,
+          cmd,
+          () -> raspiCar.turnLeft(speed, time, onMoveFinished),
+          onCmdFinished);
+    } else {
+      onCmdFinished.accept(false, new String[] {"Invalid Move Command"});
+    }
+  }
+
+  /** 色を取得するコマンドを処理する. */
+  private void detectColor(
+      String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    enqueue(BinaryCmd.DETECT_COLOR, cmd, () -> {
+      Color color = raspiCar.detectColor();
+      int red = Math.clamp((int) (color.r * 255.0f), 0, 255);
+      int green = Math.clamp((int) (color.g * 255.0f), 0, 255);
+      int blue = Math.clamp((int) (color.b * 255.0f), 0, 255);
+      onCmdFinished.accept(
+          true, new String[] {String.valueOf(red), String.valueOf(green), String.valueOf(blue)});
+    }, onCmdFinished);
+  }
+
+  /** 距離を計測するコマンドを処理する. */
+  private void measureDistance(
+      String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    enqueue(BinaryCmd.MEASURE_DISTANCE, cmd, () -> {
+      float distance = raspiCar.measureDistance();
+      onCmdFinished.accept(true, new String[] {String.valueOf(distance)});
+    }, onCmdFinished);
+  }  
+
+  /** 距離センサのビームを走査して複数の方向の距離を計測するコマンドを処理する. */
+  private void measureDistanceSweep(
+      String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    int numRays = Integer.parseInt(cmd[1]);
+    float fov = Float.parseFloat(cmd[2]);
+    if (!isValidSweep(numRays, fov)) {
+      onCmdFinished.accept(false, new String[] {"Invalid Sweep Parameters"});
+      return;
+    }
+    enqueue(BinaryCmd.MEASURE_DISTANCE_SWEEP, cmd, () -> {
+      raspiCar.measureDistanceSweep(numRays, fov, sweepDistances);
+      var distances = new String[numRays];
+      for (int i = 0; i < numRays; ++i) {
+        distances[i] = String.valueOf(sweepDistances[i]);
+      }
+      onCmdFinished.accept(true, distances);
+    }, onCmdFinished);
+  }
+
+  /** 距離センサの走査に指定された方向の数と走査範囲の角度が有効か調べる. */
+  private static boolean isValidSweep(int numRays, float fov) {
+    return numRays >= 1
+        && numRays <= BhSimConstants.Simulation.MAX_SWEEP_RAYS
+        && fov >= 0
+        && fov <= 360;
+  }
+
+  /** RaspiCar の目を光らせるコマンドを処理する. */
+  private void lightEye(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    String eye = cmd[1];
+    int red = Integer.parseInt(cmd[2]);
+    int green = Integer.parseInt(cmd[3]);
+    int blue = Integer.parseInt(cmd[4]);
+    EyeColors eyeColors = toEyeColors(red, green, blue);
+    
+    if (eye.equals(Eye.LEFT.name)) {
+      enqueue(BinaryCmd.LIGHT_EYE, cmd, () -> {
+        raspiCar.setLeftEyeColor(eyeColors.left);
+        onCmdFinished.accept(true, new String[] {});
+      }, onCmdFinished);
+    } else if (eye.equals(Eye.RIGHT.name)) {
+      enqueue(BinaryCmd.LIGHT_EYE, cmd, () -> {
+        raspiCar.setRightEyeColor(eyeColors.right);
+        onCmdFinished.accept(true, new String[] {});
+      }, onCmdFinished);
+    } else if (eye.equals(Eye.BOTH.name)) {
+      enqueue(BinaryCmd.LIGHT_EYE, cmd, () -> {
+        raspiCar.setLeftEyeColor(eyeColors.left);
+        raspiCar.setRightEyeColor(eyeColors.right);
+        onCmdFinished.accept(true, new String[] {});
+      }, onCmdFinished);
+    } else {
+      onCmdFinished.accept(false, new String[] {"Invalid Eye Option"});
+    }
+  }
+
+  /** 引数の色を RaspiCar の目に設定可能な形式の色に変換する. */
+  private EyeColors toEyeColors(int red, int green, int blue) {
+    Color left = null;
+    Color right = null;
+    if (!(red == -1 && green == -1 && blue == -1)) {
+      left = new Color(red / 255f, green / 255f, blue / 255f, 1.0f);
+      right = left;
+    }
+    return new EyeColors(left, right);
+  }
+
+  /** {@link SimulatorCmdProcessor#halt()} と同じ. */
+  void halt() {
+    actions.clear();
+    haltRequested.set(true);
+  }
+
+  /** {@link SimulatorCmdProcessor#getQueueMetrics()} と同じ. */
+  CmdQueueMetrics getQueueMetrics() {
+    return new CmdQueueMetrics(
+        actions.size(),
+        actions.size() + actions.remainingCapacity(),
+        numExecuted,
+        numRejected.get(),
+        avgLatency,
+        maxLatency);
+  }
+
+  /** {@link SimulatorCmdProcessor#getLatencyMetrics(int)} と同じ. */
+  CmdLatencyMetrics getLatencyMetrics(int opcode) {
+    return latencyStats[opcode].toMetrics();
+  }
+
+  /** コマンドのオペコード. */
+  private enum Opcode {
+    MOVE("move"),
+    DETECT_COLOR("detect-color"),
+    MEASURE_DISTANCE("measure-distance"),
+    MEASURE_DISTANCE_SWEEP("measure-distance-sweep"),
+    LIGHT_EYE("light-eye");
+
+    public final String name;
+
+    private Opcode(String name) {
+      this.name = name;
+    }
+  
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** 移動の種類. */
+  private enum MoveMotion {
+    FORWARD("fwd"),
+    BACKWARD("bwd"),
+    CLOCKWISE("cw"),
+    COUNTER_CLOCKWISE("ccw"),
+    STOP("stop");
+
+    public final String name;
+
+    private MoveMotion(String name) {
+      this.name = name;
+    }
+  
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** 目の種類. */
+  private enum Eye {
+    LEFT("left"),
+    RIGHT("right"),
+    BOTH("both");
+
+    public final String name;
+
+    private Eye(String name) {
+      this.name = name;
+    }
+  
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /**
+   * キューに追加されたコマンド.
+   *
+   * @param action コマンドの処理
+   * @param onDiscarded コマンドを実行せずに破棄するときに呼ぶ処理
+   * @param opcode コマンドの種類. {@link BinaryCmd} のオペコードのいずれか.
+   * @param args コマンドの引数. シミュレーションを記録する際に使用する.
+   * @param enqueuedAt コマンドをキューに追加した時刻. (単位: nanoseconds)
+   */
+  private record QueuedCmd(
+      Runnable action, Runnable onDiscarded, int opcode, CmdArgs args, long enqueuedAt) {}
+
+  /**
+   * 1 種類のコマンドを受け付けてから実行を開始するまでの時間の統計情報.
+   * コマンドの実行スレッドで更新し, 任意のスレッドから参照する.
+   */
+  private static class LatencyStats {
+    private long numExecuted = 0;
+    private double totalLatency = 0;
+    private float maxLatency = 0;
+
+    synchronized void add(float latency) {
+      ++numExecuted;
+      totalLatency += latency;
+      maxLatency = Math.max(maxLatency, latency);
+    }
+
+    synchronized CmdLatencyMetrics toMetrics() {
+      float avgLatency = (numExecuted == 0) ? 0 : (float) (totalLatency / numExecuted);
+      return new CmdLatencyMetrics(numExecuted, avgLatency, maxLatency);
+    }
+  }
+
+  /** 目の色を格納するレコード. */
+  private record EyeColors(Color left, Color right) {}
+}
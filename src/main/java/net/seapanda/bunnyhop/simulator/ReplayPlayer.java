@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmdCallback;
+
+/**
+ * {@link ReplayRecorder} で記録したシミュレーションをフレームごとに再生するクラス.
+ *
+ * <p>記録されたフレームごとに, そのフレームで実行されたコマンドを全て実行してから,
+ * 記録と同じ時間だけ物理シミュレーションを進める.
+ * 実時間には依存しないので, 記録時と同じ状態を実時間より速く再現できる.
+ *
+ * @author K.Koike
+ */
+class ReplayPlayer implements Closeable {
+
+  private final DataInputStream in;
+  /** 記録時の物理シミュレーションの 1 ステップで進む時間 (秒). */
+  private final float timeStep;
+  /** 記録時にシミュレーション開始時に存在した RaspiCar の数. */
+  private final int numInitialCars;
+  /** 再生したフレームの数. */
+  private long numFrames = 0;
+  /** 再生中のコマンドが受け付けられなかった場合 true. */
+  private boolean rejected = false;
+  private final BiConsumer<Boolean, String[]> onStringCmdFinished =
+      (success, response) -> onCmdFinished(success);
+  private final BinaryCmdCallback onBinaryCmdFinished =
+      (success, response) -> onCmdFinished(success);
+  /** コマンドを受け付けている間 true. */
+  private boolean isAccepting = false;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param file 再生する記録のファイル
+   * @throws IOException ファイルを読めなかったか, 記録の形式が不正である.
+   */
+  ReplayPlayer(Path file) throws IOException {
+    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    try {
+      if (in.readInt() != ReplayRecorder.MAGIC) {
+        throw new IOException("Not a replay file.  (%s)".formatted(file));
+      }
+      short version = in.readShort();
+      if (version != ReplayRecorder.VERSION) {
+        throw new IOException("Unsupported replay file version.  (%s)".formatted(version));
+      }
+      timeStep = in.readFloat();
+      numInitialCars = (int) readVarLong();
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /** 記録時にシミュレーション開始時に存在した RaspiCar の数を取得する. */
+  int getNumInitialCars() {
+    return numInitialCars;
+  }
+
+  /** 再生したフレームの数を取得する. */
+  long getNumFrames() {
+    return numFrames;
+  }
+
+  /**
+   * 1 フレーム分の記録を再生する.
+   *
+   * @param cmdProcessor 記録されたコマンドを実行するコマンドプロセッサ
+   * @param simObjManager 物理シミュレーションを進めるシミュレーション空間
+   * @return 記録の終端に達していて再生するフレームが無かった場合 false
+   * @throws IOException 記録を読めなかったか, 再生中のシミュレーションが記録時と異なる状態になった.
+   */
+  boolean playFrame(SimulatorCmdProcessorImpl cmdProcessor, SimulationObjectManager simObjManager)
+      throws IOException {
+    int tag = in.read();
+    if (tag < 0) {
+      return false;
+    }
+    if (numFrames == 0 && simObjManager.getTimeStep() != timeStep) {
+      throw new DivergenceException("Time step differs from the recorded one.");
+    }
+    if (tag != ReplayRecorder.TAG_FRAME) {
+      throw new IOException("Broken replay file.  (frame %s)".formatted(numFrames));
+    }
+    long step = readVarLong();
+    if (step != simObjManager.getNumSteps()) {
+      throw new DivergenceException("Step count differs at frame %s.  (recorded: %s, actual: %s)"
+          .formatted(numFrames, step, simObjManager.getNumSteps()));
+    }
+    while (true) {
+      switch (in.readByte()) {
+        case ReplayRecorder.TAG_STRING_CMD -> acceptStringCmd(cmdProcessor);
+        case ReplayRecorder.TAG_BINARY_CMD -> acceptBinaryCmd(cmdProcessor);
+        case ReplayRecorder.TAG_HALT -> cmdProcessor.halt((int) readVarLong());
+        case ReplayRecorder.TAG_ADVANCE -> {
+          cmdProcessor.executeAllCmds();
+          simObjManager.advance(in.readFloat());
+          ++numFrames;
+          return true;
+        }
+        case ReplayRecorder.TAG_STEPS -> {
+          cmdProcessor.executeAllCmds();
+          simObjManager.step((int) readVarLong());
+          ++numFrames;
+          return true;
+        }
+        default -> throw new IOException("Broken replay file.  (frame %s)".formatted(numFrames));
+      }
+    }
+  }
+
+  /** 文字列で表現されたコマンドを読んで, {@code cmdProcessor} に渡す. */
+  private void acceptStringCmd(SimulatorCmdProcessorImpl cmdProcessor) throws IOException {
+    int carId = (int) readVarLong();
+    int len = (int) readVarLong();
+    var cmd = new String[len + 2];
+    cmd[0] = "car";
+    cmd[1] = String.valueOf(carId);
+    for (int i = 0; i < len; ++i) {
+      cmd[i + 2] = in.readUTF();
+    }
+    isAccepting = true;
+    cmdProcessor.process(cmd, onStringCmdFinished);
+    isAccepting = false;
+    checkAccepted(carId);
+  }
+
+  /** 数値で表現されたコマンドを読んで, {@code cmdProcessor} に渡す. */
+  private void acceptBinaryCmd(SimulatorCmdProcessorImpl cmdProcessor) throws IOException {
+    int carId = (int) readVarLong();
+    int opcode = in.readUnsignedByte();
+    int option = in.readUnsignedByte();
+    float arg0 = in.readFloat();
+    float arg1 = in.readFloat();
+    float arg2 = in.readFloat();
+    isAccepting = true;
+    cmdProcessor.process(carId, opcode, option, arg0, arg1, arg2, onBinaryCmdFinished);
+    isAccepting = false;
+    checkAccepted(carId);
+  }
+
+  /** コマンドの処理が終了したときの処理. 受け付けの時点で失敗したコマンドを検出する. */
+  private void onCmdFinished(boolean success) {
+    if (isAccepting && !success) {
+      rejected = true;
+    }
+  }
+
+  /** 記録時に実行されたコマンドが, 再生時に受け付けられなかった場合は例外を投げる. */
+  private void checkAccepted(int carId) throws DivergenceException {
+    if (rejected) {
+      throw new DivergenceException(
+          "A command for car %s was rejected at frame %s.".formatted(carId, numFrames));
+    }
+  }
+
+  /** 7 ビットずつ可変長で書き込まれた 0 以上の整数を読む. */
+  private long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new EOFException("Broken variable-length integer.");
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /** 再生中のシミュレーションが記録時と異なる状態になったことを表す例外. */
+  static class DivergenceException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    DivergenceException(String msg) {
+      super(msg);
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * シミュレーションを再現するために, 実行したコマンドと物理シミュレーションの進め方をバイナリ形式で記録するクラス.
+ *
+ * <p>記録はフレームごとに次の形式で書き込まれる.
+ * <pre>
+ * ヘッダ   : MAGIC (int), VERSION (short), 1 ステップの時間 (float), 最初の RaspiCar の数 (varint)
+ * フレーム : TAG_FRAME, フレーム開始時の物理シミュレーションのステップ数 (varint)
+ *            このフレームで実行したコマンド (TAG_STRING_CMD, TAG_BINARY_CMD, TAG_HALT) が 0 個以上
+ *            TAG_ADVANCE と進めた時間 (float) または TAG_STEPS と進めたステップ数 (varint)
+ * </pre>
+ * このクラスのメソッドは, シミュレータのメインスレッドから呼ぶこと.
+ *
+ * @author K.Koike
+ */
+class ReplayRecorder implements Closeable {
+
+  static final int MAGIC = 0x42485250;
+  static final short VERSION = 1;
+  static final byte TAG_FRAME = 0;
+  static final byte TAG_STRING_CMD = 1;
+  static final byte TAG_BINARY_CMD = 2;
+  static final byte TAG_HALT = 3;
+  static final byte TAG_ADVANCE = 4;
+  static final byte TAG_STEPS = 5;
+
+  private final DataOutputStream out;
+  /** 書き込みに失敗して記録を中止した場合 true. */
+  private boolean stopped = false;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param file 記録を書き込むファイル. 既に存在する場合は上書きする.
+   * @throws IOException ファイルを開けなかった.
+   */
+  ReplayRecorder(Path file) throws IOException {
+    out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+  }
+
+  /**
+   * 記録を開始する.
+   *
+   * @param timeStep 物理シミュレーションの 1 ステップで進む時間 (秒)
+   * @param numInitialCars シミュレーション開始時に存在する RaspiCar の数
+   */
+  void start(float timeStep, int numInitialCars) {
+    try {
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+      out.writeFloat(timeStep);
+      writeVarLong(out, numInitialCars);
+    } catch (IOException e) {
+      stop();
+    }
+  }
+
+  /**
+   * フレームの開始を記録する.
+   *
+   * @param step フレーム開始時までに実行した物理シミュレーションのステップ数
+   */
+  void beginFrame(long step) {
+    if (stopped) {
+      return;
+    }
+    try {
+      out.writeByte(TAG_FRAME);
+      writeVarLong(out, step);
+    } catch (IOException e) {
+      stop();
+    }
+  }
+
+  /**
+   * 実行したコマンドを記録する.
+   *
+   * @param carId コマンドを実行した RaspiCar の ID
+   * @param args 実行したコマンドの引数
+   */
+  void recordCmd(int carId, CmdArgs args) {
+    if (stopped) {
+      return;
+    }
+    try {
+      switch (args) {
+        case StringCmdArgs strArgs -> {
+          out.writeByte(TAG_STRING_CMD);
+          writeVarLong(out, carId);
+          writeVarLong(out, strArgs.cmd.length);
+          for (String word : strArgs.cmd) {
+            out.writeUTF(word);
+          }
+        }
+        case BinaryCmdArgs binArgs -> {
+          out.writeByte(TAG_BINARY_CMD);
+          writeVarLong(out, carId);
+          out.writeByte(binArgs.opcode);
+          out.writeByte(binArgs.option);
+          out.writeFloat(binArgs.arg0);
+          out.writeFloat(binArgs.arg1);
+          out.writeFloat(binArgs.arg2);
+        }
+      }
+    } catch (IOException e) {
+      stop();
+    }
+  }
+
+  /**
+   * RaspiCar のコマンドの処理を中断したことを記録する.
+   *
+   * @param carId コマンドの処理を中断した RaspiCar の ID
+   */
+  void recordHalt(int carId) {
+    if (stopped) {
+      return;
+    }
+    try {
+      out.writeByte(TAG_HALT);
+      writeVarLong(out, carId);
+    } catch (IOException e) {
+      stop();
+    }
+  }
+
+  /** {@link SimulationObjectManager#advance} でシミュレーション時間を {@code simTime} 秒進めたことを記録する. */
+  void recordAdvance(float simTime) {
+    if (stopped) {
+      return;
+    }
+    try {
+      out.writeByte(TAG_ADVANCE);
+      out.writeFloat(simTime);
+    } catch (IOException e) {
+      stop();
+    }
+  }
+
+  /** {@link SimulationObjectManager#step} で物理シミュレーションを {@code numSteps} ステップ進めたことを記録する. */
+  void recordSteps(int numSteps) {
+    if (stopped) {
+      return;
+    }
+    try {
+      out.writeByte(TAG_STEPS);
+      writeVarLong(out, numSteps);
+    } catch (IOException e) {
+      stop();
+    }
+  }
+
+  /** 書き込みに失敗したので記録を中止する. */
+  private void stop() {
+    stopped = true;
+    try {
+      out.close();
+    } catch (IOException ignored) { /* Do nothing. */ }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!stopped) {
+      stopped = true;
+      out.close();
+    }
+  }
+
+  /** 0 以上の整数を 7 ビットずつ可変長で書き込む. */
+  static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /** 記録するコマンドの引数. */
+  sealed interface CmdArgs permits StringCmdArgs, BinaryCmdArgs {}
+
+  /**
+   * 文字列で表現されたコマンドの引数.
+   *
+   * @param cmd 送り先の RaspiCar の指定を除いたコマンド
+   */
+  record StringCmdArgs(String[] cmd) implements CmdArgs {}
+
+  /** 数値で表現されたコマンドの引数. */
+  record BinaryCmdArgs(int opcode, int option, float arg0, float arg1, float arg2)
+      implements CmdArgs {}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.math.Vector3;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link BhSimulator} で記録したシミュレーションを再生した結果.
+ *
+ * @param isSucceeded 記録の最後まで, 記録時と同じ状態で再生できた場合 true
+ * @param message 再生に失敗した理由. 成功した場合は空の文字列.
+ * @param numFrames 再生したフレームの数
+ * @param numSteps 再生に使った物理シミュレーションのステップ数
+ * @param carPositions 再生終了時の RaspiCar の位置
+ * @author K.Koike
+ */
+public record ReplayResult(
+    boolean isSucceeded,
+    String message,
+    long numFrames,
+    long numSteps,
+    List<Vector3> carPositions) {
+
+  /** この再生結果を複数行の文字列に変換する. */
+  public String format() {
+    String header = isSucceeded
+        ? "Replay finished."
+        : "Replay failed.  (%s)".formatted(message);
+    String cars = carPositions.stream()
+        .map(pos -> "%n  car: %s".formatted(pos))
+        .collect(Collectors.joining());
+    return "%s%n  frames: %s, steps: %s%s".formatted(header, numFrames, numSteps, cars);
+  }
+}
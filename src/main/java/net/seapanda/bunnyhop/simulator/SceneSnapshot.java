@@ -0,0 +1,290 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import net.seapanda.bunnyhop.simulator.SimulationObjectManager.MaxObjectsExceededException;
+import net.seapanda.bunnyhop.simulator.obj.Box;
+import net.seapanda.bunnyhop.simulator.obj.Lamp;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.PhysicalEntity;
+
+/**
+ * シミュレーション空間の箱, 電灯, RaspiCar の状態をバイナリ形式で保存および復元するクラス.
+ *
+ * <p>保存される内容は次の通り.
+ * <pre>
+ * ヘッダ   : MAGIC (int), VERSION (short)
+ * 箱       : 個数 (int), 個数分の {重い箱かどうか (byte), 剛体の状態}
+ * 電灯     : 個数 (int), 個数分の {剛体の状態, 点灯しているかどうか (byte), [ライトの色 (float x 4)],
+ *                                 ライトの半径, 高さ, 角度 (float x 3)}
+ * RaspiCar : 個数 (int), 個数分の {ID (int), 剛体の状態, 左目の色, 右目の色 (float x 8)}
+ * </pre>
+ * 剛体の状態は, 姿勢行列の上 3 行 (float x 12), 速度 (float x 3), 角速度 (float x 3) である.
+ * RaspiCar の動作とコマンドは保存されず, 復元後の RaspiCar は停止している.
+ * このクラスのメソッドは, シミュレータのメインスレッドから呼ぶこと.
+ *
+ * @author K.Koike
+ */
+class SceneSnapshot {
+
+  private static final int MAGIC = 0x4248534E;
+  private static final short VERSION = 1;
+  /** 剛体の姿勢行列のうち保存する要素のインデックス. 最下行は常に (0, 0, 0, 1) なので保存しない. */
+  private static final int[] TRANSFORM_INDICES = {
+    Matrix4.M00, Matrix4.M01, Matrix4.M02, Matrix4.M03,
+    Matrix4.M10, Matrix4.M11, Matrix4.M12, Matrix4.M13,
+    Matrix4.M20, Matrix4.M21, Matrix4.M22, Matrix4.M23
+  };
+  /** 剛体の状態を表す値の数. */
+  private static final int PHYSICAL_STATE_SIZE = TRANSFORM_INDICES.length + 6;
+
+  private SceneSnapshot() {}
+
+  /**
+   * {@code simObjManager} が管理するシミュレーション空間の状態を {@code file} に保存する.
+   *
+   * @param simObjManager 状態を保存するシミュレーション空間
+   * @param file 状態を書き込むファイル. 既に存在する場合は上書きする.
+   * @throws IOException ファイルに書き込めなかった.
+   */
+  static void save(SimulationObjectManager simObjManager, Path file) throws IOException {
+    var state = new float[PHYSICAL_STATE_SIZE];
+    var tmp = new PhysicalStateBuffer();
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+
+      List<Box> boxes = simObjManager.getBoxes();
+      out.writeInt(boxes.size());
+      for (Box box : boxes) {
+        out.writeBoolean(box.isHeavy());
+        writePhysicalState(out, box, tmp, state);
+      }
+
+      List<Lamp> lamps = simObjManager.getLamps();
+      out.writeInt(lamps.size());
+      for (Lamp lamp : lamps) {
+        writePhysicalState(out, lamp, tmp, state);
+        Color color = lamp.getLightColor().orElse(null);
+        out.writeBoolean(color != null);
+        if (color != null) {
+          writeColor(out, color);
+        }
+        out.writeFloat(lamp.getLightRadius());
+        out.writeFloat(lamp.getLightHeight());
+        out.writeFloat(lamp.getLightAngle());
+      }
+
+      List<RaspiCar> cars = simObjManager.getRaspiCars();
+      out.writeInt(cars.size());
+      for (RaspiCar car : cars) {
+        out.writeInt(simObjManager.getRaspiCarId(car));
+        writePhysicalState(out, car, tmp, state);
+        writeColor(out, car.getLeftEyeColor());
+        writeColor(out, car.getRightEyeColor());
+      }
+    }
+  }
+
+  /**
+   * {@code file} に保存されたシミュレーション空間の状態を {@code simObjManager} に復元する.
+   *
+   * <p>{@code simObjManager} に追加されていた箱, 電灯, RaspiCar は全て削除される.
+   * 復元した RaspiCar には保存時と同じ ID を割り当てるが, その ID が既に使われたことのある場合は新しい ID を割り当てる.
+   * ファイルの読み込みに失敗した場合, {@code simObjManager} は変更されない.
+   *
+   * @param simObjManager 状態を復元するシミュレーション空間
+   * @param file 状態を読み込むファイル
+   * @throws IOException ファイルを読めなかったか, 形式が不正である.
+   * @throws MaxObjectsExceededException 保存された 3D モデルの数がシミュレーション空間に作成可能な最大数を超えている.
+   */
+  static void restore(SimulationObjectManager simObjManager, Path file)
+      throws IOException, MaxObjectsExceededException {
+    var boxes = new ArrayList<BoxState>();
+    var lamps = new ArrayList<LampState>();
+    var cars = new ArrayList<CarState>();
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a scene snapshot file.  (%s)".formatted(file));
+      }
+      short version = in.readShort();
+      if (version != VERSION) {
+        throw new IOException("Unsupported scene snapshot version.  (%s)".formatted(version));
+      }
+      int numBoxes = readCount(in);
+      for (int i = 0; i < numBoxes; ++i) {
+        boolean isHeavy = in.readBoolean();
+        boxes.add(new BoxState(isHeavy, readPhysicalState(in)));
+      }
+      int numLamps = readCount(in);
+      for (int i = 0; i < numLamps; ++i) {
+        float[] state = readPhysicalState(in);
+        Color color = in.readBoolean() ? readColor(in) : null;
+        lamps.add(new LampState(
+            state, color, in.readFloat(), in.readFloat(), in.readFloat()));
+      }
+      int numCars = readCount(in);
+      for (int i = 0; i < numCars; ++i) {
+        int id = in.readInt();
+        cars.add(new CarState(id, readPhysicalState(in), readColor(in), readColor(in)));
+      }
+    }
+    // 最初から存在する RaspiCar は数えない.
+    int numDefaultCars = (int) cars.stream()
+        .filter(car -> car.id == SimulationObjectManager.DEFAULT_CAR_ID)
+        .count();
+    if (boxes.size() + lamps.size() + cars.size() - numDefaultCars
+        > simObjManager.getMaxObjects()) {
+      throw new MaxObjectsExceededException("Too many 3D models in the scene snapshot.");
+    }
+    simObjManager.clear();
+    apply(simObjManager, boxes, lamps, cars);
+  }
+
+  /** 読み込んだ状態をシミュレーション空間に反映する. */
+  private static void apply(
+      SimulationObjectManager simObjManager,
+      List<BoxState> boxes,
+      List<LampState> lamps,
+      List<CarState> cars) throws MaxObjectsExceededException {
+    var tmp = new PhysicalStateBuffer();
+    var origin = new Vector3();
+    for (BoxState state : boxes) {
+      Box box = simObjManager.createBox(origin, state.isHeavy);
+      setPhysicalState(box, state.physicalState, tmp);
+    }
+    for (LampState state : lamps) {
+      Lamp lamp = simObjManager.createLamp(origin);
+      setPhysicalState(lamp, state.physicalState, tmp);
+      if (state.lightColor != null) {
+        lamp.setLightColor(state.lightColor);
+        lamp.turnOn();
+      } else {
+        lamp.turnOff();
+      }
+      lamp.setLightRadius(state.lightRadius);
+      lamp.setLightHeight(state.lightHeight);
+      lamp.setLightAngle(state.lightAngle);
+    }
+    for (CarState state : cars) {
+      RaspiCar car;
+      if (state.id == SimulationObjectManager.DEFAULT_CAR_ID) {
+        car = simObjManager.getRaspiCar();
+      } else {
+        int id = simObjManager.createRaspiCar(origin, state.id);
+        car = simObjManager.getRaspiCar(id).orElseThrow();
+      }
+      car.stopMoving();
+      setPhysicalState(car, state.physicalState, tmp);
+      car.setLeftEyeColor(state.leftEyeColor);
+      car.setRightEyeColor(state.rightEyeColor);
+    }
+  }
+
+  /** {@code entity} の剛体の状態を書き込む. */
+  private static void writePhysicalState(
+      DataOutputStream out, PhysicalEntity entity, PhysicalStateBuffer tmp, float[] state)
+      throws IOException {
+    entity.getPhysicalState(tmp.transform, tmp.linearVelocity, tmp.angularVelocity);
+    int i = 0;
+    for (int idx : TRANSFORM_INDICES) {
+      state[i++] = tmp.transform.val[idx];
+    }
+    state[i++] = tmp.linearVelocity.x;
+    state[i++] = tmp.linearVelocity.y;
+    state[i++] = tmp.linearVelocity.z;
+    state[i++] = tmp.angularVelocity.x;
+    state[i++] = tmp.angularVelocity.y;
+    state[i] = tmp.angularVelocity.z;
+    for (float val : state) {
+      out.writeFloat(val);
+    }
+  }
+
+  /** 剛体の状態を読み込む. */
+  private static float[] readPhysicalState(DataInputStream in) throws IOException {
+    var state = new float[PHYSICAL_STATE_SIZE];
+    for (int i = 0; i < state.length; ++i) {
+      state[i] = in.readFloat();
+    }
+    return state;
+  }
+
+  /** {@code state} で指定した剛体の状態を {@code entity} に設定する. */
+  private static void setPhysicalState(
+      PhysicalEntity entity, float[] state, PhysicalStateBuffer tmp) {
+    tmp.transform.idt();
+    int i = 0;
+    for (int idx : TRANSFORM_INDICES) {
+      tmp.transform.val[idx] = state[i++];
+    }
+    tmp.linearVelocity.set(state[i], state[i + 1], state[i + 2]);
+    tmp.angularVelocity.set(state[i + 3], state[i + 4], state[i + 5]);
+    entity.setPhysicalState(tmp.transform, tmp.linearVelocity, tmp.angularVelocity);
+  }
+
+  private static void writeColor(DataOutputStream out, Color color) throws IOException {
+    out.writeFloat(color.r);
+    out.writeFloat(color.g);
+    out.writeFloat(color.b);
+    out.writeFloat(color.a);
+  }
+
+  private static Color readColor(DataInputStream in) throws IOException {
+    return new Color(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+  }
+
+  /** 3D モデルの個数を読み込む. */
+  private static int readCount(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IOException("Broken scene snapshot file.  (count: %s)".formatted(count));
+    }
+    return count;
+  }
+
+  /** 剛体の状態を受け渡すためのバッファ. */
+  private static class PhysicalStateBuffer {
+    final Matrix4 transform = new Matrix4();
+    final Vector3 linearVelocity = new Vector3();
+    final Vector3 angularVelocity = new Vector3();
+  }
+
+  private record BoxState(boolean isHeavy, float[] physicalState) {}
+
+  private record LampState(
+      float[] physicalState,
+      Color lightColor,
+      float lightRadius,
+      float lightHeight,
+      float lightAngle) {}
+
+  private record CarState(
+      int id, float[] physicalState, Color leftEyeColor, Color rightEyeColor) {}
+}
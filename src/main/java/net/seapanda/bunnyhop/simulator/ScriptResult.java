@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.math.Vector3;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ScriptRunner} でスクリプトを実行した結果.
+ *
+ * <p>{@link #toResultLine} で 1 行の文字列に変換して, {@link BatchRunner} が起動したプロセスから受け取る.
+ *
+ * @param status スクリプトの実行結果の種類
+ * @param numCmdsDone 処理が成功したコマンドの数
+ * @param numCmds スクリプトに含まれるコマンドの数
+ * @param numSteps スクリプトの実行に使った物理シミュレーションのステップ数
+ * @param carPositions 実行終了時の RaspiCar の位置
+ * @param message 実行に失敗した理由
+ * @author K.Koike
+ */
+record ScriptResult(
+    Status status,
+    int numCmdsDone,
+    int numCmds,
+    long numSteps,
+    List<Vector3> carPositions,
+    String message) {
+
+  /** {@link #toResultLine} で作成した文字列の先頭に付く文字列. */
+  private static final String PREFIX = "result";
+  private static final String SEPARATOR = "\t";
+
+  /** 実行を開始できなかったことを表す {@link ScriptResult} を作成する. */
+  static ScriptResult error(String message) {
+    return new ScriptResult(Status.ERROR, 0, 0, 0, List.of(), message);
+  }
+
+  /** この実行結果をタブ区切りの 1 行の文字列に変換する. */
+  String format() {
+    String positions = carPositions.stream()
+        .map(pos -> "%s,%s,%s".formatted(pos.x, pos.y, pos.z))
+        .collect(Collectors.joining(";"));
+    return String.join(
+        SEPARATOR,
+        status.name(),
+        String.valueOf(numCmdsDone),
+        String.valueOf(numCmds),
+        String.valueOf(numSteps),
+        positions,
+        message.replaceAll("\\s+", " "));
+  }
+
+  /** この実行結果を, 他のプロセスに渡すための 1 行の文字列に変換する. */
+  String toResultLine() {
+    return PREFIX + SEPARATOR + format();
+  }
+
+  /**
+   * {@link #toResultLine} で作成した文字列から実行結果を復元する.
+   *
+   * @return {@code line} が実行結果を表す文字列でない場合 null
+   */
+  static ScriptResult parse(String line) {
+    String[] fields = line.split(SEPARATOR, -1);
+    if (fields.length != 7 || !fields[0].equals(PREFIX)) {
+      return null;
+    }
+    try {
+      var positions = new ArrayList<Vector3>();
+      for (String pos : fields[5].split(";")) {
+        if (pos.isEmpty()) {
+          continue;
+        }
+        String[] xyz = pos.split(",");
+        positions.add(new Vector3(
+            Float.parseFloat(xyz[0]), Float.parseFloat(xyz[1]), Float.parseFloat(xyz[2])));
+      }
+      return new ScriptResult(
+          Status.valueOf(fields[1]),
+          Integer.parseInt(fields[2]),
+          Integer.parseInt(fields[3]),
+          Long.parseLong(fields[4]),
+          positions,
+          fields[6]);
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
+  /** スクリプトの実行結果の種類. */
+  enum Status {
+    /** 全てのコマンドの処理に成功した. */
+    OK,
+    /** 処理に失敗したコマンドがあった. */
+    FAILED,
+    /** ステップ数の上限までに全てのコマンドの処理が終わらなかった. */
+    TIMEOUT,
+    /** スクリプトを実行できなかった. */
+    ERROR,
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
+
+/**
+ * シミュレータ制御用のコマンドを記述したスクリプトを, ヘッドレスのシミュレーション空間で実行するクラス.
+ *
+ * <p>スクリプトは 1 行に 1 つのコマンドを {@link SimulatorCmdProcessor#process(String[],
+ * java.util.function.BiConsumer)} と同じ形式で空白区切りで記述する. 空行と # で始まる行は無視する.
+ * 各コマンドは, 1 つ前のコマンドの処理が終わってから実行する.
+ * 物理シミュレーションは実時間によらず 1 ステップずつ進めるので, 同じスクリプトからは常に同じ結果が得られる.
+ *
+ * @author K.Koike
+ */
+class ScriptRunner {
+
+  /** スクリプトの実行に使う物理シミュレーションのステップ数の既定の上限. (シミュレーション時間で 10 分) */
+  static final long DEFAULT_MAX_STEPS = 120L * 60 * 10;
+
+  private final Path script;
+  /** シミュレーション開始時に復元するシミュレーション空間の状態を保存したファイル. 無い場合は null. */
+  private final Path sceneFile;
+  /** スクリプトの実行に使う物理シミュレーションのステップ数の上限. */
+  private final long maxSteps;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param script 実行するスクリプト
+   * @param sceneFile シミュレーション開始時に復元するシミュレーション空間の状態を保存したファイル. 無い場合は null.
+   * @param maxSteps スクリプトの実行に使う物理シミュレーションのステップ数の上限.
+   *                 これを超えた場合, スクリプトの実行を中止する.
+   */
+  ScriptRunner(Path script, Path sceneFile, long maxSteps) {
+    this.script = script;
+    this.sceneFile = sceneFile;
+    this.maxSteps = maxSteps;
+  }
+
+  /**
+   * ウィンドウと OpenGL コンテキストを持たない状態で, シミュレーション空間を作成できるようにする.
+   * このメソッドはプロセスごとに 1 回だけ呼ぶこと.
+   */
+  static void initHeadlessEnv() {
+    var config = new HeadlessApplicationConfiguration();
+    config.updatesPerSecond = -1;
+    new HeadlessApplication(new ApplicationAdapter() {}, config);
+    HeadlessGl.install();
+    Bullet.init(true);
+  }
+
+  /**
+   * スクリプトを実行する.
+   *
+   * @return スクリプトの実行結果
+   */
+  ScriptResult run() {
+    List<String[]> cmds;
+    try {
+      cmds = readScript(script);
+    } catch (IOException e) {
+      return ScriptResult.error(e.toString());
+    }
+    var simObjManager = new SimulationObjectManager();
+    try {
+      if (sceneFile != null) {
+        SceneSnapshot.restore(simObjManager, sceneFile);
+      }
+      var cmdProcessor = new SimulatorCmdProcessorImpl(simObjManager);
+      var completion = new Completion();
+      for (int i = 0; i < cmds.size(); ++i) {
+        completion.reset();
+        cmdProcessor.process(cmds.get(i), completion::complete);
+        while (!completion.isFinished) {
+          if (simObjManager.getNumSteps() >= maxSteps) {
+            return createResult(simObjManager, ScriptResult.Status.TIMEOUT, i, cmds.size(), "");
+          }
+          cmdProcessor.executeAllCmds();
+          simObjManager.step(1);
+        }
+        if (!completion.isSucceeded) {
+          return createResult(
+              simObjManager, ScriptResult.Status.FAILED, i, cmds.size(), completion.response);
+        }
+      }
+      return createResult(simObjManager, ScriptResult.Status.OK, cmds.size(), cmds.size(), "");
+    } catch (Exception e) {
+      return ScriptResult.error(e.toString());
+    } finally {
+      simObjManager.dispose();
+    }
+  }
+
+  /** スクリプトからコマンドを読み込む. */
+  private static List<String[]> readScript(Path script) throws IOException {
+    var cmds = new ArrayList<String[]>();
+    for (String line : Files.readAllLines(script)) {
+      line = line.strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      cmds.add(line.split("\\s+"));
+    }
+    return cmds;
+  }
+
+  /** シミュレーション空間の現在の状態から実行結果を作成する. */
+  private static ScriptResult createResult(
+      SimulationObjectManager simObjManager,
+      ScriptResult.Status status,
+      int numCmdsDone,
+      int numCmds,
+      String message) {
+    var carPositions = new ArrayList<Vector3>();
+    for (RaspiCar car : simObjManager.getRaspiCars()) {
+      carPositions.add(car.getPosition());
+    }
+    return new ScriptResult(
+        status, numCmdsDone, numCmds, simObjManager.getNumSteps(), carPositions, message);
+  }
+
+  /** 1 つのコマンドの処理の終了を待つためのクラス. */
+  private static class Completion {
+    private boolean isFinished;
+    private boolean isSucceeded;
+    private String response;
+
+    void reset() {
+      isFinished = false;
+      isSucceeded = false;
+      response = "";
+    }
+
+    void complete(Boolean success, String[] response) {
+      isFinished = true;
+      isSucceeded = success;
+      this.response = String.join(" ", response);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.List;
+
+/**
+ * 衝突判定と拘束の解決を 1 つのスレッドで行う物理シミュレーション空間を作成するクラス.
+ *
+ * @author K.Koike
+ */
+class SequentialWorldFactory implements DynamicsWorldFactory {
+
+  @Override
+  public btDiscreteDynamicsWorld create(List<? super Disposable> disposables) {
+    var collisionConfig = new btDefaultCollisionConfiguration();
+    var dispatcher = new btCollisionDispatcher(collisionConfig);
+    var broadphase = new btDbvtBroadphase();
+    var constraintSolver = new btSequentialImpulseConstraintSolver();
+    var dynamicsWorld = new btDiscreteDynamicsWorld(
+        dispatcher, broadphase, constraintSolver, collisionConfig);
+    disposables.add(dynamicsWorld);
+    disposables.add(constraintSolver);
+    disposables.add(broadphase);
+    disposables.add(dispatcher);
+    disposables.add(collisionConfig);
+    return dynamicsWorld;
+  }
+}
@@ -18,19 +18,29 @@ package net.seapanda.bunnyhop.simulator;
 
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.bullet.DebugDrawer;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
-import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
-import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
+import com.badlogic.gdx.physics.bullet.dynamics.btContactSolverInfo;
 import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
-import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
+import com.badlogic.gdx.physics.bullet.dynamics.btSolverMode;
 import com.badlogic.gdx.physics.bullet.linearmath.btIDebugDraw;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Disposable;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import javax.naming.LimitExceededException;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import net.seapanda.bunnyhop.simulator.geometry.BoundsTracker;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
 import net.seapanda.bunnyhop.simulator.geometry.CustomContactListener;
 import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper;
 import net.seapanda.bunnyhop.simulator.obj.Box;
@@ -52,59 +62,95 @@ import net.seapanda.bunnyhop.simulator.ui.SimulationObjectManagerView;
  */
 public class SimulationObjectManager implements Disposable, UiViewProvider {
   
-  /** シミュレーション空間に追加可能な 3D モデルの最大数. */
-  public static final int MAX_OBJECTS = 30;
-  /** シミュレーション空間に存在する 3D モデルを格納するリスト. */
-  private final ArrayList<SimulationObject> instances = new ArrayList<>();
+  /** 最初からシミュレーション空間に存在し, 削除できない RaspiCar の ID. */
+  public static final int DEFAULT_CAR_ID = 0;
+  /** シミュレーション空間に存在する 3D モデルを格納するオブジェクト. */
+  private final SimulationObjectRegistry registry = new SimulationObjectRegistry();
   private final Stage stage = new Stage(1f, new Vector3(0f, 0f, 0f));
   private final RaspiCar car = new RaspiCar(1f, new Vector3(0f, 0.1f, 0.1f));
+  /** RaspiCar の ID と RaspiCar のマップ. コマンドを受け付けるスレッドからも参照される. */
+  private final Map<Integer, RaspiCar> idToCar = new ConcurrentHashMap<>();
+  /** RaspiCar とその ID のマップ. */
+  private final Map<RaspiCar, Integer> carToId = new IdentityHashMap<>();
+  /** 次に作成する RaspiCar の ID. */
+  private int nextCarId = DEFAULT_CAR_ID + 1;
+  /** RaspiCar が削除されたときに, その ID を渡して呼ぶ関数のリスト. */
+  private final List<IntConsumer> onRaspiCarDeletedList = new ArrayList<>();
   private final RayTestHelper rayTestHelper;
+  /** シミュレーション空間の衝突判定オブジェクトの接触状態を記録するオブジェクト. */
+  private final ContactIndex contactIndex = new ContactIndex();
   private final btDiscreteDynamicsWorld dynamicsWorld;
+  /** {@link #dynamicsWorld} のディスパッチャ. 取得するたびにラッパーが作られないように保持しておく. */
+  private final btDispatcher dispatcher;
   private final ArrayList<Disposable> disposables = new ArrayList<>();
-  private final DebugDrawer debugDrawer = new DebugDrawer();
+  /** 衝突判定オブジェクトを描画するためのオブジェクト. (最初に要求されたときに作成する) */
+  private DebugDrawer debugDrawer;
   /** オブジェクトがステージから落ちたと判断する鉛直方向の位置の閾値. */
   private final float verticalPosThreshold = -5f;
+  /**
+   * 箱, 電灯, RaspiCar の剛体の原点がステージから落ちたかどうかを記録するオブジェクト.
+   * 鉛直方向の位置が {@link #verticalPosThreshold} 未満のものを範囲外とする.
+   */
+  private final BoundsTracker<PhysicalEntity> boundsTracker = new BoundsTracker<>(
+      new Vector3(Float.NEGATIVE_INFINITY, verticalPosThreshold, Float.NEGATIVE_INFINITY),
+      new Vector3(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY));
+  /** 剛体の姿勢が変わったときに {@link #boundsTracker} の記録を更新する関数. */
+  private final Map<PhysicalEntity, Consumer<Matrix4>> positionTrackers = new IdentityHashMap<>();
+  /** {@link #boundsTracker} に渡す位置を一時的に格納するベクトル. */
+  private final Vector3 trackedPos = new Vector3();
+  /** ステージから落ちた 3D モデルを一時的に格納するリスト. */
+  private final List<PhysicalEntity> droppedObjs = new ArrayList<>();
   /** カメラの注視点を取得する関数のオブジェクト. */
   private Supplier<Vector3> cameraTargetGetter = () -> new Vector3(0f, 3f, 0f);
-  /** シミュレーション空間に, 現在追加されている 3D モデルの個数. */
-  private int numObjects = 0;
-  /** UI のルートコンポーネント. */
-  private final Actor uiComponent = new SimulationObjectManagerView(this);
+  /** これまでに実行した物理シミュレーションのステップ数. */
+  private long numSteps = 0;
+  /** UI のルートコンポーネント. (最初に要求されたときに作成する) */
+  private Actor uiComponent;
   /**
    * 次の物理シミュレーションの更新で経過する時間を計算するためのオブジェクト.
    *
    * <p>Box と Lamp の AdditionalDamping を有効にしているので, シミュレーション間隔を 1 / 120 秒から減らさないこと.
    */
   private final SimulationStepTimeCalculator simStepTimeCalc =
-      new SimulationStepTimeCalculator(1f / 120f, 5);
+      new SimulationStepTimeCalculator(getPhysicsTimeStep(), 5);
 
-  /** コンストラクタ. */
+  /**
+   * コンストラクタ.
+   * 物理シミュレーション空間の種類は {@link BhSimSettings.Simulation#worldType} で指定する.
+   * 指定された種類の物理シミュレーション空間を作成できない場合は, シングルスレッドの物理シミュレーション空間を作成する.
+   */
   public SimulationObjectManager() {
-    instances.add(stage);
-    instances.add(car);
-    dynamicsWorld = createDynamicWorld();
+    this(DynamicsWorldFactory.fromSettings(false, msg -> {}));
+  }
+
+  /**
+   * コンストラクタ.
+   *
+   * @param worldFactory 物理シミュレーション空間を作成するオブジェクト
+   */
+  SimulationObjectManager(DynamicsWorldFactory worldFactory) {
+    registry.add(stage);
+    registry.add(car);
+    idToCar.put(DEFAULT_CAR_ID, car);
+    carToId.put(car, DEFAULT_CAR_ID);
+    dynamicsWorld = createDynamicWorld(worldFactory);
+    dispatcher = dynamicsWorld.getDispatcher();
     rayTestHelper = new RayTestHelper(dynamicsWorld);
-    stage.addCollisionObjectsTo(dynamicsWorld);
-    car.addCollisionObjectsTo(dynamicsWorld);
+    disposables.addFirst(rayTestHelper);
+    stage.addCollisionObjectsTo(dynamicsWorld, contactIndex);
+    car.addCollisionObjectsTo(dynamicsWorld, contactIndex);
+    trackPosition(car);
   }
 
-  private btDiscreteDynamicsWorld createDynamicWorld() {
-    var collisionConfig = new btDefaultCollisionConfiguration();
-    var dispatcher = new btCollisionDispatcher(collisionConfig);
-    var broadphase = new btDbvtBroadphase();
-    var constraintSolver = new btSequentialImpulseConstraintSolver();
-    var dynamicsWorld = new btDiscreteDynamicsWorld(
-        dispatcher, broadphase, constraintSolver, collisionConfig);
-    dynamicsWorld.setGravity(new Vector3(0, -9.8f, 0));
-    var contactListener = new CustomContactListener();
-    dynamicsWorld.setDebugDrawer(debugDrawer);
-    debugDrawer.setDebugMode(btIDebugDraw.DebugDrawModes.DBG_MAX_DEBUG_DRAW_MODE);
+  private btDiscreteDynamicsWorld createDynamicWorld(DynamicsWorldFactory worldFactory) {
+    var contactListener = new CustomContactListener(contactIndex);
     disposables.add(contactListener);
-    disposables.add(dynamicsWorld);
-    disposables.add(constraintSolver);
-    disposables.add(broadphase);
-    disposables.add(dispatcher);
-    disposables.add(collisionConfig);
+    btDiscreteDynamicsWorld dynamicsWorld = worldFactory.create(disposables);
+    dynamicsWorld.setGravity(new Vector3(0, -9.8f, 0));
+    // RaspiCar のキャタピラが接触点に設定する摩擦の方向を使うため.
+    btContactSolverInfo solverInfo = dynamicsWorld.getSolverInfo();
+    solverInfo.setSolverMode(
+        solverInfo.getSolverMode() | btSolverMode.SOLVER_ENABLE_FRICTION_DIRECTION_CACHING);
     return dynamicsWorld;
   }
 
@@ -113,22 +159,101 @@ public class SimulationObjectManager implements Disposable, UiViewProvider {
     return stage;
   }
 
-  /** シミュレーション空間の RaspiCar を返す. */
+  /** シミュレーション空間に最初から存在する RaspiCar を返す. */
   public RaspiCar getRaspiCar() {
     return car;
   }
 
+  /**
+   * {@code id} で指定した RaspiCar を返す.
+   * このメソッドはスレッドセーフである.
+   *
+   * @param id 取得する RaspiCar の ID
+   * @return {@code id} に対応する RaspiCar. 存在しない場合は空の Optional.
+   */
+  public Optional<RaspiCar> getRaspiCar(int id) {
+    return Optional.ofNullable(idToCar.get(id));
+  }
+
+  /** シミュレーション空間に存在する全ての RaspiCar を返す. このリストは変更できない. */
+  public List<RaspiCar> getRaspiCars() {
+    return registry.getRaspiCars();
+  }
+
   /** シミュレーション空間の 3D モデルの状態を更新する. */
   public void update(float deltaTime) {
     teleportObjectsDroppedOutOfStage();
     simStepTimeCalc.advanceTime(deltaTime);
-    car.update(deltaTime, simStepTimeCalc.getNextTimeStep());
+    float timeStep = simStepTimeCalc.getNextTimeStep();
+    numSteps += simStepTimeCalc.getNextSteps();
+    List<RaspiCar> cars = registry.getRaspiCars();
+    for (int i = 0; i < cars.size(); ++i) {
+      cars.get(i).update(deltaTime, timeStep);
+    }
     dynamicsWorld.stepSimulation(deltaTime, simStepTimeCalc.maxSteps, simStepTimeCalc.timeStep);
   }
 
-  /** シミュレーション空間の 3D モデルを描画するためのインタフェースを取得する. */
-  public Iterable<? extends RenderableProvider> getRenderableProviders() {
-    return instances;
+  /**
+   * シミュレーション時間を {@code simTime} 秒進める.
+   * 一度の {@link #update} で進められる時間を超える分は, 複数回の更新に分けて処理する.
+   */
+  public void advance(float simTime) {
+    float maxTime = simStepTimeCalc.timeStep * simStepTimeCalc.maxSteps;
+    while (simTime > maxTime) {
+      update(maxTime);
+      simTime -= maxTime;
+    }
+    update(simTime);
+  }
+
+  /**
+   * 実時間によらず, 物理シミュレーションを {@code numSteps} ステップ進める.
+   * 1 ステップごとに {@link #getTimeStep()} 秒だけシミュレーション時間が進む.
+   */
+  public void step(int numSteps) {
+    for (int i = 0; i < numSteps; ++i) {
+      update(simStepTimeCalc.timeStep);
+    }
+  }
+
+  /** これまでに実行した物理シミュレーションのステップ数を取得する. */
+  public long getNumSteps() {
+    return numSteps;
+  }
+
+  /** {@link BhSimSettings.Simulation#physicsTimeStep} を物理シミュレーションで使える範囲に制限した値を返す. */
+  private static float getPhysicsTimeStep() {
+    return Math.clamp(BhSimSettings.Simulation.physicsTimeStep, 1f / 120f, 1f / 30f);
+  }
+
+  /** 物理シミュレーションの 1 ステップで進む時間 (秒) を取得する. */
+  public float getTimeStep() {
+    return simStepTimeCalc.timeStep;
+  }
+
+  /** 物理シミュレーション空間に存在する衝突判定オブジェクトの個数を返す. */
+  public int getNumCollisionObjects() {
+    return dynamicsWorld.getNumCollisionObjects();
+  }
+
+  /** 接触している可能性のある衝突判定オブジェクトの組の個数を返す. */
+  public int getNumContactManifolds() {
+    return dispatcher.getNumManifolds();
+  }
+
+  /** シミュレーション空間の 3D モデルを描画するためのインタフェースを取得する. このリストは変更できない. */
+  public List<? extends RenderableProvider> getRenderableProviders() {
+    return registry.getAll();
+  }
+
+  /** シミュレーション空間に存在する箱のリストを返す. このリストは変更できない. */
+  public List<Box> getBoxes() {
+    return registry.getBoxes();
+  }
+
+  /** シミュレーション空間に存在する電灯のリストを返す. このリストは変更できない. */
+  public List<Lamp> getLamps() {
+    return registry.getLamps();
   }
 
   /** 
@@ -140,14 +265,12 @@ public class SimulationObjectManager implements Disposable, UiViewProvider {
    * @throws MaxObjectsExceededException 既にシミュレーション空間内に作成可能な 3D モデルの最大個数に達している.
    */
   public Box createBox(Vector3 pos, boolean isHeavy) throws MaxObjectsExceededException {
-    if (numObjects == MAX_OBJECTS) {
-      throw new MaxObjectsExceededException("No more 3D models can be added.");
-    }
+    checkNumObjects();
     float size = isHeavy ? 0.2f : 0.1f;
     var box = new Box(new Vector3(size, size, size), pos, isHeavy);
-    instances.add(box);
-    box.addCollisionObjectsTo(dynamicsWorld);
-    ++numObjects;
+    registry.add(box);
+    box.addCollisionObjectsTo(dynamicsWorld, contactIndex);
+    trackPosition(box);
     return box;
   }
 
@@ -159,20 +282,65 @@ public class SimulationObjectManager implements Disposable, UiViewProvider {
    * @throws MaxObjectsExceededException 既にシミュレーション空間内に作成可能な 3D モデルの最大個数に達している.
    */
   public Lamp createLamp(Vector3 pos) throws MaxObjectsExceededException {
-    if (numObjects == MAX_OBJECTS) {
-      throw new MaxObjectsExceededException("No more 3D models can be added.");
-    }
+    checkNumObjects();
     var lamp = new Lamp(1f, pos);
-    instances.add(lamp);
-    lamp.addCollisionObjectsTo(dynamicsWorld);
-    ++numObjects;
+    registry.add(lamp);
+    lamp.addCollisionObjectsTo(dynamicsWorld, contactIndex);
+    trackPosition(lamp);
     return lamp;
   }
 
+  /**
+   * 引数で指定した位置に RaspiCar を作成する.
+   *
+   * @param pos RaspiCar の位置.
+   * @return 作成した RaspiCar の ID.
+   * @throws MaxObjectsExceededException 既にシミュレーション空間内に作成可能な 3D モデルの最大個数に達している.
+   */
+  public int createRaspiCar(Vector3 pos) throws MaxObjectsExceededException {
+    return createRaspiCar(pos, nextCarId);
+  }
+
+  /**
+   * 引数で指定した位置と ID で RaspiCar を作成する.
+   * {@code id} が既に使われたことのある ID である場合は, 新しい ID を割り当てる.
+   *
+   * @param pos RaspiCar の位置.
+   * @param id 作成する RaspiCar に割り当てる ID.
+   * @return 作成した RaspiCar の ID.
+   * @throws MaxObjectsExceededException 既にシミュレーション空間内に作成可能な 3D モデルの最大個数に達している.
+   */
+  int createRaspiCar(Vector3 pos, int id) throws MaxObjectsExceededException {
+    checkNumObjects();
+    var newCar = new RaspiCar(1f, pos);
+    // RaspiCar の ID は再利用しない.
+    if (id < nextCarId) {
+      id = nextCarId;
+    }
+    nextCarId = id + 1;
+    registry.add(newCar);
+    idToCar.put(id, newCar);
+    carToId.put(newCar, id);
+    newCar.addCollisionObjectsTo(dynamicsWorld, contactIndex);
+    trackPosition(newCar);
+    return id;
+  }
+
+  /**
+   * 3D モデルを追加可能か調べる.
+   *
+   * @throws MaxObjectsExceededException 既にシミュレーション空間内に作成可能な 3D モデルの最大個数に達している.
+   */
+  private void checkNumObjects() throws MaxObjectsExceededException {
+    if (getNumObjects() >= getMaxObjects()) {
+      throw new MaxObjectsExceededException("No more 3D models can be added.");
+    }
+  }
+
   /** {@code provider} で指定した 3D モデルの {@link ObjectReflection} を作成する. */
   public ObjectReflection createObjectReflection(ObjectReflectionProvider provider) {
     ObjectReflection obj = provider.createObjectReflection();
-    instances.add(obj);
+    registry.add(obj);
     return obj;
   }
 
@@ -181,49 +349,143 @@ public class SimulationObjectManager implements Disposable, UiViewProvider {
     return rayTestHelper;
   }
 
-  /** {@code obj} で指定した 3D モデルをシミュレーション空間から削除する. */
+  /**
+   * {@code obj} で指定した 3D モデルをシミュレーション空間から削除する.
+   * {@link #DEFAULT_CAR_ID} の RaspiCar は削除できない.
+   */
   public void delete(SimulationObject obj) {
-    instances.remove(obj);
+    if (obj == car || !registry.remove(obj)) {
+      return;
+    }
+    if (obj instanceof RaspiCar raspiCar) {
+      int id = carToId.remove(raspiCar);
+      idToCar.remove(id);
+      for (IntConsumer onRaspiCarDeleted : onRaspiCarDeletedList) {
+        onRaspiCarDeleted.accept(id);
+      }
+    }
+    if (obj instanceof PhysicalEntity entity) {
+      untrackPosition(entity);
+    }
     if (obj instanceof Collidable collidable) {
-      collidable.removeCollisionObjectsFrom(dynamicsWorld);
+      // 削除するオブジェクトに支えられていた休止状態のオブジェクトが落下するようにする.
+      var contacted = new ArrayList<Collidable>();
+      contactIndex.getContactedCollidables(collidable, contacted);
+      for (Collidable intersected : contacted) {
+        if (intersected instanceof PhysicalEntity entity) {
+          entity.wakeUp();
+        }
+      }
+      collidable.removeCollisionObjectsFrom(dynamicsWorld, contactIndex);
     }
     obj.dispose();
-    if (obj instanceof Lamp || obj instanceof Box) {
-      --numObjects;
+  }
+
+  /**
+   * シミュレーション空間に追加された箱, 電灯, RaspiCar を全て削除する.
+   * 最初から存在する Stage と {@link #DEFAULT_CAR_ID} の RaspiCar は削除しない.
+   */
+  public void clear() {
+    for (SimulationObject obj : List.copyOf(registry.getBoxes())) {
+      delete(obj);
     }
+    for (SimulationObject obj : List.copyOf(registry.getLamps())) {
+      delete(obj);
+    }
+    for (SimulationObject obj : List.copyOf(registry.getRaspiCars())) {
+      delete(obj);
+    }
+  }
+
+  /**
+   * {@code car} で指定した RaspiCar の ID を取得する.
+   *
+   * @return {@code car} の ID. {@code car} がシミュレーション空間に存在しない場合は -1.
+   */
+  int getRaspiCarId(RaspiCar car) {
+    return carToId.getOrDefault(car, -1);
   }
 
   /** 衝突判定オブジェクトを描画する. */
   public void drawCollisionObjects(Camera camera) {
+    if (debugDrawer == null) {
+      debugDrawer = new DebugDrawer();
+      debugDrawer.setDebugMode(btIDebugDraw.DebugDrawModes.DBG_MAX_DEBUG_DRAW_MODE);
+      dynamicsWorld.setDebugDrawer(debugDrawer);
+      disposables.add(debugDrawer);
+    }
     debugDrawer.begin(camera);
     dynamicsWorld.debugDrawWorld();
     debugDrawer.end();
   }
 
+  /**
+   * RaspiCar が削除されたときに呼ぶ関数を追加する.
+   * 関数は RaspiCar を破棄する前に, 削除した RaspiCar の ID を引数として呼ばれる.
+   */
+  void addOnRaspiCarDeleted(IntConsumer onRaspiCarDeleted) {
+    onRaspiCarDeletedList.add(onRaspiCarDeleted);
+  }
+
   /** シミュレーション空間を映すカメラの注視点を取得するメソッドを設定する. */
   public void setCameraTargetGetter(Supplier<Vector3> cameraTargetGetter) {
     this.cameraTargetGetter = cameraTargetGetter;
   }
 
-  /** ステージから落ちたオブジェクトをステージ上に転移させる. */
+  /**
+   * ステージから落ちたオブジェクトをステージ上に転移させる.
+   *
+   * <p>ステージから落ちたオブジェクトは {@link #boundsTracker} から範囲外のものとして取得するので,
+   * 全ての 3D モデルの位置を調べる必要はない.
+   */
   private void teleportObjectsDroppedOutOfStage() {
-    for (SimulationObject obj : instances) {
-      if (obj.getPosition().y >= verticalPosThreshold || obj instanceof Stage) {
-        continue;
-      }
-      if (obj instanceof PhysicalEntity pe) {
-        pe.resetPhysicalState();
-      }
+    boundsTracker.getOutOfBounds(droppedObjs);
+    for (int i = 0; i < droppedObjs.size(); ++i) {
+      PhysicalEntity obj = droppedObjs.get(i);
+      obj.resetPhysicalState();
       Vector3 newObjPos = cameraTargetGetter.get();
       newObjPos.y = 0.4f;
       stage.clampPosXz(newObjPos);
       obj.setPosition(newObjPos);
     }
+    droppedObjs.clear();
   }
 
-  /** 現在シミュレーション空間内に追加されている 3D モデルの数を取得する. */
+  /**
+   * {@code entity} の位置を {@link #boundsTracker} に記録し, 剛体の姿勢が変わるたびに更新する.
+   *
+   * @param entity 位置を記録する 3D モデル
+   */
+  private void trackPosition(PhysicalEntity entity) {
+    Consumer<Matrix4> tracker =
+        worldTrans -> boundsTracker.update(entity, worldTrans.getTranslation(trackedPos));
+    positionTrackers.put(entity, tracker);
+    boundsTracker.add(entity, entity.getBodyOrigin(trackedPos));
+    entity.addOnTransformChanged(tracker);
+  }
+
+  /** {@link #trackPosition} で始めた {@code entity} の位置の記録をやめる. */
+  private void untrackPosition(PhysicalEntity entity) {
+    Consumer<Matrix4> tracker = positionTrackers.remove(entity);
+    if (tracker != null) {
+      entity.removeOnTransformChanged(tracker);
+    }
+    boundsTracker.remove(entity);
+  }
+
+  /**
+   * 現在シミュレーション空間内に追加されている 3D モデルの数を取得する.
+   * 最初から存在する Stage と RaspiCar は含まない.
+   */
   public int getNumObjects() {
-    return numObjects;
+    return registry.getBoxes().size()
+        + registry.getLamps().size()
+        + registry.getRaspiCars().size() - 1;
+  }
+
+  /** シミュレーション空間に追加可能な 3D モデルの最大数を取得する. */
+  public int getMaxObjects() {
+    return BhSimSettings.Simulation.maxObjects;
   }
 
   @Override
@@ -231,13 +493,16 @@ public class SimulationObjectManager implements Disposable, UiViewProvider {
     for (var disposable : disposables) {
       disposable.dispose();
     }
-    for (SimulationObject instance : instances) {
+    for (SimulationObject instance : registry.getAll()) {
       instance.dispose();
     }
   }
 
   @Override
   public Actor getUiView() {
+    if (uiComponent == null) {
+      uiComponent = new SimulationObjectManagerView(this);
+    }
     return uiComponent;
   }
 
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import net.seapanda.bunnyhop.simulator.obj.Box;
+import net.seapanda.bunnyhop.simulator.obj.Lamp;
+import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.SimulationObject;
+
+/**
+ * シミュレーション空間に存在する 3D モデルを, 全体と種類ごとのリストで管理するクラス.
+ *
+ * <p>3D モデルの追加, 削除, 存在確認は 3D モデルの数によらず一定の時間で行える.
+ * 削除を行うと, リストの末尾の 3D モデルが削除された位置に移動するので, リスト内の順序は保たれない.
+ *
+ * @author K.Koike
+ */
+class SimulationObjectRegistry {
+
+  private final IndexedList<SimulationObject> all = new IndexedList<>();
+  private final IndexedList<Box> boxes = new IndexedList<>();
+  private final IndexedList<Lamp> lamps = new IndexedList<>();
+  private final IndexedList<RaspiCar> cars = new IndexedList<>();
+  private final List<SimulationObject> allView = Collections.unmodifiableList(all);
+  private final List<Box> boxesView = Collections.unmodifiableList(boxes);
+  private final List<Lamp> lampsView = Collections.unmodifiableList(lamps);
+  private final List<RaspiCar> carsView = Collections.unmodifiableList(cars);
+
+  /**
+   * {@code obj} を追加する.
+   *
+   * @return {@code obj} が既に追加されていた場合 false
+   */
+  boolean add(SimulationObject obj) {
+    if (!all.add(obj)) {
+      return false;
+    }
+    if (obj instanceof Box box) {
+      boxes.add(box);
+    } else if (obj instanceof Lamp lamp) {
+      lamps.add(lamp);
+    } else if (obj instanceof RaspiCar car) {
+      cars.add(car);
+    }
+    return true;
+  }
+
+  /**
+   * {@code obj} を削除する.
+   *
+   * @return {@code obj} が追加されていなかった場合 false
+   */
+  boolean remove(SimulationObject obj) {
+    if (!all.remove(obj)) {
+      return false;
+    }
+    if (obj instanceof Box box) {
+      boxes.remove(box);
+    } else if (obj instanceof Lamp lamp) {
+      lamps.remove(lamp);
+    } else if (obj instanceof RaspiCar car) {
+      cars.remove(car);
+    }
+    return true;
+  }
+
+  /** {@code obj} が追加されているか調べる. */
+  boolean contains(SimulationObject obj) {
+    return all.contains(obj);
+  }
+
+  /** 追加されている全ての 3D モデルのリストを返す. このリストは変更できない. */
+  List<SimulationObject> getAll() {
+    return allView;
+  }
+
+  /** 追加されている箱のリストを返す. このリストは変更できない. */
+  List<Box> getBoxes() {
+    return boxesView;
+  }
+
+  /** 追加されている電灯のリストを返す. このリストは変更できない. */
+  List<Lamp> getLamps() {
+    return lampsView;
+  }
+
+  /** 追加されている RaspiCar のリストを返す. このリストは変更できない. */
+  List<RaspiCar> getRaspiCars() {
+    return carsView;
+  }
+
+  /**
+   * 要素ごとの格納位置を保持して, 追加, 削除, 存在確認を一定の時間で行うリスト.
+   * 同じ要素を複数格納することはできない.
+   */
+  private static class IndexedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final ArrayList<E> elems = new ArrayList<>();
+    /** 要素とその要素の {@link #elems} 内での位置のマップ. */
+    private final Map<Object, Integer> elemToIdx = new IdentityHashMap<>();
+
+    @Override
+    public E get(int index) {
+      return elems.get(index);
+    }
+
+    @Override
+    public int size() {
+      return elems.size();
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+      return elemToIdx.containsKey(obj);
+    }
+
+    @Override
+    public boolean add(E elem) {
+      if (elemToIdx.putIfAbsent(elem, elems.size()) != null) {
+        return false;
+      }
+      elems.add(elem);
+      return true;
+    }
+
+    /** {@code obj} を削除し, 末尾の要素を {@code obj} があった位置に移動させる. */
+    @Override
+    public boolean remove(Object obj) {
+      Integer idx = elemToIdx.remove(obj);
+      if (idx == null) {
+        return false;
+      }
+      E last = elems.removeLast();
+      if (idx < elems.size()) {
+        elems.set(idx, last);
+        elemToIdx.put(last, idx);
+      }
+      return true;
+    }
+  }
+}
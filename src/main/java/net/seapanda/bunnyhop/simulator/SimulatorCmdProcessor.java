@@ -27,6 +27,9 @@ public interface SimulatorCmdProcessor {
   /**
    * シミュレータ制御用コマンドを処理する.
    *
+   * <p>{@code cmd} の先頭が {@code "car", <ID>} である場合, 残りのコマンドを ID で指定した RaspiCar に対して処理する.
+   * それ以外の場合, 最初からシミュレーション空間に存在する RaspiCar に対して処理する.
+   *
    * @param cmd 処理するコマンド
    * @param onCmdFinished コマンドの処理が終了したときに呼ばれるメソッド.
    * 第一引数 : 成否フラグ. (true -> 成功, false -> 失敗) <br>
@@ -34,12 +37,81 @@ public interface SimulatorCmdProcessor {
    */
   void process(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished);
 
+  /**
+   * 数値で表現されたシミュレータ制御用コマンドを処理する.
+   *
+   * <p>文字列で表現されたコマンドと異なり, 解析と応答の文字列化を行わない.
+   * 各オペコードで使用する引数は {@link BinaryCmd} を参照すること. 使用しない引数の値は無視される.
+   *
+   * @param opcode コマンドの種類. {@link BinaryCmd} のオペコードのいずれか.
+   * @param option コマンドの種類ごとの選択肢. 移動の種類や目の種類など.
+   * @param arg0 コマンドの 1 つ目の数値引数
+   * @param arg1 コマンドの 2 つ目の数値引数
+   * @param arg2 コマンドの 3 つ目の数値引数
+   * @param onCmdFinished コマンドの処理が終了したときに呼ばれるメソッド.
+   *                      このメソッドはシミュレータのスレッドで呼ばれる.
+   *                      ただし, コマンドを受け付けなかった場合はこのメソッドの呼び出し元のスレッドで呼ばれる.
+   */
+  default void process(
+      int opcode,
+      int option,
+      float arg0,
+      float arg1,
+      float arg2,
+      BinaryCmdCallback onCmdFinished) {
+    process(
+        SimulationObjectManager.DEFAULT_CAR_ID, opcode, option, arg0, arg1, arg2, onCmdFinished);
+  }
+
+  /**
+   * 数値で表現されたシミュレータ制御用コマンドを {@code carId} で指定した RaspiCar に対して処理する.
+   *
+   * @param carId コマンドで制御する RaspiCar の ID
+   * @param opcode コマンドの種類. {@link BinaryCmd} のオペコードのいずれか.
+   * @param option コマンドの種類ごとの選択肢. 移動の種類や目の種類など.
+   * @param arg0 コマンドの 1 つ目の数値引数
+   * @param arg1 コマンドの 2 つ目の数値引数
+   * @param arg2 コマンドの 3 つ目の数値引数
+   * @param onCmdFinished コマンドの処理が終了したときに呼ばれるメソッド.
+   * @see #process(int, int, float, float, float, BinaryCmdCallback)
+   */
+  void process(
+      int carId,
+      int opcode,
+      int option,
+      float arg0,
+      float arg1,
+      float arg2,
+      BinaryCmdCallback onCmdFinished);
+
   /**
    * 現在実行中のコマンドの処理を停止する.
    * 未実行のコマンドを破棄する.
+   * 全ての RaspiCar が対象となる.
    */
   void halt();
 
+  /**
+   * 未実行のコマンドを保持するキューの統計情報を取得する.
+   * 全ての RaspiCar のキューの統計情報を合計したものを返す.
+   *
+   * <p>キューが満杯の間に受け付けたコマンドは実行されずに失敗が通知されるので,
+   * 呼び出し側は {@link CmdQueueMetrics#queueDepth()} を参照してコマンドの送信を調整すること.
+   *
+   * @return 未実行のコマンドを保持するキューの統計情報
+   */
+  CmdQueueMetrics getQueueMetrics();
+
+  /**
+   * {@code opcode} で指定したコマンドを受け付けてから実行を開始するまでの時間の統計情報を取得する.
+   * 全ての RaspiCar に対するコマンドの統計情報を合計したものを返す.
+   * 文字列で表現されたコマンドは, 同じ種類の数値で表現されたコマンドとして集計される.
+   *
+   * @param opcode 統計情報を取得するコマンドの種類. {@link BinaryCmd} のオペコードのいずれか.
+   * @return {@code opcode} で指定したコマンドの統計情報
+   */
+  CmdLatencyMetrics getLatencyMetrics(int opcode);
+
   /**
    * このコマンドプロセッサに対するイベントハンドラの追加と削除を行うオブジェクトを返す.
    *
@@ -52,6 +124,9 @@ public interface SimulatorCmdProcessor {
     
     /** コマンドを処理する直前に呼ばれるイベントハンドラのレジストリを取得する. */
     ConsumerInvoker<CmdProcessingEvent>.Registry getOnCmdProcessing();
+
+    /** 数値で表現されたコマンドを処理する直前に呼ばれるイベントハンドラのレジストリを取得する. */
+    ConsumerInvoker<BinaryCmdProcessingEvent>.Registry getOnBinaryCmdProcessing();
   }
   
   /**
@@ -60,4 +135,127 @@ public interface SimulatorCmdProcessor {
    * @param cmd 処理するコマンド
    */
   public record CmdProcessingEvent(String[] cmd) {}
+
+  /**
+   * 未実行のコマンドを保持するキューの統計情報を格納したレコード.
+   *
+   * @param queueDepth 未実行のコマンドの数
+   * @param queueCapacity 保持可能な未実行のコマンドの最大数
+   * @param numExecuted 実行したコマンドの総数
+   * @param numRejected キューが満杯だったため拒否したコマンドの総数
+   * @param avgLatency コマンドを受け付けてから実行を開始するまでの時間の指数移動平均 (単位: seconds)
+   * @param maxLatency コマンドを受け付けてから実行を開始するまでの時間の最大値 (単位: seconds)
+   */
+  public record CmdQueueMetrics(
+      int queueDepth,
+      int queueCapacity,
+      long numExecuted,
+      long numRejected,
+      float avgLatency,
+      float maxLatency) {}
+
+  /**
+   * 種類ごとのコマンドを受け付けてから実行を開始するまでの時間の統計情報を格納したレコード.
+   *
+   * @param numExecuted 実行したコマンドの総数
+   * @param avgLatency コマンドを受け付けてから実行を開始するまでの時間の平均値 (単位: seconds)
+   * @param maxLatency コマンドを受け付けてから実行を開始するまでの時間の最大値 (単位: seconds)
+   */
+  public record CmdLatencyMetrics(long numExecuted, float avgLatency, float maxLatency) {}
+
+  /**
+   * コマンドプロセッサが数値で表現されたコマンドを処理するときの情報を格納したレコード.
+   *
+   * @param opcode 処理するコマンドのオペコード
+   * @param option 処理するコマンドの選択肢
+   */
+  public record BinaryCmdProcessingEvent(int opcode, int option) {}
+
+  /** 数値で表現されたコマンドの処理が終了したときに呼ばれるメソッドを規定したインタフェース. */
+  @FunctionalInterface
+  public interface BinaryCmdCallback {
+
+    /**
+     * コマンドの処理が終了したときに呼ばれるメソッド.
+     *
+     * @param success コマンドの処理に成功した場合 true
+     * @param response コマンドの応答. このオブジェクトは再利用されるので, メソッドの終了後に参照してはならない.
+     */
+    void onCmdFinished(boolean success, BinaryCmdResponse response);
+  }
+
+  /** 数値で表現されたコマンドの応答を格納するクラス. */
+  public static class BinaryCmdResponse {
+    /** 応答の値. 先頭から {@link #size} 個の要素が有効. */
+    public final float[] values;
+    /** 有効な応答の値の数. */
+    public int size = 0;
+    /** コマンドの処理に失敗した場合のエラーコード. 成功した場合は {@link BinaryCmd#ERR_NONE}. */
+    public int errorCode = BinaryCmd.ERR_NONE;
+
+    /**
+     * コンストラクタ.
+     *
+     * @param capacity 格納可能な応答の値の最大数
+     */
+    public BinaryCmdResponse(int capacity) {
+      values = new float[capacity];
+    }
+
+    /** 応答の値とエラーコードを消去する. */
+    public BinaryCmdResponse clear() {
+      size = 0;
+      errorCode = BinaryCmd.ERR_NONE;
+      return this;
+    }
+  }
+
+  /**
+   * 数値で表現されたコマンドのオペコード, 選択肢, エラーコードの一覧.
+   *
+   * <pre>
+   * MOVE                   : option = MOVE_*, arg0 = 速度, arg1 = 時間 / 応答なし
+   * DETECT_COLOR           : 引数なし / 応答 = [赤, 緑, 青] (0 ~ 255)
+   * MEASURE_DISTANCE       : 引数なし / 応答 = [距離]
+   * MEASURE_DISTANCE_SWEEP : option = 方向の数, arg0 = 走査範囲の角度 / 応答 = [距離, ...]
+   * LIGHT_EYE              : option = EYE_*, arg0 = 赤, arg1 = 緑, arg2 = 青 / 応答なし
+   * </pre>
+   *
+   * <p>MEASURE_DISTANCE_SWEEP の走査範囲の角度は 0 以上 360 以下 (degrees) で指定する.
+   * 360 の場合は全周を方向の数で等分し, 同じ方向を 2 回計測しない.
+   */
+  public static final class BinaryCmd {
+    public static final int MOVE = 0;
+    public static final int DETECT_COLOR = 1;
+    public static final int MEASURE_DISTANCE = 2;
+    public static final int MEASURE_DISTANCE_SWEEP = 3;
+    public static final int LIGHT_EYE = 4;
+    /** オペコードの数. */
+    public static final int NUM_OPCODES = 5;
+
+    public static final int MOVE_FORWARD = 0;
+    public static final int MOVE_BACKWARD = 1;
+    public static final int MOVE_CLOCKWISE = 2;
+    public static final int MOVE_COUNTER_CLOCKWISE = 3;
+    public static final int MOVE_STOP = 4;
+
+    public static final int EYE_LEFT = 0;
+    public static final int EYE_RIGHT = 1;
+    public static final int EYE_BOTH = 2;
+
+    /** エラーなし. */
+    public static final int ERR_NONE = 0;
+    /** 未知のオペコード. */
+    public static final int ERR_UNKNOWN_CMD = 1;
+    /** 不正な選択肢または引数. */
+    public static final int ERR_INVALID_ARG = 2;
+    /** コマンドの実行中に例外が発生した. */
+    public static final int ERR_EXCEPTION = 3;
+    /** 未実行のコマンドのキューが満杯. */
+    public static final int ERR_QUEUE_FULL = 4;
+    /** 存在しない RaspiCar の ID. */
+    public static final int ERR_UNKNOWN_CAR = 5;
+
+    private BinaryCmd() {}
+  }
 }
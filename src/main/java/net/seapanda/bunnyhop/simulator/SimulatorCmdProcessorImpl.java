@@ -16,235 +16,260 @@
 
 package net.seapanda.bunnyhop.simulator;
 
-import com.badlogic.gdx.graphics.Color;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
 import net.seapanda.bunnyhop.simulator.obj.RaspiCar;
-import net.seapanda.bunnyhop.simulator.obj.RaspiCar.Motion;
 import net.seapanda.bunnyhop.utility.concurrent.event.ConcurrentConsumerInvoker;
 import net.seapanda.bunnyhop.utility.event.ConsumerInvoker;
 
 /**
- * シミュレータ制御用のコマンドを処理するクラス.
+ * シミュレータ制御用のコマンドを, 対象の RaspiCar ごとの {@link RaspiCarCmdProcessor} に振り分けるクラス.
  *
  * @author K.Koike
  */
 class SimulatorCmdProcessorImpl implements SimulatorCmdProcessor {
-  
-  private final RaspiCar raspiCar;
-  private final Queue<Runnable> actions = new ConcurrentLinkedQueue<>();
+
+  /** コマンドの送り先の RaspiCar を指定するコマンドの先頭の文字列. */
+  private static final String CAR_PREFIX = "car";
+  /** {@link RaspiCarCmdProcessor} を RaspiCar の ID 順に並べるためのオブジェクト. */
+  private static final Comparator<RaspiCarCmdProcessor> BY_CAR_ID =
+      Comparator.comparingInt(RaspiCarCmdProcessor::getCarId);
+
+  private final SimulationObjectManager simObjManager;
+  /** RaspiCar の ID とその RaspiCar のコマンドを処理するオブジェクトのマップ. */
+  private final Map<Integer, RaspiCarCmdProcessor> idToProcessor = new ConcurrentHashMap<>();
   private final CallbackRegistryImpl cbRegistry = new CallbackRegistryImpl();
+  /** コマンドを実行する {@link RaspiCarCmdProcessor} を RaspiCar の ID 順に格納するリスト. */
+  private final List<RaspiCarCmdProcessor> processors = new ArrayList<>();
+  /** 次の {@link #executeCmds} で最初にコマンドを実行する RaspiCar の ID の下限. */
+  private int nextCarIdToExecute = 0;
 
   /**
    * コンストラクタ.
    *
-   * @param raspiCar コマンドで制御する {@link RaspiCar} オブジェクト
+   * @param simObjManager コマンドで制御する RaspiCar を管理する {@link SimulationObjectManager}
    */
-  SimulatorCmdProcessorImpl(RaspiCar raspiCar) {
-    this.raspiCar = raspiCar;
+  SimulatorCmdProcessorImpl(SimulationObjectManager simObjManager) {
+    this.simObjManager = simObjManager;
+    simObjManager.addOnRaspiCarDeleted(this::onRaspiCarDeleted);
   }
 
-  /** 未実行のコマンドを処理する. */
-  void executeCmds() {
-    while (!actions.isEmpty()) {
-      actions.remove().run();
+  /** {@code carId} の RaspiCar が削除されたときに, その RaspiCar の未実行のコマンドを全て失敗させる. */
+  private void onRaspiCarDeleted(int carId) {
+    RaspiCarCmdProcessor processor = idToProcessor.remove(carId);
+    if (processor != null) {
+      processor.close();
     }
   }
 
-  @Override
-  public void process(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
-    try {
-      String opcode = cmd[0];
-      if (opcode.equals(Opcode.MOVE.name)) {
-        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
-        move(cmd, onCmdFinished);
-      } else if (opcode.equals(Opcode.DETECT_COLOR.name)) {
-        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
-        detectColor(onCmdFinished);
-      } else if (opcode.equals(Opcode.MEASURE_DISTANCE.name)) {
-        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
-        measureDistance(onCmdFinished);
-      } else if (opcode.equals(Opcode.LIGHT_EYE.name)) {
-        cbRegistry.onCmdProcessingInvoker.invoke(new CmdProcessingEvent(cmd));
-        lightEye(cmd, onCmdFinished);
+  /**
+   * 全ての RaspiCar の未実行のコマンドを処理する.
+   *
+   * <p>1 回の呼び出しで全ての RaspiCar が実行するコマンドの数と時間の合計は
+   * {@link BhSimSettings.Command#maxCmdsPerFrame} と
+   * {@link BhSimSettings.Command#timeBudgetPerFrame} で制限される.
+   * 特定の RaspiCar のコマンドばかりが実行されないように, 各 RaspiCar のコマンドを 1 つずつ順番に実行する.
+   *
+   * @param recorder 実行したコマンドを記録するオブジェクト. 記録しない場合は null.
+   */
+  void executeCmds(ReplayRecorder recorder) {
+    executeCmds(
+        BhSimSettings.Command.maxCmdsPerFrame,
+        (long) (BhSimSettings.Command.timeBudgetPerFrame * 1e9),
+        recorder);
+  }
+
+  /**
+   * 全ての RaspiCar の未実行のコマンドを, 1 つずつ RaspiCar の ID 順に実行する.
+   *
+   * <p>最初にコマンドを実行する RaspiCar は, 前回の呼び出しで最後にコマンドを実行した RaspiCar の次のものとする.
+   * 実行順が RaspiCar の ID と実行したコマンドだけで決まるので, 記録したシミュレーションの再生時にも同じ順で実行される.
+   *
+   * @param maxCmds 実行するコマンドの最大数. 0 以下の場合は制限しない.
+   * @param timeBudget コマンドの実行に使う時間の上限. 0 以下の場合は制限しない. (単位: nanoseconds)
+   * @param recorder 実行したコマンドを記録するオブジェクト. 記録しない場合は null.
+   */
+  private void executeCmds(int maxCmds, long timeBudget, ReplayRecorder recorder) {
+    final long startTime = System.nanoTime();
+    processors.addAll(idToProcessor.values());
+    processors.sort(BY_CAR_ID);
+    int idx = 0;
+    for (int i = 0; i < processors.size(); ++i) {
+      processors.get(i).stopIfHaltRequested(recorder);
+      if (processors.get(i).getCarId() < nextCarIdToExecute) {
+        idx = (i + 1) % processors.size();
+      }
+    }
+    int numExecuted = 0;
+    // 連続して未実行のコマンドが無かった RaspiCar の数
+    int numIdle = 0;
+    while (numIdle < processors.size()
+        && (maxCmds <= 0 || numExecuted < maxCmds)
+        && (timeBudget <= 0 || System.nanoTime() - startTime < timeBudget)) {
+      RaspiCarCmdProcessor processor = processors.get(idx);
+      if (processor.executeCmd(recorder)) {
+        ++numExecuted;
+        numIdle = 0;
+        nextCarIdToExecute = processor.getCarId() + 1;
       } else {
-        onCmdFinished.accept(false, new String[] {"Unknown Command"});  
+        ++numIdle;
       }
-    } catch (Throwable e) {
-      onCmdFinished.accept(false, new String[] {e.toString()});
+      idx = (idx + 1) % processors.size();
     }
+    processors.clear();
   }
 
-  /** RaspiCar を移動させるコマンドを処理する. */
-  private void move(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
-    String motion = cmd[1];
-    BiConsumer<Motion, Motion> onMoveFinished =
-        (oldMotion, newMotion) -> onCmdFinished.accept(true, new String[] {});
+  /**
+   * 全ての RaspiCar の未実行のコマンドを, 数と時間を制限せずに全て処理する.
+   * 記録したシミュレーションを再生する際に使用する.
+   */
+  void executeAllCmds() {
+    executeCmds(0, 0, null);
+  }
 
-    if (motion.equals(MoveMotion.STOP.name)) {
-      actions.add(() -> raspiCar.stopMoving(onMoveFinished));
-      return;
+  @Override
+  public void process(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
+    int carId = SimulationObjectManager.DEFAULT_CAR_ID;
+    if (cmd.length >= 2 && cmd[0].equals(CAR_PREFIX)) {
+      try {
+        carId = Integer.parseInt(cmd[1]);
+      } catch (NumberFormatException e) {
+        onCmdFinished.accept(false, new String[] {e.toString()});
+        return;
+      }
+      cmd = Arrays.copyOfRange(cmd, 2, cmd.length);
     }
-
-    float speed = Float.parseFloat(cmd[2]);
-    float time = Float.parseFloat(cmd[3]);
-    if (motion.equals(MoveMotion.FORWARD.name)) {
-      actions.add(() -> raspiCar.moveForward(speed, time, onMoveFinished));
-    } else if (motion.equals(MoveMotion.BACKWARD.name)) {
-      actions.add(() -> raspiCar.moveBackward(speed, time, onMoveFinished));
-    } else if (motion.equals(MoveMotion.CLOCKWISE.name)) {
-      actions.add(() -> raspiCar.turnRight(speed, time, onMoveFinished));
-    } else if (motion.equals(MoveMotion.COUNTER_CLOCKWISE.name)) {
-      actions.add(() -> raspiCar.turnLeft(speed, time, onMoveFinished));
-    } else {
-      onCmdFinished.accept(false, new String[] {"Invalid Move Command"});
+    RaspiCarCmdProcessor processor = getProcessor(carId);
+    if (processor == null) {
+      onCmdFinished.accept(false, new String[] {"Unknown Car ID"});
+      return;
     }
+    processor.process(cmd, onCmdFinished);
   }
 
-  /** 色を取得するコマンドを処理する. */
-  private void detectColor(BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
-    actions.offer(() -> {
-      Color color = raspiCar.detectColor();
-      int red = Math.clamp((int) (color.r * 255.0f), 0, 255);
-      int green = Math.clamp((int) (color.g * 255.0f), 0, 255);
-      int blue = Math.clamp((int) (color.b * 255.0f), 0, 255);
-      onCmdFinished.accept(
-          true, new String[] {String.valueOf(red), String.valueOf(green), String.valueOf(blue)});
-    });
-  }
-
-  /** 距離を計測するコマンドを処理する. */
-  private void measureDistance(BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
-    actions.offer(() -> {
-      float distance = raspiCar.measureDistance();
-      onCmdFinished.accept(true, new String[] {String.valueOf(distance)});
-    });
-  }  
-
-  /** RaspiCar の目を光らせるコマンドを処理する. */
-  private void lightEye(String[] cmd, BiConsumer<? super Boolean, ? super String[]> onCmdFinished) {
-    String eye = cmd[1];
-    int red = Integer.parseInt(cmd[2]);
-    int green = Integer.parseInt(cmd[3]);
-    int blue = Integer.parseInt(cmd[4]);
-    EyeColors eyeColors = toEyeColors(red, green, blue);
-    
-    if (eye.equals(Eye.LEFT.name)) {
-      actions.add(() -> {
-        raspiCar.setLeftEyeColor(eyeColors.left);
-        onCmdFinished.accept(true, new String[] {});
-      });
-    } else if (eye.equals(Eye.RIGHT.name)) {
-      actions.add(() -> {
-        raspiCar.setRightEyeColor(eyeColors.right);
-        onCmdFinished.accept(true, new String[] {});
-      });
-    } else if (eye.equals(Eye.BOTH.name)) {
-      actions.add(() -> {
-        raspiCar.setLeftEyeColor(eyeColors.left);
-        raspiCar.setRightEyeColor(eyeColors.right);
-        onCmdFinished.accept(true, new String[] {});
-      });
-    } else {
-      onCmdFinished.accept(false, new String[] {"Invalid Eye Option"});
+  @Override
+  public void process(
+      int carId,
+      int opcode,
+      int option,
+      float arg0,
+      float arg1,
+      float arg2,
+      BinaryCmdCallback onCmdFinished) {
+    RaspiCarCmdProcessor processor = getProcessor(carId);
+    if (processor == null) {
+      RaspiCarCmdProcessor.rejectBinaryCmd(onCmdFinished, BinaryCmd.ERR_UNKNOWN_CAR);
+      return;
     }
+    processor.process(opcode, option, arg0, arg1, arg2, onCmdFinished);
   }
 
-  /** 引数の色を RaspiCar の目に設定可能な形式の色に変換する. */
-  private EyeColors toEyeColors(int red, int green, int blue) {
-    Color left = null;
-    Color right = null;
-    if (!(red == -1 && green == -1 && blue == -1)) {
-      left = new Color(red / 255f, green / 255f, blue / 255f, 1.0f);
-      right = left;
+  /**
+   * {@code carId} で指定した RaspiCar のコマンドを処理するオブジェクトを取得する.
+   *
+   * @return {@code carId} に対応する RaspiCar が存在しない場合 null
+   */
+  private RaspiCarCmdProcessor getProcessor(int carId) {
+    RaspiCar car = simObjManager.getRaspiCar(carId).orElse(null);
+    if (car == null) {
+      return null;
     }
-    return new EyeColors(left, right);
+    // RaspiCar の ID は再利用されないので, ID が同じであれば制御対象の RaspiCar も同じである.
+    RaspiCarCmdProcessor processor = idToProcessor.computeIfAbsent(
+        carId, id -> new RaspiCarCmdProcessor(car, id, cbRegistry));
+    // 上で RaspiCar を取得した後に RaspiCar が削除されていた場合, 作成したオブジェクトは使わない.
+    if (simObjManager.getRaspiCar(carId).isEmpty()) {
+      idToProcessor.remove(carId, processor);
+      return null;
+    }
+    return processor;
   }
 
   @Override
   public void halt() {
-    actions.clear();
-    actions.add(() -> raspiCar.setLeftEyeColor(null));
-    actions.add(() -> raspiCar.setRightEyeColor(null));
-    actions.add(raspiCar::stopMoving);
-  }
-
-  @Override
-  public CallbackRegistry getCallbackRegistry() {
-    return cbRegistry;
+    for (RaspiCarCmdProcessor processor : idToProcessor.values()) {
+      processor.halt();
+    }
   }
 
-  /** コマンドのオペコード. */
-  private enum Opcode {
-    MOVE("move"),
-    DETECT_COLOR("detect-color"),
-    MEASURE_DISTANCE("measure-distance"),
-    LIGHT_EYE("light-eye");
-
-    public final String name;
-
-    private Opcode(String name) {
-      this.name = name;
-    }
-  
-    @Override
-    public String toString() {
-      return name;
+  /** {@code carId} で指定した RaspiCar の未実行のコマンドを破棄して, RaspiCar を停止させる. */
+  void halt(int carId) {
+    RaspiCarCmdProcessor processor = getProcessor(carId);
+    if (processor != null) {
+      processor.halt();
     }
   }
 
-  /** 移動の種類. */
-  private enum MoveMotion {
-    FORWARD("fwd"),
-    BACKWARD("bwd"),
-    CLOCKWISE("cw"),
-    COUNTER_CLOCKWISE("ccw"),
-    STOP("stop");
-
-    public final String name;
-
-    private MoveMotion(String name) {
-      this.name = name;
-    }
-  
-    @Override
-    public String toString() {
-      return name;
+  @Override
+  public CmdQueueMetrics getQueueMetrics() {
+    int queueDepth = 0;
+    int queueCapacity = 0;
+    long numExecuted = 0;
+    long numRejected = 0;
+    float weightedLatency = 0;
+    float maxLatency = 0;
+    for (RaspiCarCmdProcessor processor : idToProcessor.values()) {
+      CmdQueueMetrics metrics = processor.getQueueMetrics();
+      queueDepth += metrics.queueDepth();
+      queueCapacity += metrics.queueCapacity();
+      numExecuted += metrics.numExecuted();
+      numRejected += metrics.numRejected();
+      weightedLatency += metrics.avgLatency() * metrics.numExecuted();
+      maxLatency = Math.max(maxLatency, metrics.maxLatency());
     }
+    float avgLatency = (numExecuted == 0) ? 0 : weightedLatency / numExecuted;
+    return new CmdQueueMetrics(
+        queueDepth, queueCapacity, numExecuted, numRejected, avgLatency, maxLatency);
   }
 
-  /** 目の種類. */
-  private enum Eye {
-    LEFT("left"),
-    RIGHT("right"),
-    BOTH("both");
-
-    public final String name;
-
-    private Eye(String name) {
-      this.name = name;
+  @Override
+  public CmdLatencyMetrics getLatencyMetrics(int opcode) {
+    if (opcode < 0 || opcode >= BinaryCmd.NUM_OPCODES) {
+      return new CmdLatencyMetrics(0, 0, 0);
     }
-  
-    @Override
-    public String toString() {
-      return name;
+    long numExecuted = 0;
+    double totalLatency = 0;
+    float maxLatency = 0;
+    for (RaspiCarCmdProcessor processor : idToProcessor.values()) {
+      CmdLatencyMetrics metrics = processor.getLatencyMetrics(opcode);
+      numExecuted += metrics.numExecuted();
+      totalLatency += (double) metrics.avgLatency() * metrics.numExecuted();
+      maxLatency = Math.max(maxLatency, metrics.maxLatency());
     }
+    float avgLatency = (numExecuted == 0) ? 0 : (float) (totalLatency / numExecuted);
+    return new CmdLatencyMetrics(numExecuted, avgLatency, maxLatency);
   }
 
-  /** 目の色を格納するレコード. */
-  private record EyeColors(Color left, Color right) {}
+  @Override
+  public CallbackRegistry getCallbackRegistry() {
+    return cbRegistry;
+  }
 
   /** コマンドプロセッサに対するイベントハンドラの登録および削除操作を提供するクラス. */
-  public class CallbackRegistryImpl implements CallbackRegistry {
+  public static class CallbackRegistryImpl implements CallbackRegistry {
     
     /** コマンドを処理する直前に呼ばれるイベントハンドラを管理するオブジェクト. */
-    private final ConsumerInvoker<CmdProcessingEvent> onCmdProcessingInvoker =
+    final ConsumerInvoker<CmdProcessingEvent> onCmdProcessingInvoker =
+        new ConcurrentConsumerInvoker<>();
+
+    /** 数値で表現されたコマンドを処理する直前に呼ばれるイベントハンドラを管理するオブジェクト. */
+    final ConsumerInvoker<BinaryCmdProcessingEvent> onBinaryCmdProcessingInvoker =
         new ConcurrentConsumerInvoker<>();
 
     @Override
     public ConsumerInvoker<CmdProcessingEvent>.Registry getOnCmdProcessing() {
       return onCmdProcessingInvoker.getRegistry();
     }
+
+    @Override
+    public ConsumerInvoker<BinaryCmdProcessingEvent>.Registry getOnBinaryCmdProcessing() {
+      return onBinaryCmdProcessingInvoker.getRegistry();
+    }
   }
 }
@@ -17,6 +17,12 @@ public class BhSimConstants {
     public static final float X2_SKIN_DPI_THRESHOLD = 122;
   }
 
+  /** シミュレーション関連のパラメータ. */
+  public static class Simulation {
+    /** 1 回の距離センサの走査で計測可能な方向の数の最大値. */
+    public static final int MAX_SWEEP_RAYS = 360;
+  }
+
   /** ファイルパス関連のパラメータ. */
   public static class Path {
     /** ディレクトリ名のリスト. */
@@ -33,6 +39,8 @@ public class BhSimConstants {
       public static final String LANGUAGE_FILE = "BhSimulator.json";
       /** 設定ファイルの名前. */
       public static final String BH_SIM_SETTINGS_JSON = "BhSimSettings.json";
+      /** シミュレーション空間の状態を保存するファイルの既定の名前. */
+      public static final String SCENE_SNAPSHOT = "Scene.bhsn";
     }
   }
 }
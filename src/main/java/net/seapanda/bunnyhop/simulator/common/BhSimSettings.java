@@ -25,6 +25,71 @@ public class BhSimSettings {
 
   public static volatile String language = "Japanese";
 
+  /** 物理シミュレーション関連のパラメータ. */
+  public static class Simulation {
+    /** 実時間に対するシミュレーション時間の進む速さの倍率. */
+    public static volatile float timeScale = 1.0f;
+    /**
+     * 1 フレームごとに実行する物理シミュレーションのステップ数.
+     * 1 以上の場合, 実時間によらずフレームごとにこの回数だけシミュレーションを進める.
+     * 0 以下の場合, 経過した実時間に {@link #timeScale} を掛けた時間だけシミュレーションを進める.
+     */
+    public static volatile int stepsPerFrame = 0;
+    /** シミュレーション空間に追加可能な 3D モデルの最大数. */
+    public static volatile int maxObjects = 30;
+    /**
+     * 物理シミュレーション空間の種類.
+     * "sequential" の場合, 衝突判定と拘束の解決を 1 つのスレッドで行う.
+     * "multithreaded" の場合, Bullet のタスクスケジューラが利用可能であれば複数のスレッドで行う.
+     * "multithreaded" の物理シミュレーション空間は同じ入力に対して同じ結果になることが保証されないので,
+     * シミュレーションを記録または再生する場合は "sequential" の物理シミュレーション空間を使う.
+     */
+    public static volatile String worldType = "sequential";
+    /** "multithreaded" の物理シミュレーション空間で使うスレッドの数. 0 以下の場合は CPU のコア数とする. */
+    public static volatile int physicsThreads = 0;
+    /**
+     * 静止した箱と電灯を休止状態にして物理演算の対象から外す場合 true.
+     * 休止状態の箱と電灯は, 他のオブジェクトとの接触や移動によって再び物理演算の対象となる.
+     */
+    public static volatile boolean allowSleeping = true;
+    /** 高速で移動する箱, 電灯, RaspiCar が薄い壁をすり抜けないように連続衝突判定を行う場合 true. */
+    public static volatile boolean continuousCollision = false;
+    /**
+     * 物理シミュレーションの 1 ステップで進む時間. (単位: seconds)
+     * 1 / 120 秒から 1 / 30 秒の範囲に制限される.
+     * 大きくするとシミュレーションの負荷が下がるが, 箱や電灯の衝突の精度も下がる.
+     * シミュレーション空間を作成するときに 1 度だけ読み込まれ, その後の変更は反映されない.
+     */
+    public static volatile float physicsTimeStep = 1f / 120f;
+    /**
+     * RaspiCar をキャタピラと接触面の間の摩擦で動かす場合 true.
+     * この場合, 動き出しと停止時に加減速するので, 移動距離は (速度 * 時間) と厳密には一致せず,
+     * 接触面の摩擦や押している物体の重さによって変わる.
+     * false の場合, 物理シミュレーションの更新ごとに RaspiCar の位置と姿勢を直接書き換えて動かす.
+     * RaspiCar を作成するときに読み込まれる.
+     */
+    public static volatile boolean velocityDrive = true;
+  }
+
+  /** シミュレータ制御用コマンド関連のパラメータ. */
+  public static class Command {
+    /** 保持可能な未実行のコマンドの最大数. これを超えて受け付けたコマンドは失敗する. */
+    public static volatile int queueCapacity = 1024;
+    /** 1 フレームごとに実行するコマンドの最大数. 0 以下の場合は制限しない. */
+    public static volatile int maxCmdsPerFrame = 256;
+    /** 1 フレームごとにコマンドの実行に使う時間の上限. 0 以下の場合は制限しない. (単位: seconds) */
+    public static volatile float timeBudgetPerFrame = 0.005f;
+  }
+
+  /** 描画関連のパラメータ. */
+  public static class Rendering {
+    /**
+     * 同じモデルを持つ 3D モデルをインスタンス描画でまとめて描画する場合 true.
+     * true の場合, OpenGL 3.2 のコンテキストを作成する.
+     */
+    public static volatile boolean instancing = false;
+  }
+
   /** UI 関連のパラメータ. */
   public static class Ui {
     /** UI コンポーネントの大きさの倍率. */
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.geometry;
+
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+
+/**
+ * 3D モデルのローカル座標系での境界球を保持し, ワールド座標系での境界球を求めるクラス.
+ *
+ * <p>境界球はコンストラクタで 1 度だけ計算する.
+ * ワールド座標系での境界球は, 3D モデルの姿勢行列で中心を変換し, 最大の拡大率で半径を拡大して求める.
+ *
+ * @author K.Koike
+ */
+public class BoundingSphere {
+
+  /** ローカル座標系での境界球の中心. */
+  private final Vector3 localCenter = new Vector3();
+  /** ローカル座標系での境界球の半径. */
+  private final float localRadius;
+  private final Vector3 tmpScale = new Vector3();
+
+  /**
+   * コンストラクタ.
+   *
+   * @param instances 境界球で囲む 3D モデル. 全て同じ姿勢行列を持つ必要がある.
+   */
+  public BoundingSphere(ModelInstance... instances) {
+    var bounds = new BoundingBox().inf();
+    var tmp = new BoundingBox();
+    for (ModelInstance instance : instances) {
+      bounds.ext(instance.calculateBoundingBox(tmp));
+    }
+    bounds.getCenter(localCenter);
+    localRadius = bounds.getDimensions(new Vector3()).len() * 0.5f;
+  }
+
+  /**
+   * ワールド座標系での境界球を求める.
+   *
+   * @param transform 3D モデルの姿勢行列
+   * @param center 境界球の中心 (ワールド座標) の格納先
+   * @return 境界球の半径
+   */
+  public float toWorld(Matrix4 transform, Vector3 center) {
+    center.set(localCenter).mul(transform);
+    transform.getScale(tmpScale);
+    return localRadius * Math.max(tmpScale.x, Math.max(tmpScale.y, tmpScale.z));
+  }
+}
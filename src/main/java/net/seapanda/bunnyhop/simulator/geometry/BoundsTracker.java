@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.geometry;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import java.util.List;
+
+/**
+ * オブジェクトの位置が指定した範囲の外にあるかどうかを記録するクラス.
+ *
+ * <p>範囲の外にあるオブジェクトを別に記録しておくので, 全てのオブジェクトの位置を調べずにそれらを取得できる.
+ * オブジェクトの位置が変わったときは {@link #update} を呼んで, 記録を更新すること.
+ * このクラスはスレッドセーフではない.
+ *
+ * @param <T> 位置を記録するオブジェクトの型
+ * @author K.Koike
+ */
+public class BoundsTracker<T> {
+
+  /** 範囲内とみなす領域の最小の座標. */
+  private final Vector3 boundsMin = new Vector3();
+  /** 範囲内とみなす領域の最大の座標. */
+  private final Vector3 boundsMax = new Vector3();
+  /** 記録しているオブジェクトと, そのオブジェクトが範囲外にあるかどうかの対応. */
+  private final ObjectMap<T, Boolean> objToOutOfBounds = new ObjectMap<>();
+  /** 範囲外にあるオブジェクト. */
+  private final Array<T> outOfBounds = new Array<>(false, 16);
+
+  /**
+   * コンストラクタ.
+   *
+   * @param boundsMin 範囲内とみなす領域の最小の座標
+   * @param boundsMax 範囲内とみなす領域の最大の座標
+   */
+  public BoundsTracker(Vector3 boundsMin, Vector3 boundsMax) {
+    this.boundsMin.set(boundsMin);
+    this.boundsMax.set(boundsMax);
+  }
+
+  /**
+   * {@code obj} の記録を始める.
+   * {@code obj} が既に記録されている場合は, その記録を更新する.
+   *
+   * @param obj 記録するオブジェクト
+   * @param pos {@code obj} の位置
+   */
+  public void add(T obj, Vector3 pos) {
+    if (!objToOutOfBounds.containsKey(obj)) {
+      objToOutOfBounds.put(obj, Boolean.FALSE);
+    }
+    update(obj, pos);
+  }
+
+  /**
+   * {@code obj} の記録を新しい位置に合わせて更新する.
+   * {@code obj} が記録されていない場合は何もしない.
+   *
+   * @param obj 記録を更新するオブジェクト
+   * @param pos {@code obj} の新しい位置
+   */
+  public void update(T obj, Vector3 pos) {
+    Boolean wasOutOfBounds = objToOutOfBounds.get(obj);
+    if (wasOutOfBounds == null) {
+      return;
+    }
+    boolean isOutOfBounds = !isInBounds(pos);
+    if (isOutOfBounds == wasOutOfBounds) {
+      return;
+    }
+    objToOutOfBounds.put(obj, isOutOfBounds);
+    if (isOutOfBounds) {
+      outOfBounds.add(obj);
+    } else {
+      outOfBounds.removeValue(obj, true);
+    }
+  }
+
+  /** {@code obj} の記録をやめる. */
+  public void remove(T obj) {
+    Boolean wasOutOfBounds = objToOutOfBounds.remove(obj);
+    if (Boolean.TRUE.equals(wasOutOfBounds)) {
+      outOfBounds.removeValue(obj, true);
+    }
+  }
+
+  /**
+   * コンストラクタで指定した範囲の外にあるオブジェクトを {@code storage} に追加する.
+   *
+   * @param storage 範囲の外にあるオブジェクトを格納するリスト
+   */
+  public void getOutOfBounds(List<? super T> storage) {
+    for (int i = 0; i < outOfBounds.size; ++i) {
+      storage.add(outOfBounds.get(i));
+    }
+  }
+
+  /** {@code pos} が範囲内にある場合 true を返す. */
+  private boolean isInBounds(Vector3 pos) {
+    return boundsMin.x <= pos.x && pos.x <= boundsMax.x
+        && boundsMin.y <= pos.y && pos.y <= boundsMax.y
+        && boundsMin.z <= pos.z && pos.z <= boundsMax.z;
+  }
+}
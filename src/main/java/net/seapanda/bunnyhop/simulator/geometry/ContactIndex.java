@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.seapanda.bunnyhop.simulator.geometry;
+
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import java.util.Arrays;
+import java.util.List;
+import net.seapanda.bunnyhop.simulator.obj.CollisionGroup;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
+
+/**
+ * 衝突判定オブジェクト同士の接触状態を記録するクラス.
+ *
+ * <p>登録した衝突判定オブジェクトには {@link btCollisionObject#setUserValue} で ID を割り当て,
+ * 接触の開始と終了のたびに, 接触相手の衝突判定グループごとの接触数を更新する.
+ * 接触数の取得はオブジェクトを作成せずに定数時間で行える.
+ * 同じ {@link Collidable} に属する衝突判定オブジェクト同士の接触は記録しない.
+ *
+ * @author K.Koike
+ */
+public class ContactIndex {
+
+  /** 衝突判定オブジェクトが登録されていないことを表す ID. */
+  private static final int NO_ID = 0;
+  /** 実体のあるオブジェクトとの接触数を格納する位置. */
+  private static final int SOLID = CollisionGroup.values().length;
+  /** 1 つの衝突判定オブジェクトが持つ接触数の個数. */
+  private static final int NUM_COUNTERS = SOLID + 1;
+
+  /** ID と衝突判定オブジェクトを持つ {@link Collidable} の対応. */
+  private Collidable[] owners = new Collidable[64];
+  /** ID と衝突判定オブジェクトが属する衝突判定グループの順序値の対応. */
+  private int[] groups = new int[owners.length];
+  /** ID と衝突判定オブジェクトが実体のあるオブジェクトかどうかの対応. */
+  private boolean[] isSolid = new boolean[owners.length];
+  /** ID ごとの接触数. ID * {@link #NUM_COUNTERS} から {@link #NUM_COUNTERS} 個の要素を使う. */
+  private int[] numContacts = new int[owners.length * NUM_COUNTERS];
+  /** ID と (接触相手の ID -> 接触数) のマップの対応. */
+  private IntIntMap[] partners = new IntIntMap[owners.length];
+  /** 再利用可能な ID. */
+  private final IntArray freeIds = new IntArray();
+  /** まだ使われたことのない ID の最小値. */
+  private int nextId = NO_ID + 1;
+
+  /**
+   * 接触状態を記録する衝突判定オブジェクトを登録する.
+   * {@code obj} の {@code userData} には, {@code obj} を持つ {@link Collidable} が設定されていなければならない.
+   *
+   * @param obj 登録する衝突判定オブジェクト
+   * @param group {@code obj} が属する衝突判定グループ
+   * @param solid {@code obj} が, 他のオブジェクトを支えられる実体のあるオブジェクトの場合 true
+   */
+  public void register(btCollisionObject obj, CollisionGroup group, boolean solid) {
+    if (!(obj.userData instanceof Collidable owner) || obj.getUserValue() != NO_ID) {
+      return;
+    }
+    int id = freeIds.notEmpty() ? freeIds.pop() : nextId++;
+    if (id >= owners.length) {
+      grow(owners.length * 2);
+    }
+    owners[id] = owner;
+    groups[id] = group.ordinal();
+    isSolid[id] = solid;
+    obj.setUserValue(id);
+  }
+
+  /**
+   * {@link #register} で登録した衝突判定オブジェクトの登録を解除する.
+   * {@code obj} と他のオブジェクトの接触は全て終了したものとして扱う.
+   */
+  public void unregister(btCollisionObject obj) {
+    int id = obj.getUserValue();
+    if (id == NO_ID) {
+      return;
+    }
+    if (partners[id] != null) {
+      for (IntIntMap.Entry partner : partners[id].entries()) {
+        count(partner.key, id, -partner.value);
+      }
+      partners[id].clear();
+    }
+    Arrays.fill(numContacts, id * NUM_COUNTERS, (id + 1) * NUM_COUNTERS, 0);
+    owners[id] = null;
+    obj.setUserValue(NO_ID);
+    freeIds.add(id);
+  }
+
+  /** {@code id0} と {@code id1} の衝突判定オブジェクトの接触を記録する. */
+  void onContactStarted(int id0, int id1) {
+    if (isRecordable(id0, id1)) {
+      count(id0, id1, 1);
+      count(id1, id0, 1);
+    }
+  }
+
+  /** {@code id0} と {@code id1} の衝突判定オブジェクトの接触の終了を記録する. */
+  void onContactEnded(int id0, int id1) {
+    if (isRecordable(id0, id1)) {
+      count(id0, id1, -1);
+      count(id1, id0, -1);
+    }
+  }
+
+  /**
+   * {@code obj} と, {@code group} に属するオブジェクトとの接触数を取得する.
+   *
+   * @return {@code obj} と {@code group} に属するオブジェクトとの接触数.
+   *         {@code obj} が登録されていない場合は 0.
+   */
+  public int getNumContacts(btCollisionObject obj, CollisionGroup group) {
+    return numContacts[obj.getUserValue() * NUM_COUNTERS + group.ordinal()];
+  }
+
+  /**
+   * {@code obj} と, 実体のあるオブジェクトとの接触数を取得する.
+   *
+   * @return {@code obj} と実体のあるオブジェクトとの接触数. {@code obj} が登録されていない場合は 0.
+   */
+  public int getNumSolidContacts(btCollisionObject obj) {
+    return numContacts[obj.getUserValue() * NUM_COUNTERS + SOLID];
+  }
+
+  /**
+   * {@code owner} が持つ衝突判定オブジェクトと接触している {@link Collidable} を {@code storage} に格納する.
+   * 既に {@code storage} に含まれるものは格納しない.
+   */
+  public void getContactedCollidables(Collidable owner, List<? super Collidable> storage) {
+    for (int id = NO_ID + 1; id < nextId; ++id) {
+      if (owners[id] != owner || partners[id] == null) {
+        continue;
+      }
+      for (IntIntMap.Entry partner : partners[id].entries()) {
+        if (!storage.contains(owners[partner.key])) {
+          storage.add(owners[partner.key]);
+        }
+      }
+    }
+  }
+
+  /** 接触を記録する対象となる ID のペアである場合 true を返す. */
+  private boolean isRecordable(int id0, int id1) {
+    return id0 != NO_ID
+        && id1 != NO_ID
+        && owners[id0] != null
+        && owners[id1] != null
+        && owners[id0] != owners[id1];
+  }
+
+  /** {@code id} の衝突判定オブジェクトの, {@code partnerId} のオブジェクトとの接触数に {@code diff} を加える. */
+  private void count(int id, int partnerId, int diff) {
+    int base = id * NUM_COUNTERS;
+    numContacts[base + groups[partnerId]] += diff;
+    if (isSolid[partnerId]) {
+      numContacts[base + SOLID] += diff;
+    }
+    if (partners[id] == null) {
+      partners[id] = new IntIntMap();
+    }
+    if (partners[id].getAndIncrement(partnerId, 0, diff) + diff == 0) {
+      partners[id].remove(partnerId, 0);
+    }
+  }
+
+  /** ID を格納する配列の長さを {@code len} にする. */
+  private void grow(int len) {
+    owners = Arrays.copyOf(owners, len);
+    groups = Arrays.copyOf(groups, len);
+    isSolid = Arrays.copyOf(isSolid, len);
+    numContacts = Arrays.copyOf(numContacts, len * NUM_COUNTERS);
+    partners = Arrays.copyOf(partners, len);
+  }
+}
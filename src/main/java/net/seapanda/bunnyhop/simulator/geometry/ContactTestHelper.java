@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.geometry;
+
+import com.badlogic.gdx.physics.bullet.collision.ContactResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObjectWrapper;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionWorld;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.List;
+import net.seapanda.bunnyhop.simulator.obj.CollisionGroup;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
+
+/**
+ * 特定の衝突判定オブジェクトと接触している {@link Collidable} を調べるクラス.
+ *
+ * <p>{@link btCollisionWorld#performDiscreteCollisionDetection()} と異なり,
+ * ブロードフェーズで対象の衝突判定オブジェクトと AABB が重なり,
+ * かつ, 指定したグループに属するオブジェクトとの間でのみ詳細な衝突判定を行う.
+ *
+ * @author K.Koike
+ */
+public class ContactTestHelper implements Disposable {
+
+  private final Callback callback = new Callback();
+
+  /**
+   * コンストラクタ.
+   *
+   * @param collideTo 接触判定を行う対象のグループ
+   */
+  public ContactTestHelper(CollisionGroup... collideTo) {
+    int mask = CollisionGroup.mask(collideTo);
+    callback.setCollisionFilterGroup(mask);
+    callback.setCollisionFilterMask(mask);
+  }
+
+  /**
+   * {@code obj} と接触している {@link Collidable} を {@code storage} に格納する.
+   * {@code obj} 自身が属する {@link Collidable} と, 既に {@code storage} に含まれるものは格納しない.
+   *
+   * @param world {@code obj} と接触判定を行うオブジェクトを含む {@link btCollisionWorld}
+   * @param obj 接触判定を行う衝突判定オブジェクト. {@code world} に追加されている必要はない.
+   * @param storage {@code obj} と接触している {@link Collidable} を格納するリスト
+   */
+  public void getContactedCollidables(
+      btCollisionWorld world, btCollisionObject obj, List<? super Collidable> storage) {
+    callback.self = obj;
+    callback.storage = storage;
+    world.contactTest(obj, callback);
+    callback.self = null;
+    callback.storage = null;
+  }
+
+  @Override
+  public void dispose() {
+    callback.dispose();
+  }
+
+  /** 接触点ごとに呼ばれて, 接触相手の {@link Collidable} を集めるコールバック. */
+  private static class Callback extends ContactResultCallback {
+    private btCollisionObject self;
+    private List<? super Collidable> storage;
+
+    @Override
+    public float addSingleResult(
+        btManifoldPoint cp,
+        btCollisionObjectWrapper colObj0Wrap,
+        int partId0,
+        int index0,
+        btCollisionObjectWrapper colObj1Wrap,
+        int partId1,
+        int index1) {
+      add(colObj0Wrap.getCollisionObject());
+      add(colObj1Wrap.getCollisionObject());
+      return 0f;
+    }
+
+    private void add(btCollisionObject obj) {
+      if (obj == self || obj.userData == self.userData) {
+        return;
+      }
+      if (obj.userData instanceof Collidable collidable && !storage.contains(collidable)) {
+        storage.add(collidable);
+      }
+    }
+  }
+}
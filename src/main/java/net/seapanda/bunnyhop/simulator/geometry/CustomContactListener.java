@@ -17,33 +17,84 @@
 package net.seapanda.bunnyhop.simulator.geometry;
 
 import com.badlogic.gdx.physics.bullet.collision.ContactListener;
-import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
 
 /**
  * オブジェクトの衝突時の処理を定義したクラス.
  *
+ * <p>接触の開始と終了を {@link ContactIndex} に記録する.
+ * 接触した衝突判定オブジェクトは {@link ContactIndex} が割り当てた ID で受け取るので,
+ * コールバックのたびに Java のオブジェクトを作成しない.
+ * 接触点の追加と更新は, コンタクトコールバックフィルタが一致した衝突判定オブジェクトを持つ {@link Collidable} に通知する.
+ *
+ * <p>マルチスレッドの物理シミュレーション空間では, 各メソッドが Bullet のワーカスレッドから同時に呼ばれる.
+ * {@link ContactIndex} と {@link Collidable#onContactPointUpdated} の処理はスレッドセーフではないので,
+ * 各メソッドはこのオブジェクトで同期して 1 つずつ実行する.
+ *
  * @author K.Koike
  */
 public class CustomContactListener extends ContactListener {
 
+  private final ContactIndex contactIndex;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param contactIndex 接触の開始と終了を記録するオブジェクト
+   */
+  public CustomContactListener(ContactIndex contactIndex) {
+    this.contactIndex = contactIndex;
+  }
+
   @Override
-  public void onContactStarted(btPersistentManifold manifold) {
-    if (manifold.getBody0().userData instanceof Collidable obj) {
-      obj.onContactStarted(manifold, manifold.getBody0(), manifold.getBody1());
-    }
-    if (manifold.getBody1().userData instanceof Collidable obj) {
-      obj.onContactStarted(manifold, manifold.getBody1(), manifold.getBody0());
-    }
+  public synchronized void onContactStarted(int userValue0, int userValue1) {
+    contactIndex.onContactStarted(userValue0, userValue1);
   }
 
   @Override
-  public void onContactEnded(btPersistentManifold manifold) {
-    if (manifold.getBody0().userData instanceof Collidable obj) {
-      obj.onContactEnded(manifold, manifold.getBody0(), manifold.getBody1());
+  public synchronized void onContactEnded(int userValue0, int userValue1) {
+    contactIndex.onContactEnded(userValue0, userValue1);
+  }
+
+  @Override
+  public synchronized boolean onContactAdded(
+      btManifoldPoint cp,
+      btCollisionObject colObj0,
+      int partId0,
+      int index0,
+      boolean match0,
+      btCollisionObject colObj1,
+      int partId1,
+      int index1,
+      boolean match1) {
+    notifyContactPointUpdated(cp, colObj0, match0, colObj1, match1);
+    return true;
+  }
+
+  @Override
+  public synchronized void onContactProcessed(
+      btManifoldPoint cp,
+      btCollisionObject colObj0,
+      boolean match0,
+      btCollisionObject colObj1,
+      boolean match1) {
+    notifyContactPointUpdated(cp, colObj0, match0, colObj1, match1);
+  }
+
+  /** フィルタが一致した衝突判定オブジェクトを持つ {@link Collidable} に接触点の追加または更新を通知する. */
+  private static void notifyContactPointUpdated(
+      btManifoldPoint cp,
+      btCollisionObject colObj0,
+      boolean match0,
+      btCollisionObject colObj1,
+      boolean match1) {
+    if (match0 && colObj0.userData instanceof Collidable obj) {
+      obj.onContactPointUpdated(cp, colObj0, colObj1, true);
     }
-    if (manifold.getBody1().userData instanceof Collidable obj) {
-      obj.onContactEnded(manifold, manifold.getBody1(), manifold.getBody0());
+    if (match1 && colObj1.userData instanceof Collidable obj) {
+      obj.onContactPointUpdated(cp, colObj1, colObj0, false);
     }
   }
 }
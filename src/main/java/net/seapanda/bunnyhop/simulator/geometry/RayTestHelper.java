@@ -23,13 +23,12 @@ import com.badlogic.gdx.physics.bullet.collision.btCollisionObjectConstArray;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionWorld;
 import com.badlogic.gdx.physics.bullet.collision.btTriangleRaycastCallback;
 import com.badlogic.gdx.physics.bullet.linearmath.btScalarArray;
+import com.badlogic.gdx.physics.bullet.linearmath.btVector3Array;
+import com.badlogic.gdx.utils.Disposable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import net.seapanda.bunnyhop.simulator.obj.CollisionGroup;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
 
@@ -38,9 +37,13 @@ import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
  *
  * @author K.Koike
  */
-public class RayTestHelper {
+public class RayTestHelper implements Disposable {
 
   private final btCollisionWorld world;
+  /** {@link #getIntersectedCollidable} で使い回す ray test 用のオブジェクト. */
+  private RayQuery sharedQuery;
+  /** {@link #getIntersectedCollidable} で使い回す ray test の結果を格納するオブジェクト. */
+  private final RayHit sharedHit = new RayHit();
 
   public RayTestHelper(btCollisionWorld world) {
     this.world = world;
@@ -100,37 +103,32 @@ public class RayTestHelper {
    */
   public Optional<RayTestResult<Collidable>> getIntersectedCollidable(
       Vector3 rayStart, Vector3 rayEnd, Config config) {
-    var result = new AllHitsRayResultCallback(rayStart, rayEnd);
-    result.setFlags(btTriangleRaycastCallback.EFlags.kF_FilterBackfaces);
-    result.setCollisionFilterGroup(config.mask);
-    result.setCollisionFilterMask(config.mask);
-    world.rayTest(rayStart, rayEnd, result);
-    return getRayTestResult(result, config);
-  }
-
-  private Optional<RayTestResult<Collidable>> getRayTestResult(AllHitsRayResultCallback result,
-      Config config) {
-    if (!result.hasHit()) {
+    if (sharedQuery == null) {
+      sharedQuery = new RayQuery(world, new Config());
+    }
+    if (!sharedQuery.test(rayStart, rayEnd, config, sharedHit)) {
       return Optional.empty();
     }
-    // 配列のインデックスを交点までの距離に応じて並べ替える.
-    btScalarArray distanceList = result.getHitFractions();
-    List<Integer> indices = IntStream.iterate(0, n -> n + 1).limit(distanceList.size()).boxed()
-        .sorted((a, b) -> Float.compare(distanceList.atConst(a), distanceList.atConst(b)))
-        .collect(Collectors.toCollection(ArrayList::new));
-
-    btCollisionObjectConstArray collisionObjects = result.getCollisionObjects();
-    for (int i : indices) {
-      if (collisionObjects.atConst(i).userData instanceof Collidable obj) {
-        if (config.classesToExclude.contains(obj.getClass())
-            || config.objsToExclude.contains(obj)) {
-          continue;
-        }
-        var pos = new Vector3().set(result.getHitPointWorld().at(i));
-        return Optional.of(new RayTestResult<Collidable>(obj, pos));
-      }
+    return Optional.of(
+        new RayTestResult<Collidable>(sharedHit.intersected, new Vector3(sharedHit.pos)));
+  }
+
+  /**
+   * 同じ設定で繰り返し ray test を行うためのオブジェクトを作成する.
+   * 作成したオブジェクトが不要になったら {@link RayQuery#dispose()} を呼ぶこと.
+   *
+   * @param config ray test の設定を格納したオブジェクト
+   * @return ray test を行うためのオブジェクト
+   */
+  public RayQuery createQuery(Config config) {
+    return new RayQuery(world, config);
+  }
+
+  @Override
+  public void dispose() {
+    if (sharedQuery != null) {
+      sharedQuery.dispose();
     }
-    return Optional.empty();
   }
 
   /**
@@ -142,6 +140,109 @@ public class RayTestHelper {
   public record RayTestResult<E extends Collidable>(E intersected, Vector3 pos) {
   }
 
+  /**
+   * ray test の結果を格納するクラス.
+   * 結果を格納するオブジェクトを使い回して, ray test ごとのオブジェクトの生成を避けるために使う.
+   */
+  public static class RayHit {
+    /** ray と交差した 3D モデル. 何とも交差しなかった場合は null. */
+    public Collidable intersected;
+    /** 交差点. */
+    public final Vector3 pos = new Vector3();
+    /** 線分の長さに対する, 線分の始点から交差点までの距離の割合. */
+    public float fraction;
+  }
+
+  /**
+   * ray test を行うためのネイティブオブジェクトを使い回して, 最も線分の始点に近い交差点を求めるクラス.
+   *
+   * <p>{@link #test} は Java のオブジェクトを生成しない.
+   * {@link Config} で除外する 3D モデルの判定は {@link RayTestHelper#getIntersectedCollidable} と同じ.
+   */
+  public static class RayQuery implements Disposable {
+
+    private final btCollisionWorld world;
+    private final Config config;
+    private final AllHitsRayResultCallback callback =
+        new AllHitsRayResultCallback(Vector3.Zero, Vector3.Zero);
+    // 以下はコールバックオブジェクトのメンバを参照するので, 取得するたびに作り直す必要はない.
+    private final btCollisionObjectConstArray collisionObjects = callback.getCollisionObjects();
+    private final btScalarArray hitFractions = callback.getHitFractions();
+    private final btVector3Array hitPoints = callback.getHitPointWorld();
+    private final btVector3Array hitNormals = callback.getHitNormalWorld();
+
+    /**
+     * コンストラクタ.
+     *
+     * @param world ray test を行う {@link btCollisionWorld}
+     * @param config ray test の設定を格納したオブジェクト
+     */
+    public RayQuery(btCollisionWorld world, Config config) {
+      this.world = world;
+      this.config = config;
+      callback.setFlags(btTriangleRaycastCallback.EFlags.kF_FilterBackfaces);
+    }
+
+    /**
+     * 引数で指定した線分と交差する {@link Collidable} のうち, 交差点が線分の始点に最も近いものを求める.
+     *
+     * @param rayStart 線分の始点の座標
+     * @param rayEnd 線分の終点の座標
+     * @param out 結果を格納するオブジェクト. 何とも交差しなかった場合は {@code out.intersected} が null になる.
+     * @return 線分が何かと交差した場合 true
+     */
+    public boolean test(Vector3 rayStart, Vector3 rayEnd, RayHit out) {
+      return test(rayStart, rayEnd, config, out);
+    }
+
+    private boolean test(Vector3 rayStart, Vector3 rayEnd, Config config, RayHit out) {
+      reset(rayStart, rayEnd, config);
+      world.rayTest(rayStart, rayEnd, callback);
+      out.intersected = null;
+      out.fraction = Float.MAX_VALUE;
+      if (!callback.hasHit()) {
+        return false;
+      }
+      int numHits = hitFractions.size();
+      for (int i = 0; i < numHits; ++i) {
+        float fraction = hitFractions.atConst(i);
+        if (fraction >= out.fraction) {
+          continue;
+        }
+        if (collisionObjects.atConst(i).userData instanceof Collidable obj
+            && !config.excludes(obj)) {
+          out.intersected = obj;
+          out.fraction = fraction;
+        }
+      }
+      if (out.intersected == null) {
+        return false;
+      }
+      // Bullet も交差点を線分の始点と終点の補間で求めている.
+      out.pos.set(rayStart).lerp(rayEnd, out.fraction);
+      return true;
+    }
+
+    /** 前回の ray test の結果を消して, 次の ray test の準備をする. */
+    private void reset(Vector3 rayStart, Vector3 rayEnd, Config config) {
+      collisionObjects.clear();
+      hitFractions.clear();
+      hitPoints.clear();
+      hitNormals.clear();
+      callback.setCollisionObject(null);
+      callback.setClosestHitFraction(1f);
+      callback.setRayFromWorld(rayStart);
+      callback.setRayToWorld(rayEnd);
+      callback.setCollisionFilterGroup(config.mask);
+      callback.setCollisionFilterMask(config.mask);
+    }
+
+    @Override
+    public void dispose() {
+      callback.dispose();
+    }
+  }
+
   /** ray test の設定を格納するクラス. */
   public static class Config {
     private Collection<Class<? extends Collidable>> classesToExclude = new ArrayList<>();
@@ -168,5 +269,10 @@ public class RayTestHelper {
       }
       return this;
     }
+
+    /** {@code obj} が ray test の衝突判定から除外される場合 true を返す. */
+    private boolean excludes(Collidable obj) {
+      return classesToExclude.contains(obj.getClass()) || objsToExclude.contains(obj);
+    }
   }
 }
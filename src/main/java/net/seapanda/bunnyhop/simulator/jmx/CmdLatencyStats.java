@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor;
+
+/**
+ * {@link CmdLatencyStatsMxBean} の実装.
+ * 値は参照されるたびに {@link SimulatorCmdProcessor#getLatencyMetrics(int)} から取得する.
+ *
+ * @author K.Koike
+ */
+public class CmdLatencyStats implements CmdLatencyStatsMxBean {
+
+  private final SimulatorCmdProcessor cmdProcessor;
+  private final int opcode;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param cmdProcessor 統計情報を取得するコマンドプロセッサ
+   * @param opcode 統計情報を取得するコマンドの種類
+   */
+  CmdLatencyStats(SimulatorCmdProcessor cmdProcessor, int opcode) {
+    this.cmdProcessor = cmdProcessor;
+    this.opcode = opcode;
+  }
+
+  @Override
+  public long getNumExecuted() {
+    return cmdProcessor.getLatencyMetrics(opcode).numExecuted();
+  }
+
+  @Override
+  public float getAvgLatency() {
+    return cmdProcessor.getLatencyMetrics(opcode).avgLatency();
+  }
+
+  @Override
+  public float getMaxLatency() {
+    return cmdProcessor.getLatencyMetrics(opcode).maxLatency();
+  }
+}
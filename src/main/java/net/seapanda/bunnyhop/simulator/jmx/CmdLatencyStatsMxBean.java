@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import javax.management.MXBean;
+
+/**
+ * 1 種類のコマンドを受け付けてから実行を開始するまでの時間の統計情報を公開する MXBean のインタフェース.
+ *
+ * @author K.Koike
+ */
+@MXBean
+public interface CmdLatencyStatsMxBean {
+
+  /** 実行したコマンドの総数. */
+  long getNumExecuted();
+
+  /** コマンドを受け付けてから実行を開始するまでの時間の平均値. (単位: seconds) */
+  float getAvgLatency();
+
+  /** コマンドを受け付けてから実行を開始するまでの時間の最大値. (単位: seconds) */
+  float getMaxLatency();
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor;
+
+/**
+ * {@link CmdQueueStatsMxBean} の実装.
+ * 値は参照されるたびに {@link SimulatorCmdProcessor#getQueueMetrics()} から取得する.
+ *
+ * @author K.Koike
+ */
+public class CmdQueueStats implements CmdQueueStatsMxBean {
+
+  private final SimulatorCmdProcessor cmdProcessor;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param cmdProcessor 統計情報を取得するコマンドプロセッサ
+   */
+  CmdQueueStats(SimulatorCmdProcessor cmdProcessor) {
+    this.cmdProcessor = cmdProcessor;
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return cmdProcessor.getQueueMetrics().queueDepth();
+  }
+
+  @Override
+  public int getQueueCapacity() {
+    return cmdProcessor.getQueueMetrics().queueCapacity();
+  }
+
+  @Override
+  public long getNumExecuted() {
+    return cmdProcessor.getQueueMetrics().numExecuted();
+  }
+
+  @Override
+  public long getNumRejected() {
+    return cmdProcessor.getQueueMetrics().numRejected();
+  }
+
+  @Override
+  public float getAvgLatency() {
+    return cmdProcessor.getQueueMetrics().avgLatency();
+  }
+
+  @Override
+  public float getMaxLatency() {
+    return cmdProcessor.getQueueMetrics().maxLatency();
+  }
+}
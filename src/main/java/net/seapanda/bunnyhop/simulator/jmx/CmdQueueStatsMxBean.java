@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import javax.management.MXBean;
+
+/**
+ * 未実行のコマンドを保持するキューの統計情報を公開する MXBean のインタフェース.
+ *
+ * @author K.Koike
+ */
+@MXBean
+public interface CmdQueueStatsMxBean {
+
+  /** 未実行のコマンドの数. */
+  int getQueueDepth();
+
+  /** 保持可能な未実行のコマンドの最大数. */
+  int getQueueCapacity();
+
+  /** 実行したコマンドの総数. */
+  long getNumExecuted();
+
+  /** キューが満杯だったため拒否したコマンドの総数. */
+  long getNumRejected();
+
+  /** コマンドを受け付けてから実行を開始するまでの時間の指数移動平均. (単位: seconds) */
+  float getAvgLatency();
+
+  /** コマンドを受け付けてから実行を開始するまでの時間の最大値. (単位: seconds) */
+  float getMaxLatency();
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import net.seapanda.bunnyhop.simulator.FrameProfiler;
+import net.seapanda.bunnyhop.simulator.FrameProfiler.Counter;
+import net.seapanda.bunnyhop.simulator.FrameProfiler.Phase;
+import net.seapanda.bunnyhop.simulator.SimulationObjectManager;
+
+/**
+ * {@link SimulationStatsMxBean} の実装.
+ *
+ * <p>{@link #update} はシミュレータのメインスレッドから毎フレーム呼び,
+ * {@link #PUBLISH_INTERVAL} フレームごとに公開する値を更新する.
+ * 公開する値は MBean サーバのスレッドから読まれるので volatile とする.
+ *
+ * @author K.Koike
+ */
+public class SimulationStats implements SimulationStatsMxBean {
+
+  /** 公開する値を更新する間隔 (フレーム数). */
+  private static final int PUBLISH_INTERVAL = 30;
+
+  private volatile float frameTimeAvg;
+  private volatile float frameTimeP50;
+  private volatile float frameTimeP95;
+  private volatile float frameTimeP99;
+  private volatile float commandTimeAvg;
+  private volatile float physicsTimeAvg;
+  private volatile float renderTimeAvg;
+  private volatile float uiTimeAvg;
+  private volatile float physicsStepsPerFrame;
+  private volatile long totalPhysicsSteps;
+  private volatile int numObjects;
+  private volatile int maxObjects;
+  private volatile int numBoxes;
+  private volatile int numLamps;
+  private volatile int numRaspiCars;
+  private volatile int numCollisionObjects;
+  private volatile int numContactManifolds;
+  private volatile int numCulledObjects;
+  /** 前回値を公開してから経過したフレーム数. */
+  private int numFrames = 0;
+  /** 前回値を公開してから実行した物理シミュレーションのステップ数. */
+  private int numSteps = 0;
+
+  /**
+   * 1 フレーム分の計測結果を取り込む.
+   * シミュレータのメインスレッドから呼ぶこと.
+   *
+   * @param profiler フレームの処理時間などを計測するオブジェクト
+   * @param simObjManager シミュレーション空間の 3D モデルを管理するオブジェクト
+   */
+  void update(FrameProfiler profiler, SimulationObjectManager simObjManager) {
+    ++numFrames;
+    numSteps += profiler.getCounter(Counter.PHYSICS_STEPS);
+    if (numFrames < PUBLISH_INTERVAL) {
+      return;
+    }
+    frameTimeAvg = profiler.getAverage(Phase.FRAME);
+    frameTimeP50 = profiler.getPercentile(Phase.FRAME, 50);
+    frameTimeP95 = profiler.getPercentile(Phase.FRAME, 95);
+    frameTimeP99 = profiler.getPercentile(Phase.FRAME, 99);
+    commandTimeAvg = profiler.getAverage(Phase.COMMAND);
+    physicsTimeAvg = profiler.getAverage(Phase.PHYSICS);
+    renderTimeAvg = profiler.getAverage(Phase.RENDER);
+    uiTimeAvg = profiler.getAverage(Phase.UI);
+    physicsStepsPerFrame = (float) numSteps / numFrames;
+    totalPhysicsSteps = simObjManager.getNumSteps();
+    numObjects = simObjManager.getNumObjects();
+    maxObjects = simObjManager.getMaxObjects();
+    numBoxes = simObjManager.getBoxes().size();
+    numLamps = simObjManager.getLamps().size();
+    numRaspiCars = simObjManager.getRaspiCars().size();
+    numCollisionObjects = profiler.getCounter(Counter.COLLISION_OBJECTS);
+    numContactManifolds = profiler.getCounter(Counter.CONTACT_MANIFOLDS);
+    numCulledObjects = profiler.getCounter(Counter.CULLED_OBJECTS);
+    numFrames = 0;
+    numSteps = 0;
+  }
+
+  @Override
+  public float getFramesPerSecond() {
+    float avg = frameTimeAvg;
+    return (avg > 0) ? 1000f / avg : 0;
+  }
+
+  @Override
+  public float getFrameTimeAvg() {
+    return frameTimeAvg;
+  }
+
+  @Override
+  public float getFrameTimeP50() {
+    return frameTimeP50;
+  }
+
+  @Override
+  public float getFrameTimeP95() {
+    return frameTimeP95;
+  }
+
+  @Override
+  public float getFrameTimeP99() {
+    return frameTimeP99;
+  }
+
+  @Override
+  public float getCommandTimeAvg() {
+    return commandTimeAvg;
+  }
+
+  @Override
+  public float getPhysicsTimeAvg() {
+    return physicsTimeAvg;
+  }
+
+  @Override
+  public float getRenderTimeAvg() {
+    return renderTimeAvg;
+  }
+
+  @Override
+  public float getUiTimeAvg() {
+    return uiTimeAvg;
+  }
+
+  @Override
+  public float getPhysicsStepsPerFrame() {
+    return physicsStepsPerFrame;
+  }
+
+  @Override
+  public long getTotalPhysicsSteps() {
+    return totalPhysicsSteps;
+  }
+
+  @Override
+  public int getNumObjects() {
+    return numObjects;
+  }
+
+  @Override
+  public int getMaxObjects() {
+    return maxObjects;
+  }
+
+  @Override
+  public int getNumBoxes() {
+    return numBoxes;
+  }
+
+  @Override
+  public int getNumLamps() {
+    return numLamps;
+  }
+
+  @Override
+  public int getNumRaspiCars() {
+    return numRaspiCars;
+  }
+
+  @Override
+  public int getNumCollisionObjects() {
+    return numCollisionObjects;
+  }
+
+  @Override
+  public int getNumContactManifolds() {
+    return numContactManifolds;
+  }
+
+  @Override
+  public int getNumCulledObjects() {
+    return numCulledObjects;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import javax.management.MXBean;
+
+/**
+ * フレームの処理時間, 物理シミュレーション, 3D モデルの個数に関する統計情報を公開する MXBean のインタフェース.
+ *
+ * <p>処理時間の単位は ms. 値は一定のフレーム数ごとに更新される.
+ *
+ * @author K.Koike
+ */
+@MXBean
+public interface SimulationStatsMxBean {
+
+  /** 1 秒あたりのフレーム数. */
+  float getFramesPerSecond();
+
+  /** 1 フレームの処理時間の平均値. */
+  float getFrameTimeAvg();
+
+  /** 1 フレームの処理時間の 50 パーセンタイル値. */
+  float getFrameTimeP50();
+
+  /** 1 フレームの処理時間の 95 パーセンタイル値. */
+  float getFrameTimeP95();
+
+  /** 1 フレームの処理時間の 99 パーセンタイル値. */
+  float getFrameTimeP99();
+
+  /** 1 フレームでコマンドの実行にかかった時間の平均値. */
+  float getCommandTimeAvg();
+
+  /** 1 フレームで物理シミュレーションにかかった時間の平均値. */
+  float getPhysicsTimeAvg();
+
+  /** 1 フレームで 3D モデルの描画にかかった時間の平均値. */
+  float getRenderTimeAvg();
+
+  /** 1 フレームで UI の描画にかかった時間の平均値. */
+  float getUiTimeAvg();
+
+  /** 1 フレームで実行した物理シミュレーションのステップ数の平均値. */
+  float getPhysicsStepsPerFrame();
+
+  /** これまでに実行した物理シミュレーションのステップ数. */
+  long getTotalPhysicsSteps();
+
+  /** シミュレーション空間に存在する 3D モデルの個数. */
+  int getNumObjects();
+
+  /** シミュレーション空間に作成可能な 3D モデルの最大個数. */
+  int getMaxObjects();
+
+  /** シミュレーション空間に存在する箱の個数. */
+  int getNumBoxes();
+
+  /** シミュレーション空間に存在する電灯の個数. */
+  int getNumLamps();
+
+  /** シミュレーション空間に存在する RaspiCar の個数. */
+  int getNumRaspiCars();
+
+  /** 物理シミュレーション空間に存在する衝突判定オブジェクトの個数. */
+  int getNumCollisionObjects();
+
+  /** 接触している可能性のある衝突判定オブジェクトの組の個数. */
+  int getNumContactManifolds();
+
+  /** 視錐台の外にあるため描画しなかった 3D モデルの個数. */
+  int getNumCulledObjects();
+}
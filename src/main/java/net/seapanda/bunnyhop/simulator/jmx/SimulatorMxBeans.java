@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import net.seapanda.bunnyhop.simulator.FrameProfiler;
+import net.seapanda.bunnyhop.simulator.SimulationObjectManager;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor;
+import net.seapanda.bunnyhop.simulator.SimulatorCmdProcessor.BinaryCmd;
+
+/**
+ * シミュレータの統計情報を公開する MXBean をプラットフォーム MBean サーバに登録するクラス.
+ *
+ * <p>MBean は次の名前で登録される. {@code <n>} はシミュレータごとに割り当てられる番号.
+ * <pre>
+ * net.seapanda.bunnyhop.simulator:type=Simulation,instance=&lt;n&gt;
+ * net.seapanda.bunnyhop.simulator:type=CommandQueue,instance=&lt;n&gt;
+ * net.seapanda.bunnyhop.simulator:type=Command,instance=&lt;n&gt;,name=&lt;コマンド名&gt;
+ * </pre>
+ *
+ * @author K.Koike
+ */
+public class SimulatorMxBeans {
+
+  private static final String DOMAIN = "net.seapanda.bunnyhop.simulator";
+  /** 数値で表現されたコマンドのオペコードと MBean の名前に使うコマンド名のマップ. */
+  private static final Map<Integer, String> opcodeToName = Map.of(
+      BinaryCmd.MOVE, "move",
+      BinaryCmd.DETECT_COLOR, "detect-color",
+      BinaryCmd.MEASURE_DISTANCE, "measure-distance",
+      BinaryCmd.MEASURE_DISTANCE_SWEEP, "measure-distance-sweep",
+      BinaryCmd.LIGHT_EYE, "light-eye");
+  /** 次に作成するオブジェクトに割り当てる番号. */
+  private static final AtomicInteger nextInstanceNo = new AtomicInteger(0);
+
+  private final SimulationStats simStats = new SimulationStats();
+  private final SimulatorCmdProcessor cmdProcessor;
+  private final String instanceNo = String.valueOf(nextInstanceNo.getAndIncrement());
+  /** 登録した MBean の名前. */
+  private final List<ObjectName> registered = new ArrayList<>();
+
+  /**
+   * コンストラクタ.
+   *
+   * @param cmdProcessor コマンドの統計情報を取得するコマンドプロセッサ
+   */
+  public SimulatorMxBeans(SimulatorCmdProcessor cmdProcessor) {
+    this.cmdProcessor = cmdProcessor;
+  }
+
+  /**
+   * MXBean をプラットフォーム MBean サーバに登録する.
+   *
+   * @throws JMException MBean の登録に失敗した.
+   */
+  public void register() throws JMException {
+    register(simStats, "type=Simulation");
+    register(new CmdQueueStats(cmdProcessor), "type=CommandQueue");
+    for (int opcode = 0; opcode < BinaryCmd.NUM_OPCODES; ++opcode) {
+      register(
+          new CmdLatencyStats(cmdProcessor, opcode),
+          "type=Command,name=" + opcodeToName.get(opcode));
+    }
+  }
+
+  private void register(Object mbean, String properties) throws JMException {
+    var name = new ObjectName(DOMAIN + ":" + properties + ",instance=" + instanceNo);
+    ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, name);
+    registered.add(name);
+  }
+
+  /**
+   * 1 フレーム分の計測結果を MBean に取り込む.
+   * シミュレータのメインスレッドから毎フレーム呼ぶこと.
+   *
+   * @param profiler フレームの処理時間などを計測するオブジェクト
+   * @param simObjManager シミュレーション空間の 3D モデルを管理するオブジェクト
+   */
+  public void update(FrameProfiler profiler, SimulationObjectManager simObjManager) {
+    simStats.update(profiler, simObjManager);
+  }
+
+  /** 登録した MXBean を全て登録解除する. */
+  public void unregister() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ObjectName name : registered) {
+      try {
+        server.unregisterMBean(name);
+      } catch (JMException ignored) { /* Do nothing. */ }
+    }
+    registered.clear();
+  }
+}
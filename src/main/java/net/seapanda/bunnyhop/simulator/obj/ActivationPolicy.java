@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.seapanda.bunnyhop.simulator.obj;
+
+import com.badlogic.gdx.physics.bullet.collision.Collision;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+
+/**
+ * 剛体の休止状態への移行に関する設定を行うクラス.
+ *
+ * <p>休止状態の剛体は, 他のオブジェクトと接触するか, 位置や姿勢を変更されるまで物理演算の対象外となる.
+ *
+ * @author K.Koike
+ */
+class ActivationPolicy {
+
+  /** 剛体の速さがこの値未満の状態が続くと休止状態に移行する. (単位: m/s) */
+  private static final float LINEAR_SLEEPING_THRESHOLD = 0.02f;
+  /** 剛体の角速度の大きさがこの値未満の状態が続くと休止状態に移行する. (単位: rad/s) */
+  private static final float ANGULAR_SLEEPING_THRESHOLD = 0.1f;
+
+  private ActivationPolicy() {}
+
+  /**
+   * {@code body} に休止状態への移行に関する設定を適用する.
+   * {@link BhSimSettings.Simulation#allowSleeping} が false の場合, {@code body} は休止状態に移行しない.
+   */
+  static void apply(btRigidBody body) {
+    if (BhSimSettings.Simulation.allowSleeping) {
+      body.setSleepingThresholds(LINEAR_SLEEPING_THRESHOLD, ANGULAR_SLEEPING_THRESHOLD);
+      body.setActivationState(Collision.ACTIVE_TAG);
+    } else {
+      body.setActivationState(Collision.DISABLE_DEACTIVATION);
+    }
+  }
+}
@@ -16,15 +16,14 @@
 
 package net.seapanda.bunnyhop.simulator.obj;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g3d.Attribute;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.math.Matrix3;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.Collision;
 import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
@@ -36,11 +35,14 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 import com.kotcrab.vis.ui.widget.VisTable;
-import net.mgsx.gltf.loaders.glb.GLBLoader;
+import java.util.function.Consumer;
 import net.mgsx.gltf.scene3d.scene.Scene;
 import net.mgsx.gltf.scene3d.scene.SceneAsset;
 import net.mgsx.gltf.scene3d.utils.MaterialConverter;
-import net.seapanda.bunnyhop.simulator.BhSimulator;
+import net.seapanda.bunnyhop.simulator.geometry.BoundingSphere;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.Cullable;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.InstanceableRenderable;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.ObjectReflectionProvider;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.PhysicalEntity;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.UiViewProvider;
@@ -53,20 +55,28 @@ import org.apache.commons.lang3.mutable.MutableInt;
  * @author K.Koike
  */
 public class Box
-    extends PhysicalEntity implements ObjectReflectionProvider, UiViewProvider {
+    extends PhysicalEntity
+    implements ObjectReflectionProvider, UiViewProvider, InstanceableRenderable, Cullable {
   
+  private final SceneAsset sceneAsset;
   private final Scene scene;
   private final btRigidBody body;
+  /** 描画範囲の判定に使う境界球. */
+  private final BoundingSphere boundingSphere;
   /** この 3D モデルのリソースを共有する {@link ObjectReflection} オブジェクトの個数. */
   private final MutableInt numShared = new MutableInt(0);
   private final Vector3 size;
+  /** {@link #setPosition} で描画位置を一時的に格納するベクトル. */
+  private final Vector3 tmpRenderingPos = new Vector3();
+  /** 重い箱である場合 true. */
+  private final boolean isHeavy;
   /** 選択状態を保持するフラグ. */
   private boolean isSelected = false;
   /** 選択されたときの色. */
   private final Attribute colorAttrOnSelected = 
       ColorAttribute.createEmissive(new Color(0.2f, 0.2f, 0.2f, 1.0f));
-  /** UI のルートコンポーネント. */
-  private final VisTable uiComponent;
+  /** UI のルートコンポーネント. (最初に要求されたときに作成する) */
+  private VisTable uiComponent;
 
   /**
    * コンストラクタ.
@@ -77,11 +87,13 @@ public class Box
    */
   public Box(Vector3 size, Vector3 pos, boolean isHeavy) {
     this.size = size;
-    scene = createScene(size, pos, isHeavy);
+    this.isHeavy = isHeavy;
+    sceneAsset = SceneAssetCache.acquire(isHeavy ? "/Models/HeavyBox.glb" : "/Models/Dice.glb");
+    scene = createScene(size, pos);
+    boundingSphere = new BoundingSphere(scene.modelInstance);
     var motionState = new CustomMotionState(scene.modelInstance.transform);
     btCollisionShape shape = createCollisionShape(size);
     body = createRigidBody(shape, motionState, isHeavy);
-    uiComponent = new MovableBoxCtrlView(this);
   }
 
   private static btCollisionShape createCollisionShape(Vector3 size) {
@@ -94,10 +106,7 @@ public class Box
   }
 
   /** 3D モデルを作成する. */
-  private Scene createScene(Vector3 size, Vector3 pos, boolean isHeavy) {
-    var modelName = isHeavy ? "/Models/HeavyBox.glb" : "/Models/Dice.glb";
-    SceneAsset sceneAsset = new GLBLoader().load(
-        Gdx.files.absolute(BhSimulator.ASSET_PATH + modelName));
+  private Scene createScene(Vector3 size, Vector3 pos) {
     var scene = new Scene(sceneAsset.scene);
     scene.modelInstance.transform.scale(size.x, size.y, size.z);
     scene.modelInstance.transform.setTranslation(new Vector3(pos).add(0, size.y * 0.5f, 0));
@@ -121,7 +130,8 @@ public class Box
     rigidBody.setCollisionFlags(
         rigidBody.getCollisionFlags()
         | btCollisionObject.CollisionFlags.CF_CUSTOM_MATERIAL_CALLBACK);
-    rigidBody.setActivationState(Collision.DISABLE_DEACTIVATION);
+    ActivationPolicy.apply(rigidBody);
+    ContinuousCollisionPolicy.apply(rigidBody);
     rigidBody.setFriction(0.5f);
     rigidBody.userData = this;
     rigidBody.setDamping(0.1f, 0.9995f);
@@ -129,20 +139,26 @@ public class Box
     return rigidBody;
   }
 
-  /** この 3D モデルの論理的な位置から描画位置を計算する. */
-  private Vector3 calcRenderingPos(Vector3 pos) {
+  /**
+   * この 3D モデルの論理的な位置から描画位置を計算する.
+   *
+   * @param pos 論理的な位置
+   * @param storage 描画位置を格納するベクトル. {@code pos} と同じオブジェクトであってはならない.
+   * @return {@code storage}
+   */
+  private Vector3 calcRenderingPos(Vector3 pos, Vector3 storage) {
     float[] matVals = body.getWorldTransform().getValues();
-    var newPos = new Vector3(
-        matVals[Matrix4.M01], matVals[Matrix4.M11], matVals[Matrix4.M21]); // rotated Y
-    return newPos.scl(size.y * 0.5f).add(pos);
+    return storage
+        .set(matVals[Matrix4.M01], matVals[Matrix4.M11], matVals[Matrix4.M21]) // rotated Y
+        .scl(size.y * 0.5f)
+        .add(pos);
   }
 
   /**  ローカル座標系の Y 軸とワールド座標系の Y 軸のなす角度 (radian) を求める. */
   private float calcTiltAngle() {
+    // 回転後の Y 軸 (M01, M11, M21) とワールド座標系の Y 軸 (0, 1, 0) の内積は M11 となる.
     float[] matVals = body.getWorldTransform().getValues();
-    var rotatedY = new Vector3(
-        matVals[Matrix4.M01], matVals[Matrix4.M11], matVals[Matrix4.M21]);
-    return (float) Math.acos(Math.clamp(rotatedY.dot(0, 1, 0), -1, 1));
+    return (float) Math.acos(Math.clamp(matVals[Matrix4.M11], -1, 1));
   }
 
   /** 回転をリセットする. */
@@ -152,6 +168,7 @@ public class Box
     mat.set(new Matrix3().idt()).setTranslation(translation);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
+    body.activate();
   }
 
   @Override
@@ -159,10 +176,26 @@ public class Box
     scene.modelInstance.getRenderables(renderables, pool);
   }
 
+  @Override
+  public float getBoundingSphere(Vector3 center) {
+    return boundingSphere.toWorld(scene.modelInstance.transform, center);
+  }
+
+  @Override
+  public ModelInstance getInstanceableModel() {
+    // 選択中はマテリアルが他の箱と異なる.
+    return isSelected ? null : scene.modelInstance;
+  }
+
   @Override
   public void dispose() {
     body.dispose();
-    scene.modelInstance.model.dispose();
+    SceneAssetCache.release(sceneAsset);
+  }
+
+  /** 他のオブジェクトとの衝突などで動きにくい重い箱である場合 true を返す. */
+  public boolean isHeavy() {
+    return isHeavy;
   }
 
   @Override
@@ -171,18 +204,17 @@ public class Box
   }
 
   @Override
-  public Vector3 getPosition() {
-    var pos = new Vector3(0, -size.y * 0.5f, 0);
-    pos.mul(body.getWorldTransform());
-    return pos;
+  public Vector3 getPosition(Vector3 storage) {
+    return storage.set(0, -size.y * 0.5f, 0).mul(body.getWorldTransform());
   }
 
   @Override
   public void setPosition(Vector3 pos) {
-    Vector3 newPos = calcRenderingPos(pos);
+    Vector3 newPos = calcRenderingPos(pos, tmpRenderingPos);
     Matrix4 mat = body.getWorldTransform().setTranslation(newPos);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
+    body.activate();
   }
 
   @Override
@@ -191,6 +223,7 @@ public class Box
     var mat = body.getWorldTransform().mul(diff);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
+    body.activate();
   }
 
   @Override
@@ -218,7 +251,7 @@ public class Box
   }
 
   @Override
-  public void addCollisionObjectsTo(btDynamicsWorld world) {
+  public void addCollisionObjectsTo(btDynamicsWorld world, ContactIndex contactIndex) {
     world.addRigidBody(
         body,
         CollisionGroup.PHYSICAL_ENTITY.val(),
@@ -226,11 +259,13 @@ public class Box
             CollisionGroup.PHYSICAL_ENTITY,
             CollisionGroup.STAGE,
             CollisionGroup.PHYSICAL_CONTACT_DETECTOR));
+    contactIndex.register(body, CollisionGroup.PHYSICAL_ENTITY, true);
   }
 
   @Override
-  public void removeCollisionObjectsFrom(btDynamicsWorld world) {
+  public void removeCollisionObjectsFrom(btDynamicsWorld world, ContactIndex contactIndex) {
     world.removeRigidBody(body);
+    contactIndex.unregister(body);
   }
 
   @Override
@@ -242,6 +277,21 @@ public class Box
     resetRotation();
   }
 
+  @Override
+  protected btRigidBody getRigidBody() {
+    return body;
+  }
+
+  @Override
+  public void addOnTransformChanged(Consumer<Matrix4> onTransformChanged) {
+    ((CustomMotionState) body.getMotionState()).addOnWorldTransform(onTransformChanged);
+  }
+
+  @Override
+  public void removeOnTransformChanged(Consumer<Matrix4> onTransformChanged) {
+    ((CustomMotionState) body.getMotionState()).removeOnWorldTransform(onTransformChanged);
+  }
+
   @Override
   public void select() { 
     isSelected = true;
@@ -261,6 +311,9 @@ public class Box
 
   @Override
   public Actor getUiView() {
+    if (uiComponent == null) {
+      uiComponent = new MovableBoxCtrlView(this);
+    }
     return uiComponent;
   }
 }
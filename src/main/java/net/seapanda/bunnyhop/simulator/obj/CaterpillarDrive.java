@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.seapanda.bunnyhop.simulator.obj;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btContactPointFlags;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+
+/**
+ * キャタピラと接触面の間の摩擦で RaspiCar を動かすクラス.
+ *
+ * <p>RaspiCar の底面と他のオブジェクトの接触点ごとに, 摩擦の方向とその方向の目標相対速度を設定する.
+ * 摩擦力は物理シミュレーションのソルバが計算するので, 位置を直接書き換える場合と異なり,
+ * 押している物体の重さや最大摩擦力が移動に反映され, 時間刻みを大きくしても同じ軌跡で動く.
+ * 接触点の摩擦の方向を使うには, ソルバの {@code SOLVER_ENABLE_FRICTION_DIRECTION_CACHING} を有効にする必要がある.
+ *
+ * <p>接触点の追加と更新の通知は, 物理シミュレーションのステップごとに接触点ごとにネイティブコードから Java を呼び出すので負荷が大きい.
+ * そのため, {@link #updateContactCallbackFilter} で, 接触点を設定する必要がある間だけ通知を受け取るようにする.
+ *
+ * @author K.Koike
+ */
+class CaterpillarDrive {
+
+  /** 接触点の法線とローカル座標系の Y 軸のなす角の余弦がこの値以上の場合, 底面の接触点とみなす. */
+  private static final float MIN_BOTTOM_NORMAL_COS = (float) Math.cos(Math.PI / 4);
+  /** 目標の相対速度の大きさがこの値未満の場合, 目標の相対速度を設定しない. (単位: m/s) */
+  private static final float MIN_SPEED = 1e-6f;
+
+  /** 動かす RaspiCar の剛体. */
+  private final btRigidBody body;
+  /** 前進方向の目標速度. (単位: m/s) */
+  private float speed = 0;
+  /** 鉛直上向きを正とする目標角速度. (単位: rad/s) */
+  private float angularVelocity = 0;
+  /** 目標の相対速度を設定したまま, 通常の摩擦に戻していない接触点が残っている可能性がある場合 true. */
+  private boolean hasDrivenPoints = false;
+  /** {@link #body} の接触点の追加と更新の通知を受け取る場合 true. */
+  private boolean isCallbackEnabled = false;
+  private final Matrix4 transform = new Matrix4();
+  private final Vector3 normal = new Vector3();
+  private final Vector3 up = new Vector3();
+  private final Vector3 forward = new Vector3();
+  private final Vector3 contactPos = new Vector3();
+  private final Vector3 relPos = new Vector3();
+  private final Vector3 targetVelocity = new Vector3();
+  private final Vector3 velocity = new Vector3();
+  private final Vector3 frictionDir = new Vector3();
+
+  /**
+   * コンストラクタ.
+   *
+   * @param body 動かす RaspiCar の剛体
+   */
+  CaterpillarDrive(btRigidBody body) {
+    this.body = body;
+  }
+
+  /**
+   * 目標の速度と角速度を設定する.
+   *
+   * @param speed 前進方向の目標速度 (単位: m/s)
+   * @param angularVelocity 鉛直上向きを正とする目標角速度 (単位: rad/s)
+   */
+  void setTarget(float speed, float angularVelocity) {
+    this.speed = speed;
+    this.angularVelocity = angularVelocity;
+  }
+
+  /** 目標の速度と角速度を 0 にする. */
+  void stop() {
+    setTarget(0, 0);
+  }
+
+  /**
+   * 次の物理シミュレーションの更新で, {@link #body} の接触点の追加と更新の通知を受け取るかどうかを切り替える.
+   *
+   * <p>目標の速度か角速度が 0 でない間と, 0 になった後の最初の更新では通知を受け取る.
+   * 最初の更新で全ての接触点が通常の摩擦に戻るので, それ以降は停止している RaspiCar の接触点のために
+   * ネイティブコードから Java を呼び出さない.
+   *
+   * @param timeStep 次の物理シミュレーションの更新で進む時間 (秒)
+   */
+  void updateContactCallbackFilter(float timeStep) {
+    boolean enable = hasDrivenPoints;
+    if (speed != 0 || angularVelocity != 0) {
+      hasDrivenPoints = true;
+      enable = true;
+    } else if (timeStep > 0) {
+      hasDrivenPoints = false;
+    }
+    if (enable != isCallbackEnabled) {
+      body.setContactCallbackFilter(enable ? ~0 : 0);
+      isCallbackEnabled = enable;
+    }
+  }
+
+  /**
+   * RaspiCar の剛体と {@code theOther} の接触点に, 摩擦の方向と目標の相対速度を設定する.
+   * 目標の速度と角速度がともに 0 の場合や, 底面以外の接触点の場合は, 通常の摩擦に戻す.
+   *
+   * @param point 摩擦の方向と目標の相対速度を設定する接触点
+   * @param theOther RaspiCar の剛体と接触しているオブジェクト
+   * @param isBodyObj0 {@code point} の A 側のオブジェクトが RaspiCar の剛体である場合 true
+   */
+  void updateContactPoint(btManifoldPoint point, btCollisionObject theOther, boolean isBodyObj0) {
+    int flags = point.getContactPointFlags();
+    if (!calcTargetVelocity(point, isBodyObj0)) {
+      point.setContactPointFlags(
+          flags & ~btContactPointFlags.BT_CONTACT_FLAG_LATERAL_FRICTION_INITIALIZED);
+      return;
+    }
+    calcRelativeVelocity(theOther);
+    // 現在の相対速度と目標の相対速度の差の方向に摩擦を働かせる.
+    frictionDir.set(targetVelocity).sub(velocity);
+    float len = frictionDir.len();
+    if (len < MIN_SPEED) {
+      frictionDir.set(targetVelocity);
+      len = frictionDir.len();
+    }
+    frictionDir.scl(1f / len);
+    float motion = targetVelocity.dot(frictionDir);
+    point.setLateralFrictionDir1(frictionDir);
+    // ソルバは (A の速度 - B の速度) を目標の相対速度に近づける.
+    point.setContactMotion1(isBodyObj0 ? motion : -motion);
+    point.setContactPointFlags(
+        flags | btContactPointFlags.BT_CONTACT_FLAG_LATERAL_FRICTION_INITIALIZED);
+  }
+
+  /**
+   * 接触点における, 接触相手に対する RaspiCar の剛体の目標の相対速度を接触面に射影して {@link #targetVelocity} に格納する.
+   *
+   * @return 目標の相対速度を設定すべき接触点である場合 true
+   */
+  private boolean calcTargetVelocity(btManifoldPoint point, boolean isBodyObj0) {
+    if (speed == 0 && angularVelocity == 0) {
+      return false;
+    }
+    // 法線の向きを接触相手から RaspiCar の向きにそろえる.
+    point.getNormalWorldOnB(normal);
+    if (!isBodyObj0) {
+      normal.scl(-1);
+    }
+    body.getWorldTransform(transform);
+    up.set(0, 1, 0).rot(transform).nor();
+    if (normal.dot(up) < MIN_BOTTOM_NORMAL_COS) {
+      return false;
+    }
+    if (isBodyObj0) {
+      point.getPositionWorldOnA(contactPos);
+    } else {
+      point.getPositionWorldOnB(contactPos);
+    }
+    relPos.set(contactPos).sub(body.getCenterOfMassPosition());
+    forward.set(0, 0, -1).rot(transform).nor();
+    targetVelocity.set(up).scl(angularVelocity).crs(relPos).mulAdd(forward, speed);
+    targetVelocity.mulAdd(normal, -targetVelocity.dot(normal));
+    return targetVelocity.len2() >= MIN_SPEED * MIN_SPEED;
+  }
+
+  /**
+   * 接触点における, {@code theOther} に対する RaspiCar の剛体の現在の相対速度を接触面に射影して
+   * {@link #velocity} に格納する.
+   */
+  private void calcRelativeVelocity(btCollisionObject theOther) {
+    velocity.set(body.getAngularVelocity()).crs(relPos).add(body.getLinearVelocity());
+    if (theOther instanceof btRigidBody other) {
+      frictionDir.set(contactPos).sub(other.getCenterOfMassPosition());
+      velocity.sub(other.getVelocityInLocalPoint(frictionDir));
+    }
+    velocity.mulAdd(normal, -velocity.dot(normal));
+  }
+}
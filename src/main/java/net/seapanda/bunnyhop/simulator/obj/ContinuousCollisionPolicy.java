@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.seapanda.bunnyhop.simulator.obj;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+
+/**
+ * 剛体の連続衝突判定に関する設定を行うクラス.
+ *
+ * <p>連続衝突判定を有効にした剛体は, 1 ステップの移動量が閾値を超えたとき,
+ * 移動前後の位置の間を球でスイープして衝突を調べる.
+ * これにより, 高速で移動する剛体や大きな時間刻みで進めるシミュレーションで, 剛体が薄い壁をすり抜けるのを防ぐ.
+ *
+ * @author K.Koike
+ */
+class ContinuousCollisionPolicy {
+
+  /** 剛体の最も短い辺の長さに対する, 連続衝突判定を行う 1 ステップの移動量の閾値の割合. */
+  private static final float MOTION_THRESHOLD_RATIO = 0.5f;
+  /** 剛体の最も短い辺の長さに対する, スイープに使う球の半径の割合. */
+  private static final float SWEPT_SPHERE_RADIUS_RATIO = 0.4f;
+
+  private ContinuousCollisionPolicy() {}
+
+  /**
+   * {@code body} に連続衝突判定に関する設定を適用する.
+   * 閾値とスイープに使う球の半径は {@code body} の衝突判定形状の大きさから決める.
+   * {@link BhSimSettings.Simulation#continuousCollision} が false の場合は何もしない.
+   */
+  static void apply(btRigidBody body) {
+    if (!BhSimSettings.Simulation.continuousCollision) {
+      return;
+    }
+    btCollisionShape shape = body.getCollisionShape();
+    var min = new Vector3();
+    var max = new Vector3();
+    shape.getAabb(new Matrix4(), min, max);
+    max.sub(min);
+    float minExtent = Math.min(max.x, Math.min(max.y, max.z));
+    body.setCcdMotionThreshold(minExtent * MOTION_THRESHOLD_RATIO);
+    body.setCcdSweptSphereRadius(minExtent * SWEPT_SPHERE_RADIUS_RATIO);
+  }
+}
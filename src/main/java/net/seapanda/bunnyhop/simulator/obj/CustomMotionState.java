@@ -63,6 +63,8 @@ class CustomMotionState extends btMotionState {
     transform.getScale(scale);
     worldTrans.getTranslation(pos);
     transform.idt().scl(scale).mul(worldTrans).setTranslation(pos);
-    onSetWorldTransList.forEach(func -> func.accept(worldTrans));
+    for (int i = 0; i < onSetWorldTransList.size(); ++i) {
+      onSetWorldTransList.get(i).accept(worldTrans);
+    }
   }
 }
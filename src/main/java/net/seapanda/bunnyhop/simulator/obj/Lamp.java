@@ -16,7 +16,6 @@
 
 package net.seapanda.bunnyhop.simulator.obj;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.VertexAttributes.Usage;
@@ -50,12 +49,14 @@ import com.badlogic.gdx.utils.Pool;
 import com.kotcrab.vis.ui.widget.VisTable;
 import java.util.List;
 import java.util.Optional;
-import net.mgsx.gltf.loaders.glb.GLBLoader;
+import java.util.function.Consumer;
 import net.mgsx.gltf.scene3d.scene.Scene;
 import net.mgsx.gltf.scene3d.scene.SceneAsset;
 import net.mgsx.gltf.scene3d.utils.MaterialConverter;
-import net.seapanda.bunnyhop.simulator.BhSimulator;
+import net.seapanda.bunnyhop.simulator.geometry.BoundingSphere;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
 import net.seapanda.bunnyhop.simulator.geometry.GeoUtil;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.Cullable;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.ObjectReflectionProvider;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.PhysicalEntity;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.UiViewProvider;
@@ -67,14 +68,16 @@ import org.apache.commons.lang3.mutable.MutableInt;
  *
  * @author K.Koike
  */
-public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, UiViewProvider {
+public class Lamp extends PhysicalEntity
+    implements ObjectReflectionProvider, UiViewProvider, Cullable {
  
-  private SceneAsset sceneAsset = new GLBLoader().load(
-      Gdx.files.absolute(BhSimulator.ASSET_PATH + "/Models/Lamp.glb"));
+  private final SceneAsset sceneAsset = SceneAssetCache.acquire("/Models/Lamp.glb");
   private final Scene scene;
   private final float scale;
   /** ローカル空間上でのこのオブジェクトの論理的な原点. */
   private final Vector3 logicalOrigin = new Vector3(0, -0.03f, 0);
+  /** {@link #setPosition} で描画位置を一時的に格納するベクトル. */
+  private final Vector3 tmpRenderingPos = new Vector3();
   /** light 部分のモデル. */
   private Model lightModel;
   /** 本体の衝突判定オブジェクト. */
@@ -95,13 +98,17 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
   private final String lightNodeId = "light";
   /** ライトの回転軸. */
   private final Vector3 lightRotAxis = new Vector3(1f, 0f, 0f);
+  /** ライト部分の衝突判定オブジェクトの姿勢を一時的に格納する行列. */
+  private final Matrix4 tmpLightTransform = new Matrix4();
+  /** 描画範囲の判定に使う境界球. (ライトの形が変わるたびに作り直す) */
+  private BoundingSphere boundingSphere;
   /** 選択状態を保持するフラグ. */
   private boolean isSelected = false;
   /** 選択されたときの色. */
   private final Attribute colorAttrOnSelected = 
       ColorAttribute.createEmissive(new Color(0.2f, 0.2f, 0.2f, 1.0f));
-  /** UI のルートコンポーネント. */
-  private final VisTable uiComponent;
+  /** UI のルートコンポーネント. (最初に要求されたときに作成する) */
+  private VisTable uiComponent;
 
   /**
    * コンストラクタ.
@@ -118,14 +125,23 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     body = createRigidBody(shape, motionState);
     addLightNode(scene.modelInstance);
     lightCollisionObj = createLightCollisionObject();
-    motionState.addOnWorldTransform(worldTrans -> {
-      var trans = new Matrix4()
-          .rotate(lightRotAxis, lightAngle)
-          .setTranslation(lightSourcePos)
-          .mulLeft(worldTrans);
-      lightCollisionObj.setWorldTransform(trans);
-    });
-    uiComponent = new LampCtrlView(this);
+    motionState.addOnWorldTransform(this::updateLightCollisionObjTransform);
+  }
+
+  /**
+   * ライト部分の衝突判定オブジェクトの姿勢を, 本体の姿勢とライトの角度に合わせる.
+   *
+   * <p>休止状態の剛体の姿勢は物理シミュレーションで更新されないので,
+   * ライトの角度を変えたときは本体の姿勢が変わらなくてもこのメソッドを呼ぶこと.
+   *
+   * @param worldTrans 本体の剛体の姿勢
+   */
+  private void updateLightCollisionObjTransform(Matrix4 worldTrans) {
+    tmpLightTransform.idt()
+        .rotate(lightRotAxis, lightAngle)
+        .setTranslation(lightSourcePos)
+        .mulLeft(worldTrans);
+    lightCollisionObj.setWorldTransform(tmpLightTransform);
   }
 
   /** 3D モデルを作成する. */
@@ -182,6 +198,7 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
         .setTranslation(0f, -lightHeight / 2f, 0f)
         .mulLeft(rotate);    
     lightNode.calculateWorldTransform();
+    boundingSphere = new BoundingSphere(scene.modelInstance);
   }
  
   private btCollisionShape createCollisionShape(ModelInstance modelInstance) {
@@ -204,7 +221,8 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     rigidBody.setCollisionFlags(
         rigidBody.getCollisionFlags()
         | btCollisionObject.CollisionFlags.CF_CUSTOM_MATERIAL_CALLBACK);
-    rigidBody.setActivationState(Collision.DISABLE_DEACTIVATION);
+    ActivationPolicy.apply(rigidBody);
+    ContinuousCollisionPolicy.apply(rigidBody);
     rigidBody.setFriction(0.5f);
     rigidBody.userData = this;
     return rigidBody;
@@ -237,28 +255,31 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     return shape;
   }
 
-  /** この 3D モデルの論理的な位置から描画位置を計算する. */
-  private Vector3 calcRenderingPos(Vector3 pos) {
-    var transformedLogicalOrigin = new Vector3(logicalOrigin);
+  /**
+   * この 3D モデルの論理的な位置から描画位置を計算する.
+   *
+   * @param pos 論理的な位置
+   * @param storage 描画位置を格納するベクトル. {@code pos} と同じオブジェクトであってはならない.
+   * @return {@code storage}
+   */
+  private Vector3 calcRenderingPos(Vector3 pos, Vector3 storage) {
+    // 描画位置 = 原点の位置 - 論理的な原点の位置 + pos = -(回転させた logicalOrigin) + pos
     Matrix4 mat = body.getWorldTransform();
-    transformedLogicalOrigin.mul(mat);
-    var transformedOrigin = new Vector3(); 
-    mat.getTranslation(transformedOrigin);
-    return transformedOrigin.sub(transformedLogicalOrigin).add(pos);
+    return storage.set(logicalOrigin).rot(mat).scl(-1f).add(pos);
   }
 
   /**  ローカル座標系の Y 軸とワールド座標系の Y 軸のなす角度 (radian) を求める. */
   private float calcTiltAngle() {
+    // 回転後の Y 軸 (M01, M11, M21) とワールド座標系の Y 軸 (0, 1, 0) の内積は M11 となる.
     float[] matVals = body.getWorldTransform().getValues();
-    var rotatedY = new Vector3(
-        matVals[Matrix4.M01], matVals[Matrix4.M11], matVals[Matrix4.M21]);
-    return (float) Math.acos(Math.clamp(rotatedY.dot(0, 1, 0), -1, 1));
+    return (float) Math.acos(Math.clamp(matVals[Matrix4.M11], -1, 1));
   }
 
   /** ライトの角度を設定する. */
   public void setLightAngle(float degrees) {
     this.lightAngle = degrees;
     calcLightTransform();
+    updateLightCollisionObjTransform(body.getWorldTransform());
   }
 
   /** ライトの角度を取得する. (単位: degrees) */
@@ -342,6 +363,7 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     mat.set(new Matrix3().idt()).setTranslation(translation);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
+    body.activate();
   }
 
   @Override
@@ -349,11 +371,16 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     scene.getRenderables(renderables, pool);
   }
 
+  @Override
+  public float getBoundingSphere(Vector3 center) {
+    return boundingSphere.toWorld(scene.modelInstance.transform, center);
+  }
+
   @Override
   public void dispose() {
     lightModel.dispose();
     body.dispose();
-    sceneAsset.dispose();
+    SceneAssetCache.release(sceneAsset);
   }
 
   @Override
@@ -362,18 +389,17 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
   }
 
   @Override
-  public Vector3 getPosition() {
-    var pos = new Vector3(logicalOrigin);
-    pos.mul(body.getWorldTransform());
-    return pos;
+  public Vector3 getPosition(Vector3 storage) {
+    return storage.set(logicalOrigin).mul(body.getWorldTransform());
   }
 
   @Override
   public void setPosition(Vector3 pos) {
-    Vector3 newPos = calcRenderingPos(pos);
+    Vector3 newPos = calcRenderingPos(pos, tmpRenderingPos);
     Matrix4 mat = body.getWorldTransform().setTranslation(newPos);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
+    body.activate();
   }
 
   @Override
@@ -382,6 +408,7 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     var mat = body.getWorldTransform().mul(diff);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
+    body.activate();
   }
 
   @Override
@@ -409,7 +436,7 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
   }
 
   @Override
-  public void addCollisionObjectsTo(btDynamicsWorld world) {
+  public void addCollisionObjectsTo(btDynamicsWorld world, ContactIndex contactIndex) {
     world.addRigidBody(
         body,
         CollisionGroup.PHYSICAL_ENTITY.val(),
@@ -419,12 +446,17 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
             CollisionGroup.PHYSICAL_CONTACT_DETECTOR));
     world.addCollisionObject(
         lightCollisionObj, CollisionGroup.LAMP_LIGHT.val(), CollisionGroup.LAMP_LIGHT.val());
+    // 電灯は軽く倒れやすいので, 他のオブジェクトを支える実体のあるオブジェクトとして扱わない.
+    contactIndex.register(body, CollisionGroup.PHYSICAL_ENTITY, false);
+    contactIndex.register(lightCollisionObj, CollisionGroup.LAMP_LIGHT, false);
   }
 
   @Override
-  public void removeCollisionObjectsFrom(btDynamicsWorld world) {
+  public void removeCollisionObjectsFrom(btDynamicsWorld world, ContactIndex contactIndex) {
     world.removeRigidBody(body);
     world.removeCollisionObject(lightCollisionObj);
+    contactIndex.unregister(body);
+    contactIndex.unregister(lightCollisionObj);
   }
 
   @Override
@@ -436,6 +468,21 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
     resetRotation();
   }
 
+  @Override
+  protected btRigidBody getRigidBody() {
+    return body;
+  }
+
+  @Override
+  public void addOnTransformChanged(Consumer<Matrix4> onTransformChanged) {
+    ((CustomMotionState) body.getMotionState()).addOnWorldTransform(onTransformChanged);
+  }
+
+  @Override
+  public void removeOnTransformChanged(Consumer<Matrix4> onTransformChanged) {
+    ((CustomMotionState) body.getMotionState()).removeOnWorldTransform(onTransformChanged);
+  }
+
   @Override
   public void select() { 
     isSelected = true;
@@ -455,6 +502,9 @@ public class Lamp extends PhysicalEntity implements ObjectReflectionProvider, Ui
 
   @Override
   public Actor getUiView() {
+    if (uiComponent == null) {
+      uiComponent = new LampCtrlView(this);
+    }
     return uiComponent;
   }
 }
@@ -31,9 +31,8 @@ import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.SimulationObject;
 import org.apache.commons.lang3.mutable.MutableInt;
 
@@ -55,16 +54,30 @@ public class ObjectReflection implements SimulationObject {
   private ModelInstance subject;
   /** 不透明度. */
   private float opacity = 0.5f;
-  /** NodePart とその Material のペアを格納する. */
-  private final HashMap<NodePart, Material> nodePartToOriginalMaterial = new HashMap<>();
-  /** NodePart とその Material のコピーのペアを格納する. */
-  private final HashMap<NodePart, Material> nodePartToCopiedMaterial = new HashMap<>();
+  /**
+   * Material を持つ NodePart のリスト.
+   * {@link #originalMaterials} と {@link #copiedMaterials} の同じインデックスの要素がこの NodePart の Material となる.
+   * 描画のたびにイテレータを作らないように, マップではなく配列で保持する.
+   */
+  private final Array<NodePart> nodeParts = new Array<>(NodePart.class);
+  /** {@link #nodeParts} の各要素が元々持っていた Material. */
+  private final Array<Material> originalMaterials = new Array<>(Material.class);
+  /** {@link #nodeParts} の各要素の Material のコピー. */
+  private final Array<Material> copiedMaterials = new Array<>(Material.class);
   /**  3D モデルの位置. */
   private final Vector3 pos = new Vector3();
   /** このオブジェクトを含めた, 現在 {@code subject} を共有する {@link ObjectReflection} の個数. */
   private final MutableInt numShared;
-  /** この 3D モデルの論理的な位置から描画位置を算出するときに呼ぶメソッド. */
-  private Function<Vector3, Vector3> renderingPosGetter = (pos) -> pos;
+  /**
+   * この 3D モデルの論理的な位置 (第 1 引数) から描画位置を算出して, 第 2 引数に格納するメソッド.
+   * 戻り値は第 2 引数とする.
+   */
+  private BiFunction<Vector3, Vector3, Vector3> renderingPosGetter =
+      (pos, storage) -> storage.set(pos);
+  /** 描画位置を一時的に格納するベクトル. */
+  private final Vector3 renderingPos = new Vector3();
+  /** 描画中に書き換える前の {@code subject} の姿勢を一時的に格納する行列. */
+  private final Matrix4 orgTransform = new Matrix4();
   /** 選択状態を保持するフラグ. */
   private boolean isSelected = false;
   /** 選択されたときの色. */
@@ -89,17 +102,21 @@ public class ObjectReflection implements SimulationObject {
 
   /** 描画対象の ModelInstance の状態をこの 3D モデルの状態に反映させる. */
   public void reconstruct() {
-    var nodeParts = new ArrayList<NodePart>();
+    var allNodeParts = new ArrayList<NodePart>();
     for (Node node : subject.nodes) {
-      gatherNodePart(node, nodeParts);
+      gatherNodePart(node, allNodeParts);
     }
-    for (NodePart nodePart : nodeParts) {
+    nodeParts.clear();
+    originalMaterials.clear();
+    copiedMaterials.clear();
+    for (NodePart nodePart : allNodeParts) {
       if (nodePart.material == null) {
         continue;
       }
-      nodePartToOriginalMaterial.put(nodePart, nodePart.material);
+      nodeParts.add(nodePart);
+      originalMaterials.add(nodePart.material);
       Material copied = nodePart.material.copy();
-      nodePartToCopiedMaterial.put(nodePart, copied);
+      copiedMaterials.add(copied);
       if (copied.get(BlendingAttribute.Type) instanceof BlendingAttribute attr) {
         attr.opacity *= opacity;
       } else {
@@ -124,37 +141,45 @@ public class ObjectReflection implements SimulationObject {
   /** 不透明度を設定する. */
   public void setOpacity(float opacity) {
     this.opacity = opacity;
-    for (Material mat : nodePartToCopiedMaterial.values()) {
+    for (Material mat : copiedMaterials) {
       ((BlendingAttribute) mat.get(BlendingAttribute.Type)).opacity = opacity;
     }
   }
 
-  /** この 3D モデルの描画位置を算出するメソッドを設定する. */
-  public void setRenderingPosGetter(Function<Vector3, Vector3> renderingPosGetter) {
+  /**
+   * この 3D モデルの描画位置を算出するメソッドを設定する.
+   *
+   * @param renderingPosGetter 論理的な位置 (第 1 引数) から描画位置を算出して第 2 引数に格納し,
+   *                           第 2 引数を返すメソッド
+   */
+  public void setRenderingPosGetter(
+      BiFunction<Vector3, Vector3, Vector3> renderingPosGetter) {
     this.renderingPosGetter = renderingPosGetter;
   }
 
   @Override
   public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
-    var orgMatrix = new Matrix4(subject.transform);
+    orgTransform.set(subject.transform);
 
     // 位置とマテリアルの書き換え.
-    Vector3 renderingPos = renderingPosGetter.apply(pos);
+    renderingPosGetter.apply(pos, renderingPos);
     subject.transform.mul(rotation);
     subject.transform.setTranslation(renderingPos);
-    nodePartToCopiedMaterial.entrySet()
-        .forEach(entry -> entry.getKey().material = entry.getValue());
+    for (int i = 0; i < nodeParts.size; ++i) {
+      nodeParts.get(i).material = copiedMaterials.get(i);
+    }
     // 描画物を提出.
     subject.getRenderables(renderables, pool);
     // 位置とマテリアルを元に戻す.
-    subject.transform.set(orgMatrix);
-    nodePartToOriginalMaterial.entrySet()
-        .forEach(entry -> entry.getKey().material = entry.getValue());
+    subject.transform.set(orgTransform);
+    for (int i = 0; i < nodeParts.size; ++i) {
+      nodeParts.get(i).material = originalMaterials.get(i);
+    }
   }
 
   @Override
-  public Vector3 getPosition() {
-    return new Vector3(pos);
+  public Vector3 getPosition(Vector3 storage) {
+    return storage.set(pos);
   }
 
   @Override
@@ -176,7 +201,7 @@ public class ObjectReflection implements SimulationObject {
   @Override
   public void select() { 
     isSelected = true;
-    for (var material : nodePartToCopiedMaterial.values()) {
+    for (var material : copiedMaterials) {
       material.set(colorAttrOnSelected);
     }
   }
@@ -184,7 +209,7 @@ public class ObjectReflection implements SimulationObject {
   @Override
   public void deselect() {
     isSelected = false;
-    for (var material : nodePartToCopiedMaterial.values()) {
+    for (var material : copiedMaterials) {
       material.remove(ColorAttribute.Emissive);
     }
   }
@@ -18,7 +18,6 @@ package net.seapanda.bunnyhop.simulator.obj;
 
 import static com.badlogic.gdx.physics.bullet.collision.btCollisionObject.CollisionFlags.CF_HAS_CONTACT_STIFFNESS_DAMPING;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.VertexAttributes.Usage;
@@ -36,31 +35,35 @@ import com.badlogic.gdx.math.Matrix3;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.bullet.collision.Collision;
-import com.badlogic.gdx.physics.bullet.collision.btBroadphaseProxy;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionWorld;
 import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
 import com.badlogic.gdx.physics.bullet.collision.btGhostObject;
-import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
 import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.function.BiConsumer;
-import net.mgsx.gltf.loaders.glb.GLBLoader;
+import java.util.function.Consumer;
 import net.mgsx.gltf.scene3d.scene.Scene;
 import net.mgsx.gltf.scene3d.scene.SceneAsset;
 import net.mgsx.gltf.scene3d.utils.MaterialConverter;
-import net.seapanda.bunnyhop.simulator.BhSimulator;
+import net.seapanda.bunnyhop.simulator.common.BhSimSettings;
+import net.seapanda.bunnyhop.simulator.geometry.BoundingSphere;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
+import net.seapanda.bunnyhop.simulator.geometry.ContactTestHelper;
 import net.seapanda.bunnyhop.simulator.geometry.GeoUtil;
 import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper;
-import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper.RayTestResult;
+import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper.RayHit;
+import net.seapanda.bunnyhop.simulator.geometry.RayTestHelper.RayQuery;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
+import net.seapanda.bunnyhop.simulator.obj.interfaces.Cullable;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.ObjectReflectionProvider;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.PhysicalEntity;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.UiViewProvider;
@@ -72,17 +75,31 @@ import org.apache.commons.lang3.mutable.MutableInt;
  *
  * @author K.Koike
  */
-public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider, UiViewProvider {
+public class RaspiCar extends PhysicalEntity
+    implements ObjectReflectionProvider, UiViewProvider, Cullable {
 
-  private final SceneAsset sceneAsset = new GLBLoader().load(
-      Gdx.files.absolute(BhSimulator.ASSET_PATH + "/Models/RaspiCar.glb"));
+  private final SceneAsset sceneAsset = SceneAssetCache.acquire("/Models/RaspiCar.glb");
   private final Scene scene;
+  /** 描画範囲の判定に使う境界球. (距離センサのビームを含む) */
+  private final BoundingSphere boundingSphere;
   /** 本体の衝突判定オブジェクト. */
   private final btRigidBody body;
+  /** キャタピラと接触面の間の摩擦でこの 3D モデルを動かすオブジェクト. */
+  private final CaterpillarDrive caterpillarDrive;
+  /** キャタピラと接触面の間の摩擦でこの 3D モデルを動かす場合 true. */
+  private final boolean isVelocityDriven = BhSimSettings.Simulation.velocityDrive;
   /** キャタピラ部分の衝突判定オブジェクト. */
   private final btGhostObject caterpillarCollisionObj;
-  /** 色センサ部分の衝突判定オブジェクト. */
+  /**
+   * 色センサ部分の衝突判定オブジェクト.
+   * 色を検出するときだけ電灯の光と接触判定を行うので, {@link btCollisionWorld} には追加しない.
+   */
   private final btGhostObject colorSensorCollisionObj;
+  /** 色センサと電灯の光の接触判定を行うオブジェクト. */
+  private final ContactTestHelper colorSensorContactTest =
+      new ContactTestHelper(CollisionGroup.LAMP_LIGHT);
+  /** 色センサと接触している電灯を格納するリスト. */
+  private final List<Collidable> lampsOnColorSensor = new ArrayList<>();
   /** 距離センサのビームを描画するためのオブジェクト. */
   private final ModelInstance sensorBeam;
   /** 3D モデルの長さ / 実物の長さ. */
@@ -91,12 +108,22 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
   private final float scale;
   /** 3D モデルが定義された空間におけるこのオブジェクトの論理的な原点. */
   private final Vector3 logicalOrigin = new Vector3(0f, -0.0275f, 0f);
+  /** {@link #setPosition} で描画位置を一時的に格納するベクトル. */
+  private final Vector3 tmpRenderingPos = new Vector3();
   /** 実際の距離センサの最大測定距離 (m) . */
   private final float maxMeasurableDistance = 3f;
   /** 3D モデルが定義された空間における距離センサのビームの始点. */
   private final Vector3 beamStartPos = new Vector3(0, 0.0072f, -0.05262f);
   /** 3D モデルが定義された空間における距離センサのビームの終点. */
   private final Vector3 beamEndPos = new Vector3();
+  /** ワールド座標系における距離センサのビームの始点. */
+  private final Vector3 worldBeamStartPos = new Vector3();
+  /** ワールド座標系における距離センサのビームの終点. */
+  private final Vector3 worldBeamEndPos = new Vector3();
+  /** 距離センサの ray test を行うオブジェクト. */
+  private RayQuery distanceSensorQuery;
+  /** 距離センサの ray test の結果を格納するオブジェクト. */
+  private final RayHit distanceSensorHit = new RayHit();
   private final List<AnimationController> rhsAnimCtrls = new ArrayList<>();
   private final List<AnimationController> lhsAnimCtrls = new ArrayList<>();
   /** 質量. (kg) */
@@ -124,12 +151,14 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
       ColorAttribute.createEmissive(new Color(0.2f, 0.2f, 0.2f, 1.0f));
   /** この 3D モデルの衝突判定オブジェクトを保持する {@link btCollisionWorld} オブジェクト. */
   private btCollisionWorld world;
+  /** この 3D モデルの衝突判定オブジェクトの接触状態を記録するオブジェクト. */
+  private ContactIndex contactIndex;
   /** 右目の初期色. */
   private final Color defaultRightEyeColor;
   /** 左目の初期色. */
   private final Color defaultLeftEyeColor;
-  /** UI のルートコンポーネント. */
-  private final RaspiCarCtrlView uiComponent;
+  /** UI のルートコンポーネント. (最初に要求されたときに作成する) */
+  private RaspiCarCtrlView uiComponent;
 
   /**
    * コンストラクタ.
@@ -143,7 +172,9 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     btCollisionShape shape = createCollisionShape(scene.modelInstance);
     CustomMotionState motionState = new CustomMotionState(scene.modelInstance.transform);
     body = createRigidBody(shape, motionState);
+    caterpillarDrive = new CaterpillarDrive(body);
     sensorBeam = createSensorBeam(scene.modelInstance.transform);
+    boundingSphere = new BoundingSphere(scene.modelInstance, sensorBeam);
     caterpillarCollisionObj =
         createCollisionObject("caterpillar-collision-L", "caterpillar-collision-R");
     colorSensorCollisionObj = createCollisionObject("color-sensor-collision");
@@ -152,7 +183,6 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     createAnimDescs();
     defaultRightEyeColor = getRightEyeColor();
     defaultLeftEyeColor = getLeftEyeColor();
-    uiComponent = new RaspiCarCtrlView(this);
   }
 
   /**
@@ -167,11 +197,15 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     body.setDamping(damping, damping);
     if (timeLeft <= 0) {
       body.setCollisionFlags(body.getCollisionFlags() & ~CF_HAS_CONTACT_STIFFNESS_DAMPING);
+      caterpillarDrive.stop();
       switchMotion(Motion.IDLE, null);
     } else {
-      updatePhysicalState(Math.min(timeStep, timeLeft));
+      updatePhysicalState(Math.min(timeStep, timeLeft), timeStep);
       timeLeft -= deltaTime;
     }
+    if (isVelocityDriven) {
+      caterpillarDrive.updateContactCallbackFilter(timeStep);
+    }
   }
 
   /**
@@ -201,16 +235,40 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     }
   }
 
-  /** 物理的な状態を更新する. */
-  private void updatePhysicalState(float timeStep) {
-    if (!isOnGround() || timeStep <= 0) {
+  /**
+   * 物理的な状態を更新する.
+   *
+   * <p>{@link #isVelocityDriven} が true の場合, キャタピラの目標の速度と角速度を設定して,
+   * 接触面との摩擦力を物理シミュレーションのソルバに計算させる.
+   * 押している物体の重さや最大摩擦力が移動に反映されるが, 動き出しと停止時に加減速するので,
+   * 移動距離は (速度 * 時間) と厳密には一致しない.
+   * false の場合, {@link #move} と {@link #rotate} で位置と姿勢を直接書き換える.
+   *
+   * @param motionTime 次の物理シミュレーションで進む時間のうち, 現在の動作を続ける時間 (秒)
+   * @param timeStep 次の物理シミュレーションで進む時間 (秒)
+   */
+  private void updatePhysicalState(float motionTime, float timeStep) {
+    if (!isOnGround() || motionTime <= 0) {
+      caterpillarDrive.stop();
       return;
     }
     body.setCollisionFlags(body.getCollisionFlags() | CF_HAS_CONTACT_STIFFNESS_DAMPING);
+    if (!isVelocityDriven) {
+      if ((motion == Motion.MOVE_FORWARD) || (motion == Motion.MOVE_BACKWARD)) {
+        move(speed, motionTime);
+      } else if ((motion == Motion.TURN_LEFT) || (motion == Motion.TURN_RIGHT)) {
+        rotate(rotationSpeed, motionTime);
+      }
+      return;
+    }
+    // 動作の残り時間が次の更新で進む時間より短い場合, 行き過ぎを抑えるために目標値を小さくする.
+    float ratio = motionTime / timeStep;
     if ((motion == Motion.MOVE_FORWARD) || (motion == Motion.MOVE_BACKWARD)) {
-      move(speed, timeStep);
+      caterpillarDrive.setTarget(speed * ratio, 0);
     } else if ((motion == Motion.TURN_LEFT) || (motion == Motion.TURN_RIGHT)) {
-      rotate(rotationSpeed, timeStep);
+      caterpillarDrive.setTarget(0, rotationSpeed * ratio);
+    } else {
+      caterpillarDrive.stop();
     }
   }
 
@@ -273,6 +331,8 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     rigidBody.setSpinningFriction(spinningFriction);
     rigidBody.setRollingFriction(1e-5f);
     rigidBody.setContactStiffnessAndDamping(3000f, 24f);
+    ContinuousCollisionPolicy.apply(rigidBody);
+    // onContactPointUpdated を呼ぶかどうかは CaterpillarDrive がフィルタを設定して切り替える.
     return rigidBody;
   }
 
@@ -313,62 +373,54 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     return ghostObj;
   }
 
-  /** この 3D モデルの論理的な位置から描画位置を計算する. */
-  private Vector3 calcRenderingPos(Vector3 pos) {
-    var transformedLogicalOrigin = new Vector3(logicalOrigin);
+  /**
+   * この 3D モデルの論理的な位置から描画位置を計算する.
+   *
+   * @param pos 論理的な位置
+   * @param storage 描画位置を格納するベクトル. {@code pos} と同じオブジェクトであってはならない.
+   * @return {@code storage}
+   */
+  private Vector3 calcRenderingPos(Vector3 pos, Vector3 storage) {
+    // 描画位置 = 原点の位置 - 論理的な原点の位置 + pos = -(回転させた logicalOrigin) + pos
     Matrix4 mat = body.getWorldTransform();
-    transformedLogicalOrigin.mul(mat);
-    var transformedOrigin = new Vector3();
-    mat.getTranslation(transformedOrigin);
-    return transformedOrigin.sub(transformedLogicalOrigin).add(pos);
+    return storage.set(logicalOrigin).rot(mat).scl(-1f).add(pos);
   }
 
   /** この 3D モデルが接地しているかチェックする. */
   public boolean isOnGround() {
-    boolean isCaterpillarCollided = false;
-    for (CollisionObjPair pair : manifoldToCollisionPair.values()) {
-      if (pair.obj0() == caterpillarCollisionObj && !(pair.obj1().userData instanceof Lamp)) {
-        isCaterpillarCollided = true;
-        break;
-      }
+    if (contactIndex == null) {
+      return false;
     }
-    return calcTiltAngle() <= (Math.PI / 4) && isCaterpillarCollided;
+    boolean isCaterpillarCollided = contactIndex.getNumSolidContacts(caterpillarCollisionObj) > 0;
+    return isCaterpillarCollided && calcTiltAngle() <= (Math.PI / 4);
   }
 
   /** 実態のあるオブジェクトと接しているかチェックする. */
   public boolean isOnSomething() {
-    for (CollisionObjPair pair : manifoldToCollisionPair.values()) {
-      if (!(pair.obj1().userData instanceof Lamp)) {
-        return true;
-      }
+    if (contactIndex == null) {
+      return false;
     }
-    return false;
+    return contactIndex.getNumSolidContacts(body) > 0
+        || contactIndex.getNumSolidContacts(caterpillarCollisionObj) > 0;
   }
 
   /** 色センサの値を取得する. */
   public Color detectColor() {
-    computeCollisionDetection(colorSensorCollisionObj);
     Color detectedColor = new Color(Color.BLACK);
-    for (CollisionObjPair pair : manifoldToCollisionPair.values()) {
-      if (pair.obj0() == colorSensorCollisionObj && (pair.obj1().userData instanceof Lamp lamp)) {
+    if (world == null) {
+      return detectedColor;
+    }
+    colorSensorContactTest.getContactedCollidables(
+        world, colorSensorCollisionObj, lampsOnColorSensor);
+    for (Collidable obj : lampsOnColorSensor) {
+      if (obj instanceof Lamp lamp) {
         lamp.getLightColor().ifPresent(detectedColor::add);
       }
     }
+    lampsOnColorSensor.clear();
     return detectedColor;
   }
 
-  /** 引数で指定した衝突判定オブジェクトの衝突判定を再計算する. */
-  private void computeCollisionDetection(btCollisionObject collisionObj) {
-    btBroadphaseProxy bp = collisionObj.getBroadphaseHandle();
-    if (bp == null) {
-      return;
-    }
-    world.getBroadphase()
-        .getOverlappingPairCache()
-        .cleanProxyFromPairs(bp, world.getDispatcher());
-    world.performDiscreteCollisionDetection();
-  }
-
   /**
    * モデルを前進させる.
    *
@@ -528,14 +580,13 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
 
   /**
    * モデルを前進または後退させる.
+   * {@link BhSimSettings.Simulation#velocityDrive} が false の場合に使用する.
    *
-   * <p>以下の理由により, モデルに速度を与える方法ではなく位置を指定する方法をとる.
+   * <p>以下の理由により, {@link CaterpillarDrive} を使わずに位置を直接指定する方法も残している.
    * <br><br>
-   * - 速度を与える方法では, 摩擦を考慮して大き目の速度を与えなければならないが,
-   *   低速時の摩擦のモデルが Coulomb 摩擦モデルに従わないので速度の増分の計算するのが難しい.
+   * - 速度を与える方法では, 動き出しと停止時に加減速するので, 正確に (速度 * 時間) 分の距離を移動しない. <br><br>
+   * - 低速時の摩擦のモデルが Coulomb 摩擦モデルに従わないので, 移動距離が接触面の摩擦や荷重に依存する.
    *   (Stribeck 摩擦モデルのような挙動を示す) <br><br>
-   * - フレームレートによって摩擦モデルを切り替えるための閾値となる速度が変わるので, 速度の増分の計算が複雑になる. <br><br>
-   * - 正確に (速度 * 時間) 分の距離を移動させようとすると, 移動終了後に滑る分を相殺する処理が必要になる. <br><br>
    * - 軽い箱の上を走るとき, 箱ごと回ってしまう.
    * </p>
    */
@@ -545,28 +596,28 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
       return;
     }
     // Matrix4.translate を使う場合, 移動方向はローカル座標系で指定する必要がある
-    var distance = new Vector3(0, 0, -1).scl(speed * deltaTime);
-    Matrix4 mat = body.getWorldTransform().translate(distance);
+    Matrix4 mat = body.getWorldTransform().translate(0, 0, -speed * deltaTime);
     body.setWorldTransform(mat);
   }
 
-  /** モデルを回転させる. */
+  /**
+   * モデルを回転させる.
+   * {@link BhSimSettings.Simulation#velocityDrive} が false の場合に使用する.
+   */
   private void rotate(float rotSpeed, float deltaTime) {
     if (body.getAngularVelocity().len() > Math.abs(rotSpeed)) {
       return;
     }
     // Matrix4.rotateRad を使う場合, 回転軸はローカル座標系で指定する必要がある
-    var rotAxis = new Vector3(0, 1, 0);
-    Matrix4 mat = body.getWorldTransform().rotateRad(rotAxis, rotSpeed * deltaTime);
+    Matrix4 mat = body.getWorldTransform().rotateRad(Vector3.Y, rotSpeed * deltaTime);
     body.setWorldTransform(mat);
   }
 
   /** ローカル座標系の Y 軸とワールド座標系の Y 軸のなす角度 (radian) を求める. */
   private float calcTiltAngle() {
+    // 回転後の Y 軸 (M01, M11, M21) とワールド座標系の Y 軸 (0, 1, 0) の内積は M11 となる.
     float[] matVals = body.getWorldTransform().getValues();
-    var rotatedY = new Vector3(
-        matVals[Matrix4.M01], matVals[Matrix4.M11], matVals[Matrix4.M21]);
-    return (float) Math.acos(Math.clamp(rotatedY.dot(0, 1, 0), -1, 1));
+    return (float) Math.acos(Math.clamp(matVals[Matrix4.M11], -1, 1));
   }
 
   /**
@@ -575,19 +626,48 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
    * @return この RaspiCar が持つ距離センサの値
    */
   public float measureDistance() {
-    if (world == null) {
+    if (distanceSensorQuery == null) {
       return 0f;
     }
-    var helper = new RayTestHelper(world);
-    var mat = body.getWorldTransform();
-    var transformedStartPos = new Vector3(beamStartPos).scl(scale).mul(mat);
-    var transformedEndPos = new Vector3(beamEndPos).scl(scale).mul(mat);
-    Optional<RayTestResult<Collidable>> result = helper.getIntersectedCollidable(
-        transformedStartPos,
-        transformedEndPos,
-        CollisionGroup.PHYSICAL_ENTITY,
-        CollisionGroup.STAGE);
-    return result.map(res -> res.pos().sub(transformedStartPos).len()).orElse(0f);
+    Matrix4 mat = body.getWorldTransform();
+    worldBeamStartPos.set(beamStartPos).scl(scale).mul(mat);
+    worldBeamEndPos.set(beamEndPos).scl(scale).mul(mat);
+    if (!distanceSensorQuery.test(worldBeamStartPos, worldBeamEndPos, distanceSensorHit)) {
+      return 0f;
+    }
+    return distanceSensorHit.pos.dst(worldBeamStartPos);
+  }
+
+  /**
+   * 距離センサのビームを水平方向に走査して, 等間隔な {@code numRays} 方向の距離を計測する. (単位: meters)
+   *
+   * <p>走査は RaspiCar の左側から右側に向かって行い, 各方向の距離を {@code distances} の先頭から格納する.
+   * 何とも交差しなかった方向の距離は 0 とする.
+   * {@code fov} が 360 度の場合は, 同じ方向を 2 回計測しないように, 全周を {@code numRays} 等分した方向の距離を計測する.
+   *
+   * @param numRays 距離を計測する方向の数
+   * @param fov 走査範囲の角度. ビームの正面を中心とした左右の合計. (単位: degrees)
+   * @param distances 計測した距離を格納する配列. 要素数は {@code numRays} 以上でなければならない.
+   */
+  public void measureDistanceSweep(int numRays, float fov, float[] distances) {
+    if (distanceSensorQuery == null) {
+      Arrays.fill(distances, 0, numRays, 0f);
+      return;
+    }
+    Matrix4 mat = body.getWorldTransform();
+    worldBeamStartPos.set(beamStartPos).scl(scale).mul(mat);
+    // 全周を走査する場合, 最初と最後の方向が一致するので間隔を fov / numRays とする.
+    int numIntervals = (fov >= 360f) ? numRays : numRays - 1;
+    float step = (numRays > 1) ? fov / numIntervals : 0f;
+    float firstAngle = (numRays > 1) ? fov / 2f : 0f;
+    for (int i = 0; i < numRays; ++i) {
+      float angle = firstAngle - step * i;
+      // ビームの始点を中心にローカル座標系の Y 軸周りに回転させる. 正の回転は左向き.
+      worldBeamEndPos.set(beamEndPos).sub(beamStartPos).rotate(Vector3.Y, angle)
+          .add(beamStartPos).scl(scale).mul(mat);
+      distances[i] = distanceSensorQuery.test(worldBeamStartPos, worldBeamEndPos, distanceSensorHit)
+          ? distanceSensorHit.pos.dst(worldBeamStartPos) : 0f;
+    }
   }
 
   /** この RaspiCar の左目の色を取得する. */
@@ -657,13 +737,22 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     sensorBeam.getRenderables(renderables, pool);
   }
 
+  @Override
+  public float getBoundingSphere(Vector3 center) {
+    return boundingSphere.toWorld(scene.modelInstance.transform, center);
+  }
+
   @Override
   public void dispose() {
+    if (distanceSensorQuery != null) {
+      distanceSensorQuery.dispose();
+    }
+    colorSensorContactTest.dispose();
     colorSensorCollisionObj.dispose();
     caterpillarCollisionObj.dispose();
     body.dispose();
     sensorBeam.model.dispose();
-    sceneAsset.dispose(); // model も dispose される.
+    SceneAssetCache.release(sceneAsset);
   }
 
   @Override
@@ -672,15 +761,13 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
   }
 
   @Override
-  public Vector3 getPosition() {
-    var pos = new Vector3(logicalOrigin);
-    pos.mul(body.getWorldTransform());
-    return pos;
+  public Vector3 getPosition(Vector3 storage) {
+    return storage.set(logicalOrigin).mul(body.getWorldTransform());
   }
 
   @Override
   public void setPosition(Vector3 pos) {
-    Vector3 newPos = calcRenderingPos(pos);
+    Vector3 newPos = calcRenderingPos(pos, tmpRenderingPos);
     Matrix4 mat = body.getWorldTransform().setTranslation(newPos);
     body.setWorldTransform(mat);
     body.getMotionState().setWorldTransform(mat);
@@ -719,26 +806,23 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
   }
 
   @Override
-  public void onContactStarted(
-      btPersistentManifold manifold, btCollisionObject self, btCollisionObject theOther) {
-    if (theOther.userData == this) {
-      return;
-    }
-    super.onContactStarted(manifold, self, theOther);
-  }
-
-  @Override
-  public void onContactEnded(
-      btPersistentManifold manifold, btCollisionObject self, btCollisionObject theOther) {
-    if (theOther.userData == this) {
-      return;
+  public void onContactPointUpdated(
+      btManifoldPoint point,
+      btCollisionObject self,
+      btCollisionObject theOther,
+      boolean isSelfObj0) {
+    if (self == body && theOther.userData != this) {
+      caterpillarDrive.updateContactPoint(point, theOther, isSelfObj0);
     }
-    super.onContactEnded(manifold, self, theOther);
   }
 
   @Override
-  public void addCollisionObjectsTo(btDynamicsWorld world) {
+  public void addCollisionObjectsTo(btDynamicsWorld world, ContactIndex contactIndex) {
     this.world = world;
+    this.contactIndex = contactIndex;
+    distanceSensorQuery = new RayQuery(
+        world,
+        new RayTestHelper.Config().add(CollisionGroup.PHYSICAL_ENTITY, CollisionGroup.STAGE));
     world.addRigidBody(
         body,
         CollisionGroup.PHYSICAL_ENTITY.val(),
@@ -750,15 +834,19 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
         caterpillarCollisionObj,
         CollisionGroup.PHYSICAL_CONTACT_DETECTOR.val(),
         CollisionGroup.mask(CollisionGroup.STAGE, CollisionGroup.PHYSICAL_ENTITY));
-    world.addCollisionObject(
-        colorSensorCollisionObj, CollisionGroup.LAMP_LIGHT.val(), CollisionGroup.LAMP_LIGHT.val());
+    contactIndex.register(body, CollisionGroup.PHYSICAL_ENTITY, true);
+    contactIndex.register(caterpillarCollisionObj, CollisionGroup.PHYSICAL_CONTACT_DETECTOR, true);
   }
 
   @Override
-  public void removeCollisionObjectsFrom(btDynamicsWorld world) {
+  public void removeCollisionObjectsFrom(btDynamicsWorld world, ContactIndex contactIndex) {
     world.removeRigidBody(body);
     world.removeCollisionObject(caterpillarCollisionObj);
-    world.removeCollisionObject(colorSensorCollisionObj);
+    contactIndex.unregister(body);
+    contactIndex.unregister(caterpillarCollisionObj);
+    this.contactIndex = null;
+    distanceSensorQuery.dispose();
+    distanceSensorQuery = null;
     this.world = null;
   }
 
@@ -771,6 +859,21 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
     resetRotation();
   }
 
+  @Override
+  protected btRigidBody getRigidBody() {
+    return body;
+  }
+
+  @Override
+  public void addOnTransformChanged(Consumer<Matrix4> onTransformChanged) {
+    ((CustomMotionState) body.getMotionState()).addOnWorldTransform(onTransformChanged);
+  }
+
+  @Override
+  public void removeOnTransformChanged(Consumer<Matrix4> onTransformChanged) {
+    ((CustomMotionState) body.getMotionState()).removeOnWorldTransform(onTransformChanged);
+  }
+
   @Override
   public void select() {
     isSelected = true;
@@ -790,6 +893,9 @@ public class RaspiCar extends PhysicalEntity implements ObjectReflectionProvider
 
   @Override
   public RaspiCarCtrlView getUiView() {
+    if (uiComponent == null) {
+      uiComponent = new RaspiCarCtrlView(this);
+    }
     return uiComponent;
   }
 
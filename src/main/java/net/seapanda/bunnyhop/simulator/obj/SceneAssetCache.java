@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.obj;
+
+import com.badlogic.gdx.Gdx;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import net.mgsx.gltf.loaders.glb.GLBLoader;
+import net.mgsx.gltf.scene3d.scene.SceneAsset;
+import net.seapanda.bunnyhop.simulator.BhSimulator;
+
+/**
+ * GLB ファイルから読み込んだ {@link SceneAsset} を, 同じファイルを使う 3D モデルの間で共有するためのクラス.
+ *
+ * <p>{@link SceneAsset} は参照カウントで管理され, 最後の参照が解放されたときに破棄される.
+ * 3D モデルごとに異なる状態 (変換行列やマテリアル) は {@link com.badlogic.gdx.graphics.g3d.ModelInstance}
+ * が持つので, メッシュやテクスチャは共有しても問題ない.
+ *
+ * @author K.Koike
+ */
+public class SceneAssetCache {
+
+  /** モデルファイルのパスとキャッシュのエントリのマップ. */
+  private static final Map<String, Entry> pathToEntry = new HashMap<>();
+  /** {@link SceneAsset} とキャッシュのエントリのマップ. */
+  private static final Map<SceneAsset, Entry> assetToEntry = new IdentityHashMap<>();
+
+  private SceneAssetCache() {}
+
+  /**
+   * {@code modelPath} で指定したモデルファイルの {@link SceneAsset} を取得し, その参照カウントを 1 増やす.
+   * まだ読み込まれていない場合は読み込む.
+   *
+   * @param modelPath {@link BhSimulator#ASSET_PATH} からのモデルファイルの相対パス
+   * @return {@code modelPath} に対応する {@link SceneAsset}.
+   *         使い終わったら {@link #release} を呼ぶこと. {@link SceneAsset#dispose} を呼んではならない.
+   */
+  public static synchronized SceneAsset acquire(String modelPath) {
+    Entry entry = pathToEntry.get(modelPath);
+    if (entry == null) {
+      SceneAsset asset = new GLBLoader().load(
+          Gdx.files.absolute(BhSimulator.ASSET_PATH + modelPath));
+      entry = new Entry(modelPath, asset);
+      pathToEntry.put(modelPath, entry);
+      assetToEntry.put(asset, entry);
+    }
+    ++entry.refCount;
+    return entry.asset;
+  }
+
+  /**
+   * {@link #acquire} で取得した {@code asset} の参照カウントを 1 減らす.
+   * 参照カウントが 0 になった場合は {@code asset} を破棄する.
+   *
+   * @param asset 参照カウントを減らす {@link SceneAsset}
+   */
+  public static synchronized void release(SceneAsset asset) {
+    Entry entry = assetToEntry.get(asset);
+    if (entry == null) {
+      return;
+    }
+    if (--entry.refCount > 0) {
+      return;
+    }
+    pathToEntry.remove(entry.path);
+    assetToEntry.remove(asset);
+    asset.dispose();
+  }
+
+  /** {@link SceneAsset} とその参照カウントを格納するクラス. */
+  private static class Entry {
+    private final String path;
+    private final SceneAsset asset;
+    private int refCount = 0;
+
+    private Entry(String path, SceneAsset asset) {
+      this.path = path;
+      this.asset = asset;
+    }
+  }
+}
@@ -16,7 +16,6 @@
 
 package net.seapanda.bunnyhop.simulator.obj;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g3d.Attribute;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
@@ -25,7 +24,6 @@ import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.model.Node;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.Collision;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
@@ -35,11 +33,10 @@ import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 import java.util.List;
-import net.mgsx.gltf.loaders.glb.GLBLoader;
 import net.mgsx.gltf.scene3d.scene.Scene;
 import net.mgsx.gltf.scene3d.scene.SceneAsset;
 import net.mgsx.gltf.scene3d.utils.MaterialConverter;
-import net.seapanda.bunnyhop.simulator.BhSimulator;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
 import net.seapanda.bunnyhop.simulator.geometry.GeoUtil;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
 
@@ -51,8 +48,7 @@ import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
 public class Stage extends Collidable {
  
   private final btRigidBody body;
-  private final SceneAsset sceneAsset = new GLBLoader().load(
-      Gdx.files.absolute(BhSimulator.ASSET_PATH + "/Models/Stage.glb"));
+  private final SceneAsset sceneAsset = SceneAssetCache.acquire("/Models/Stage.glb");
   private final Scene scene;
   private final Vector3 pos;
   private final Vector3 size = new Vector3(48.09744f, 0f, 48.09744f);
@@ -107,7 +103,6 @@ public class Stage extends Collidable {
     var rigidBody = new btRigidBody(0f, motionState, shape, new Vector3());
     rigidBody.setCollisionFlags(
         rigidBody.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_STATIC_OBJECT);
-    rigidBody.setActivationState(Collision.DISABLE_DEACTIVATION);
     rigidBody.userData = this;
     rigidBody.setFriction(0.5f);
     return rigidBody;
@@ -141,7 +136,7 @@ public class Stage extends Collidable {
   @Override
   public void dispose() {
     body.dispose();
-    sceneAsset.dispose();
+    SceneAssetCache.release(sceneAsset);
   }
 
   @Override
@@ -150,10 +145,8 @@ public class Stage extends Collidable {
   }
 
   @Override
-  public Vector3 getPosition() {
-    var pos = new Vector3(logicalOrigin);
-    pos.mul(body.getWorldTransform());
-    return pos;
+  public Vector3 getPosition(Vector3 storage) {
+    return storage.set(logicalOrigin).mul(body.getWorldTransform());
   }
 
   @Override
@@ -173,18 +166,20 @@ public class Stage extends Collidable {
   }
 
   @Override
-  public void addCollisionObjectsTo(btDynamicsWorld world) {
+  public void addCollisionObjectsTo(btDynamicsWorld world, ContactIndex contactIndex) {
     world.addRigidBody(
         body,
         CollisionGroup.STAGE.val(),
         CollisionGroup.mask(
             CollisionGroup.PHYSICAL_ENTITY,
             CollisionGroup.PHYSICAL_CONTACT_DETECTOR));
+    contactIndex.register(body, CollisionGroup.STAGE, true);
   }
 
   @Override
-  public void removeCollisionObjectsFrom(btDynamicsWorld world) {
+  public void removeCollisionObjectsFrom(btDynamicsWorld world, ContactIndex contactIndex) {
     world.removeRigidBody(body);
+    contactIndex.unregister(body);
   }
 
   @Override
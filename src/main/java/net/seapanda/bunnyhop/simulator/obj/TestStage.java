@@ -30,7 +30,6 @@ import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.BoxShapeBuilder;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.bullet.collision.Collision;
 import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
@@ -40,6 +39,7 @@ import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
 import net.seapanda.bunnyhop.simulator.obj.interfaces.Collidable;
 
 /**
@@ -146,7 +146,6 @@ public class TestStage extends Collidable {
     var rigidBody = new btRigidBody(0f, motionState, shape, localInertia);
     rigidBody.setCollisionFlags(
         rigidBody.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_STATIC_OBJECT);
-    rigidBody.setActivationState(Collision.DISABLE_DEACTIVATION);
     rigidBody.userData = this;
     rigidBody.setFriction(1.5f);
     return rigidBody;
@@ -174,10 +173,8 @@ public class TestStage extends Collidable {
   }
 
   @Override
-  public Vector3 getPosition() {
-    var pos = new Vector3();
-    body.getWorldTransform().getTranslation(pos);
-    return pos;
+  public Vector3 getPosition(Vector3 storage) {
+    return body.getWorldTransform().getTranslation(storage);
   }
 
   @Override
@@ -201,18 +198,20 @@ public class TestStage extends Collidable {
   }
 
   @Override
-  public void addCollisionObjectsTo(btDynamicsWorld world) {
+  public void addCollisionObjectsTo(btDynamicsWorld world, ContactIndex contactIndex) {
     world.addRigidBody(
         body,
         CollisionGroup.STAGE.val(),
         CollisionGroup.mask(
             CollisionGroup.PHYSICAL_ENTITY,
             CollisionGroup.PHYSICAL_CONTACT_DETECTOR));
+    contactIndex.register(body, CollisionGroup.STAGE, true);
   }
 
   @Override
-  public void removeCollisionObjectsFrom(btDynamicsWorld world) {
+  public void removeCollisionObjectsFrom(btDynamicsWorld world, ContactIndex contactIndex) {
     world.removeRigidBody(body);
+    contactIndex.unregister(body);
   }
 
   @Override
@@ -1,9 +1,9 @@
 package net.seapanda.bunnyhop.simulator.obj.interfaces;
 
 import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
-import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
 import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
-import java.util.HashMap;
+import net.seapanda.bunnyhop.simulator.geometry.ContactIndex;
 
 /**
  * 衝突判定を持つ 3D モデルの基底クラス.
@@ -12,51 +12,39 @@ import java.util.HashMap;
  */
 public abstract class Collidable implements SimulationObject {
 
-  /** 衝突点を格納するオブジェクトと衝突中のオブジェクトのペアのマップ. */
-  protected final HashMap<btPersistentManifold, CollisionObjPair> manifoldToCollisionPair = 
-      new HashMap<>();
-
-  /** 引数で指定した {@link btDynamicsWorld} オブジェクトに, この 3D モデルが持つ衝突判定オブジェクトを追加する. */
-  public abstract void addCollisionObjectsTo(btDynamicsWorld world);
+  /**
+   * 引数で指定した {@link btDynamicsWorld} オブジェクトに, この 3D モデルが持つ衝突判定オブジェクトを追加する.
+   *
+   * @param world 衝突判定オブジェクトを追加する {@link btDynamicsWorld} オブジェクト
+   * @param contactIndex 追加した衝突判定オブジェクトの接触状態を記録するオブジェクト
+   */
+  public abstract void addCollisionObjectsTo(btDynamicsWorld world, ContactIndex contactIndex);
 
-  /** 引数で指定した {@link btDynamicsWorld} オブジェクトに, この 3D モデルが持つ衝突判定オブジェクトを追加する. */
-  public abstract void removeCollisionObjectsFrom(btDynamicsWorld world);
+  /**
+   * 引数で指定した {@link btDynamicsWorld} オブジェクトから, この 3D モデルが持つ衝突判定オブジェクトを削除する.
+   *
+   * @param world 衝突判定オブジェクトを削除する {@link btDynamicsWorld} オブジェクト
+   * @param contactIndex 削除した衝突判定オブジェクトの接触状態を記録していたオブジェクト
+   */
+  public abstract void removeCollisionObjectsFrom(
+      btDynamicsWorld world, ContactIndex contactIndex);
 
   /** この 3D モデルをマウスドラッグで移動可能な場合 true を返す. */
   public abstract boolean isDraggable();
 
-  /** 
-   * 衝突開始時の処理を行うメソッド. 
+  /**
+   * 衝突判定オブジェクトの接触点が追加または更新されたときの処理を行うメソッド.
+   * {@link btCollisionObject#setContactCallbackFilter} で, 接触相手のフラグと一致するフィルタを設定した
+   * 衝突判定オブジェクトの接触点に対してのみ呼ばれる.
    *
-   * @param manifold {@code self} と {@code theOther} の衝突点情報を格納するオブジェクト.
+   * @param point 追加または更新された接触点
    * @param self この 3D モデルに含まれる衝突判定オブジェクト
-   * @param theOther この 3D モデルと衝突を開始したオブジェクト
+   * @param theOther {@code self} と接触しているオブジェクト
+   * @param isSelfObj0 {@code point} の A 側のオブジェクトが {@code self} である場合 true
    */
-  public void onContactStarted(
-      btPersistentManifold manifold, btCollisionObject self, btCollisionObject theOther) {
-    manifoldToCollisionPair.put(manifold, new CollisionObjPair(self, theOther));
-  }
-
-  /** 
-   * 衝突終了時の処理を行うメソッド. 
-   *
-   * @param manifold {@code self} と {@code theOther} の衝突点情報を格納するオブジェクト.
-   * @param self この 3D モデルに含まれる衝突判定オブジェクト
-   * @param theOther この 3D モデルと衝突を終了したオブジェクト
-   */
-  public void onContactEnded(
-      btPersistentManifold manifold, btCollisionObject self, btCollisionObject theOther) {
-    manifoldToCollisionPair.remove(manifold);
-  }
-
-  /** この 3D モデルと交差している {@link Collidable} を返す. */
-  public Iterable<Collidable> getIntersectedCollidables() {
-    return manifoldToCollisionPair.values().stream()
-      .filter(pair -> pair.obj1.userData instanceof Collidable)
-      .map(pair -> (Collidable) pair.obj1.userData)
-      .toList();
-  }
-
-  /** 衝突判定オブジェクトのペア. */
-  protected record CollisionObjPair(btCollisionObject obj0, btCollisionObject obj1) { }
+  public void onContactPointUpdated(
+      btManifoldPoint point,
+      btCollisionObject self,
+      btCollisionObject theOther,
+      boolean isSelfObj0) {}
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.obj.interfaces;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * 視錐台の外にある場合に描画を省略できることを示すインタフェース.
+ *
+ * @author K.Koike
+ */
+public interface Cullable {
+
+  /**
+   * 描画範囲の判定に使う境界球を求める.
+   *
+   * @param center 境界球の中心 (ワールド座標) の格納先
+   * @return 境界球の半径
+   */
+  public float getBoundingSphere(Vector3 center);
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.obj.interfaces;
+
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+
+/**
+ * 同じモデルとマテリアルを持つ他の 3D モデルとまとめて描画可能であることを示すインタフェース.
+ *
+ * @author K.Koike
+ */
+public interface InstanceableRenderable {
+
+  /**
+   * まとめて描画するときに使う {@link ModelInstance} を取得する.
+   * 返される {@link ModelInstance} のモデルが同じ 3D モデルは, 全て同じマテリアルを持っていなければならない.
+   *
+   * @return まとめて描画するときに使う {@link ModelInstance}.
+   *         選択中などの理由で, 他の 3D モデルとまとめて描画できない場合は null.
+   */
+  public ModelInstance getInstanceableModel();
+}
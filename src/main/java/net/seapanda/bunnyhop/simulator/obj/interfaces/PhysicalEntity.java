@@ -1,5 +1,10 @@
 package net.seapanda.bunnyhop.simulator.obj.interfaces;
 
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import java.util.function.Consumer;
+
 /** 
  * 物理演算の対象となる 3D モデルの基底クラス.
  *
@@ -9,4 +14,71 @@ public abstract class PhysicalEntity extends Collidable {
   
   /** 姿勢, 速度, 角速度などを初期状態に戻す. */
   public abstract void resetPhysicalState();
+
+  /** この 3D モデルの物理演算の対象となる剛体を取得する. */
+  protected abstract btRigidBody getRigidBody();
+
+  /**
+   * 剛体の姿勢が変わったときに呼ぶ関数を追加する.
+   * 物理演算で剛体が動いたときと, 3D モデルの位置や回転を設定したときに呼ばれる.
+   * 休止状態の剛体に対しては呼ばれない.
+   *
+   * @param onTransformChanged 剛体の姿勢を受け取る関数. 受け取った行列は呼び出し中のみ有効.
+   */
+  public abstract void addOnTransformChanged(Consumer<Matrix4> onTransformChanged);
+
+  /** {@link #addOnTransformChanged} で追加した関数を削除する. */
+  public abstract void removeOnTransformChanged(Consumer<Matrix4> onTransformChanged);
+
+  /**
+   * 剛体の原点の位置を取得する.
+   *
+   * @param storage 剛体の原点の位置を格納するベクトル
+   * @return {@code storage}
+   */
+  public Vector3 getBodyOrigin(Vector3 storage) {
+    return getRigidBody().getWorldTransform().getTranslation(storage);
+  }
+
+  /**
+   * 剛体の姿勢, 速度, 角速度を取得する.
+   *
+   * @param transform 剛体の姿勢を格納するオブジェクト
+   * @param linearVelocity 剛体の速度を格納するオブジェクト
+   * @param angularVelocity 剛体の角速度を格納するオブジェクト
+   */
+  public void getPhysicalState(
+      Matrix4 transform, Vector3 linearVelocity, Vector3 angularVelocity) {
+    btRigidBody body = getRigidBody();
+    body.getWorldTransform(transform);
+    linearVelocity.set(body.getLinearVelocity());
+    angularVelocity.set(body.getAngularVelocity());
+  }
+
+  /**
+   * 剛体の姿勢, 速度, 角速度を設定する.
+   * 剛体に加わっている力はクリアされる.
+   *
+   * @param transform 剛体の姿勢
+   * @param linearVelocity 剛体の速度
+   * @param angularVelocity 剛体の角速度
+   */
+  public void setPhysicalState(
+      Matrix4 transform, Vector3 linearVelocity, Vector3 angularVelocity) {
+    btRigidBody body = getRigidBody();
+    body.clearForces();
+    body.setWorldTransform(transform);
+    body.setInterpolationWorldTransform(transform);
+    body.getMotionState().setWorldTransform(transform);
+    body.setLinearVelocity(linearVelocity);
+    body.setAngularVelocity(angularVelocity);
+    body.setInterpolationLinearVelocity(linearVelocity);
+    body.setInterpolationAngularVelocity(angularVelocity);
+    body.activate();
+  }
+
+  /** 休止状態の剛体を物理演算の対象に戻す. */
+  public void wakeUp() {
+    getRigidBody().activate();
+  }
 }
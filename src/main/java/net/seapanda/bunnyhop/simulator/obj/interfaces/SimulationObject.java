@@ -12,7 +12,17 @@ import com.badlogic.gdx.utils.Disposable;
 public interface SimulationObject extends RenderableProvider, Disposable {
 
   /** この 3D モデルの位置を取得する. */
-  public Vector3 getPosition();
+  public default Vector3 getPosition() {
+    return getPosition(new Vector3());
+  }
+
+  /**
+   * この 3D モデルの位置を {@code storage} に格納する.
+   *
+   * @param storage 位置を格納するベクトル
+   * @return {@code storage}
+   */
+  public Vector3 getPosition(Vector3 storage);
 
   /** この 3D モデルの位置を設定する. */
   public void setPosition(Vector3 pos);
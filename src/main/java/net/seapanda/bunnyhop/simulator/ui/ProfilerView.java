@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 K.Koike
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.seapanda.bunnyhop.simulator.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.ui.Cell;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.kotcrab.vis.ui.widget.VisTable;
+import net.seapanda.bunnyhop.simulator.FrameProfiler;
+import net.seapanda.bunnyhop.simulator.FrameProfiler.Counter;
+import net.seapanda.bunnyhop.simulator.FrameProfiler.Phase;
+
+/**
+ * 現在の 1 秒あたりのフレーム数と, {@link FrameProfiler} が記録した計測結果を表示する View.
+ *
+ * <p>通常は FPS のみを表示し, {@link #toggleDetails} で各段階の処理時間などの詳細を表示する.
+ * 表示の更新ではオブジェクトを作成しない.
+ *
+ * @author K.Koike
+ */
+public class ProfilerView extends VisTable {
+
+  /** 表示を更新する間隔 (秒). */
+  private static final float UPDATE_INTERVAL = 0.25f;
+  /** 表示するパーセンタイル. */
+  private static final float[] percentiles = {50f, 95f, 99f};
+  private static final Phase[] phases = Phase.values();
+  private static final Counter[] counters = Counter.values();
+
+  private final FrameProfiler profiler;
+  private final LabelStyle style;
+  private final Label fps;
+  /** 詳細を表示する部分. */
+  private final VisTable details = new VisTable();
+  /** 詳細を表示する部分を配置するセル. */
+  private final Cell<VisTable> detailsCell;
+  /** 各段階の処理時間の平均値とパーセンタイル値を表示するラベル. */
+  private final Label[][] phaseLabels = new Label[phases.length][1 + percentiles.length];
+  /** 各統計値を表示するラベル. */
+  private final Label[] counterLabels = new Label[counters.length];
+  /** ラベルの文字列を作るためのバッファ. */
+  private final StringBuilder buf = new StringBuilder();
+  /** 前回表示を更新してからの経過時間 (秒). */
+  private float elapsed = UPDATE_INTERVAL;
+  private boolean showDetails = false;
+
+  /**
+   * コンストラクタ.
+   *
+   * @param profiler 表示する計測結果を持つオブジェクト
+   */
+  public ProfilerView(FrameProfiler profiler) {
+    this.profiler = profiler;
+    style = new LabelStyle(
+        UiUtil.createFont(
+            " 0123456789.=%()/-ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz",
+            15 * UiUtil.sclpt,
+            Color.WHITE),
+        Color.WHITE);
+    fps = new Label("", style);
+    this.add(fps).left();
+    this.row();
+    detailsCell = this.add((VisTable) null).left();
+    buildDetails();
+    this.pad(2 * UiUtil.sclmm);
+  }
+
+  private void buildDetails() {
+    float space = 2 * UiUtil.sclmm;
+    details.add(new Label("(ms)", style)).left().spaceRight(space);
+    details.add(new Label("avg", style)).right().spaceRight(space);
+    for (float percentile : percentiles) {
+      details.add(new Label("p" + Math.round(percentile), style)).right().spaceRight(space);
+    }
+    details.row();
+    for (Phase phase : phases) {
+      details.add(new Label(phase.name().toLowerCase(), style)).left().spaceRight(space);
+      for (int i = 0; i < phaseLabels[phase.ordinal()].length; ++i) {
+        var label = new Label("", style);
+        label.setAlignment(Align.right);
+        phaseLabels[phase.ordinal()][i] = label;
+        details.add(label).right().spaceRight(space);
+      }
+      details.row();
+    }
+    for (Counter counter : counters) {
+      String name = counter.name().toLowerCase().replace('_', ' ');
+      details.add(new Label(name, style)).left().colspan(2).spaceRight(space);
+      var label = new Label("", style);
+      counterLabels[counter.ordinal()] = label;
+      details.add(label).right().spaceRight(space);
+      details.row();
+    }
+  }
+
+  /** 詳細の表示と非表示を切り替える. */
+  public void toggleDetails() {
+    showDetails = !showDetails;
+    detailsCell.setActor(showDetails ? details : null);
+    profiler.setGlProfilingEnabled(showDetails);
+    elapsed = UPDATE_INTERVAL;
+  }
+
+  @Override
+  public void act(float delta) {
+    super.act(delta);
+    elapsed += delta;
+    if (elapsed < UPDATE_INTERVAL) {
+      return;
+    }
+    elapsed = 0;
+    buf.setLength(0);
+    buf.append(" FPS = ").append(Gdx.graphics.getFramesPerSecond());
+    fps.setText(buf);
+    if (showDetails) {
+      updateDetails();
+    }
+  }
+
+  private void updateDetails() {
+    for (Phase phase : phases) {
+      Label[] labels = phaseLabels[phase.ordinal()];
+      setText(labels[0], profiler.getAverage(phase));
+      for (int i = 0; i < percentiles.length; ++i) {
+        setText(labels[i + 1], profiler.getPercentile(phase, percentiles[i]));
+      }
+    }
+    for (Counter counter : counters) {
+      counterLabels[counter.ordinal()].setText(profiler.getCounter(counter));
+    }
+  }
+
+  /** {@code value} を小数点以下 2 桁まで {@code label} に表示する. */
+  private void setText(Label label, float value) {
+    int hundredths = Math.round(value * 100);
+    buf.setLength(0);
+    buf.append(hundredths / 100).append('.');
+    int frac = hundredths % 100;
+    if (frac < 10) {
+      buf.append('0');
+    }
+    buf.append(frac);
+    label.setText(buf);
+  }
+}
@@ -21,6 +21,7 @@ import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.StringBuilder;
 import com.kotcrab.vis.ui.widget.VisImage;
 import com.kotcrab.vis.ui.widget.VisTable;
 import net.seapanda.bunnyhop.simulator.BhSimulator;
@@ -32,6 +33,8 @@ public class SimulationObjectManagerView extends VisTable {
   private SimulationObjectManager simObjManager;
   /** [現在の 3D モデルの個数 / 3D モデルの最大数] を示すラベル. */
   private Label labelOfNumObjects;
+  /** ラベルの文字列を作るバッファ. フレームごとに再利用する. */
+  private final StringBuilder buf = new StringBuilder();
 
   /**
    * コンストラクタ.
@@ -60,8 +63,9 @@ public class SimulationObjectManagerView extends VisTable {
 
   @Override
   public void draw(Batch batch, float parentAlpha) {
-    var numObjectsStr = simObjManager.getNumObjects() + " / " + SimulationObjectManager.MAX_OBJECTS;
-    labelOfNumObjects.setText(numObjectsStr);
+    buf.setLength(0);
+    buf.append(simObjManager.getNumObjects()).append(" / ").append(simObjManager.getMaxObjects());
+    labelOfNumObjects.setText(buf);
     super.draw(batch, parentAlpha);
   }
 }
@@ -16,6 +16,7 @@
 
 package net.seapanda.bunnyhop.simulator.ui;
 
+import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -31,6 +32,7 @@ import com.kotcrab.vis.ui.widget.VisImage;
 import com.kotcrab.vis.ui.widget.VisScrollPane;
 import com.kotcrab.vis.ui.widget.VisTable;
 import net.seapanda.bunnyhop.simulator.BhSimulator;
+import net.seapanda.bunnyhop.simulator.FrameProfiler;
 
 /**
  * UI コンポーネントを統合して描画するクラス.
@@ -39,6 +41,9 @@ import net.seapanda.bunnyhop.simulator.BhSimulator;
  */
 public class UiComposer implements Disposable {
 
+  /** 計測結果の詳細の表示を切り替えるキー. */
+  private static final int PROFILER_KEY = Keys.F3;
+
   private final Stage stage = new Stage(new ScreenViewport());
   private final VisTable rhsRoot;
   private final VisTable lhsRoot;
@@ -48,11 +53,12 @@ public class UiComposer implements Disposable {
    *
    * @param modelCtrlView 3D モデルの制御を行うビュー
    * @param numSimObjectsView 3D モデルの個数を表示するビュー
+   * @param profiler 処理時間などの計測結果を持つオブジェクト
    */
-  public UiComposer(Actor modelCtrlView, Actor numSimObjectsView) {
+  public UiComposer(Actor modelCtrlView, Actor numSimObjectsView, FrameProfiler profiler) {
     rhsRoot = genRhsView(modelCtrlView);
     lhsRoot = genLhsView(numSimObjectsView);
-    stage.addActor(genFpsCounterView());
+    stage.addActor(genProfilerView(profiler));
     stage.addActor(rhsRoot);
     stage.addActor(lhsRoot);
     stage.addActor(genCrosshair());
@@ -121,10 +127,22 @@ public class UiComposer implements Disposable {
     return crosshair;
   }
 
-  private static FpsCounterView genFpsCounterView() {
-    var fpsCounterView = new FpsCounterView();
-    fpsCounterView.left().top().setFillParent(true);
-    return fpsCounterView;
+  /** 計測結果を表示するビューを作成する. {@link #PROFILER_KEY} で詳細の表示を切り替える. */
+  private ProfilerView genProfilerView(FrameProfiler profiler) {
+    var profilerView = new ProfilerView(profiler);
+    profilerView.left().top().setFillParent(true);
+    profilerView.setTouchable(Touchable.disabled);
+    stage.addListener(new InputListener() {
+      @Override
+      public boolean keyDown(InputEvent event, int keycode) {
+        if (keycode == PROFILER_KEY) {
+          profilerView.toggleDetails();
+          return true;
+        }
+        return false;
+      }
+    });
+    return profilerView;
   }
 
   @Override